@@ -7,6 +7,7 @@ import frLocale from '@fullcalendar/core/locales/fr';
 import {useStore} from '../store';
 import {useKeycloak} from '@react-keycloak/web';
 import {Booking} from '../types';
+import {Booking as BookingService} from '../services/Booking';
 import {useNavigate} from 'react-router-dom';
 import {EventClickArg} from '@fullcalendar/core';
 import {AlertCircle, Info, Loader, User, Users} from 'lucide-react';
@@ -134,6 +135,8 @@ export const BookingCalendar = () => {
     const [selectedBooking, setSelectedBooking] = useState<Booking | null>(null);
     const [userFilter, setUserFilter] = useState<'all' | 'mine'>('all');
     const [error, setError] = useState<string | null>(null);
+    const [visibleRange, setVisibleRange] = useState<{ start: Date; end: Date } | null>(null);
+    const [earlierBookings, setEarlierBookings] = useState<Booking[]>([]);
 
     const navigate = useNavigate();
     const {keycloak} = useKeycloak();
@@ -153,11 +156,42 @@ export const BookingCalendar = () => {
         void loadBookings();
     }, [fetchBookings]);
 
+    // Le store ne contient que les réservations du jour et à venir : une période passée affichée est chargée à part
+    useEffect(() => {
+        const startOfToday = new Date();
+        startOfToday.setHours(0, 0, 0, 0);
+        if (!visibleRange || visibleRange.start >= startOfToday) {
+            setEarlierBookings([]);
+            return;
+        }
+
+        let cancelled = false;
+        const to = visibleRange.end < startOfToday ? visibleRange.end : startOfToday;
+        BookingService.getAll({from: visibleRange.start, to})
+            .then(data => {
+                if (!cancelled) {
+                    // Celles qui débordent sur aujourd'hui sont déjà dans le store
+                    setEarlierBookings(data.filter(b => new Date(b.endTime) <= startOfToday));
+                }
+            })
+            .catch(err => {
+                console.error("Erreur lors du chargement des réservations passées:", err);
+                if (!cancelled) {
+                    setError("Impossible de charger les réservations de cette période.");
+                }
+            });
+        return () => {
+            cancelled = true;
+        };
+    }, [visibleRange]);
+
+    const calendarBookings = [...earlierBookings, ...bookings];
+
     // Liste des salles uniques
-    const rooms = Array.from(new Set(bookings.map(b => b.room?.name).filter(Boolean)));
+    const rooms = Array.from(new Set(calendarBookings.map(b => b.room?.name).filter(Boolean)));
 
     // Filtrer les réservations
-    const filteredBookings = bookings.filter(b => {
+    const filteredBookings = calendarBookings.filter(b => {
         const matchesRoom = selectedRoom === 'all' || b.room?.name === selectedRoom;
         const matchesUser = userFilter === 'all' || (currentUser && b.organizer === currentUser.username);
         return matchesRoom && matchesUser;
@@ -223,7 +257,7 @@ export const BookingCalendar = () => {
             navigate(`/create-booking?date=${selectInfo.startStr.split('T')[0]}&start=${selectInfo.startStr.split('T')[1]}&end=${selectInfo.endStr.split('T')[1]}`);
         } else {
             // Si une salle est sélectionnée, inclure l'ID de la salle dans la redirection
-            const room = bookings.find(b => b.room?.name === selectedRoom)?.room;
+            const room = calendarBookings.find(b => b.room?.name === selectedRoom)?.room;
             if (room) {
                 navigate(`/create-booking?roomId=${room.id}&date=${selectInfo.startStr.split('T')[0]}&start=${selectInfo.startStr.split('T')[1]}&end=${selectInfo.endStr.split('T')[1]}`);
             }
@@ -327,6 +361,7 @@ export const BookingCalendar = () => {
                         }
                     ]}
                     viewDidMount={(view) => setCalendarView(view.view.type)}
+                    datesSet={(info) => setVisibleRange({start: info.start, end: info.end})}
                     eventClick={handleEventClick}
                     select={handleDateSelect}
                     eventContent={(arg) => {
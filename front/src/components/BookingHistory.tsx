@@ -4,15 +4,13 @@ import {User as UserIcon, Calendar, MapPin, Users} from 'lucide-react';
 import {formatOrganizer} from '../composable/userFormatter';
 import {useStore} from '../store';
 import {useKeycloak} from "@react-keycloak/web";
+import {Booking} from '../services/Booking';
 
 export const BookingHistory = () => {
-    const {
-        bookings,
-        fetchBookings,
-        currentUser,
-        loading
-    } = useStore();
+    const {currentUser} = useStore();
 
+    // Réservations terminées, chargées ici : le store ne garde que celles du jour et à venir
+    const [bookings, setBookings] = useState<Booking[]>([]);
     const [localLoading, setLocalLoading] = useState(true);
 
     const isAdmin = useKeycloak().keycloak.tokenParsed?.realm_access?.roles?.includes('admin') || false;
@@ -20,7 +18,7 @@ export const BookingHistory = () => {
     useEffect(() => {
         const fetchData = async () => {
             try {
-                await fetchBookings();
+                setBookings(await Booking.getAll({to: new Date()}));
             } catch (error) {
                 console.error("Erreur lors du chargement des réservations :", error);
             } finally {
@@ -39,7 +37,7 @@ export const BookingHistory = () => {
         return currentUser && booking.organizer === currentUser.username;
     };
 
-    if (localLoading || loading.bookings) {
+    if (localLoading) {
         return (
             <div className="p-6 flex justify-center items-center h-64">
                 <div className="animate-spin rounded-full h-12 w-12 border-t-2 border-b-2 border-blue-500"></div>
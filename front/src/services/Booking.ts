@@ -1,6 +1,7 @@
 import ApiService from './apiService';
 import {Room} from './Room';
 import {BookingEquipment} from "./BookingEquipment";
+import {formatDateTimeLocal} from "../composable/formatTimestamp";
 
 export class Booking {
     public id!: string;
@@ -105,10 +106,33 @@ export class Booking {
         }
     }
 
-    public static async getAll(): Promise<Booking[]> {
+    /**
+     * Réservations chevauchant [from, to), page après page en suivant l'en-tête X-Next-Cursor.
+     * Dates locales, au format LocalDateTime de l'API ; sans fenêtre, l'API ne renvoie que les réservations en cours et à venir.
+     */
+    public static async getAll(range: { from?: Date; to?: Date } = {}): Promise<Booking[]> {
         try {
-            const bookings = await ApiService.get(Booking.baseEndpoint);
-            return bookings.map((b: any) => new Booking().fromJSON(b));
+            const params = new URLSearchParams();
+            if (range.from) {
+                params.set('from', formatDateTimeLocal(range.from));
+            }
+            if (range.to) {
+                params.set('to', formatDateTimeLocal(range.to));
+            }
+
+            const bookings: Booking[] = [];
+            let cursor: string | null = null;
+            do {
+                if (cursor) {
+                    params.set('cursor', cursor);
+                }
+                const query = params.toString();
+                const {data, headers} = await ApiService.fetchWithHeaders(
+                    query ? `${Booking.baseEndpoint}?${query}` : Booking.baseEndpoint);
+                bookings.push(...(data || []).map((b: any) => new Booking().fromJSON(b)));
+                cursor = headers.get('X-Next-Cursor');
+            } while (cursor);
+            return bookings;
         } catch (error) {
             console.error('Error fetching bookings:', error);
             throw error; // Propager l'erreur pour la gérer dans le composant
@@ -3,6 +3,23 @@ import keycloak from '../../keycloak.js';
 class ApiService {
     private static baseUrl = import.meta.env.VITE_API_URL || 'http://localhost:8080';
 
+    /**
+     * Heure de la dernière écriture renvoyée par l'API (en-tête X-Primary-Pin), retournée à chaque appel :
+     * les lectures qui suivent une écriture sont servies par la base principale et voient la modification.
+     */
+    private static primaryPin: string | null = null;
+
+    private static pinHeaders(): Record<string, string> {
+        return this.primaryPin ? { 'X-Primary-Pin': this.primaryPin } : {};
+    }
+
+    private static rememberPin(response: Response): void {
+        const pin = response.headers.get('X-Primary-Pin');
+        if (pin) {
+            this.primaryPin = pin;
+        }
+    }
+
     /**
      * Vérifie l'authentification et rafraîchit le token si nécessaire.
      */
@@ -42,12 +59,21 @@ class ApiService {
      * Méthode pour les appels API authentifiés
      */
     public static async fetchAuthenticated(endpoint: string, options: RequestInit = {}): Promise<any> {
+        const {data} = await this.fetchWithHeaders(endpoint, options);
+        return data;
+    }
+
+    /**
+     * Appel API authentifié renvoyant aussi les en-têtes de la réponse (pagination par X-Next-Cursor...)
+     */
+    public static async fetchWithHeaders(endpoint: string, options: RequestInit = {}): Promise<{ data: any; headers: Headers }> {
         await this.ensureAuthenticated();
 
         const url = endpoint.startsWith('https') ? endpoint : `${this.baseUrl}${endpoint}`;
         const headers = {
             'Authorization': `Bearer ${keycloak.token}`,
             'Content-Type': 'application/json',
+            ...this.pinHeaders(),
             ...(options.headers as Record<string, string> || {})
         };
 
@@ -56,6 +82,7 @@ class ApiService {
                 ...options,
                 headers
             });
+            this.rememberPin(response);
 
             if (!response.ok) {
                 let errorMessage: string;
@@ -101,10 +128,10 @@ class ApiService {
             }
 
             if (response.status === 204) {
-                return null;
+                return {data: null, headers: response.headers};
             }
 
-            return await response.json();
+            return {data: await response.json(), headers: response.headers};
         } catch (error) {
             console.error('Erreur lors de l\'appel API:', error);
             throw error;
@@ -143,11 +170,13 @@ class ApiService {
         const response = await fetch(url, {
             method: 'POST',
             headers: {
-                'Authorization': `Bearer ${keycloak.token}`
+                'Authorization': `Bearer ${keycloak.token}`,
+                ...this.pinHeaders()
                 // Ne pas définir Content-Type : laissé au navigateur
             },
             body: formData,
         });
+        this.rememberPin(response);
 
         if (!response.ok) {
             console.error(`Upload error: ${response.status} ${response.statusText}`);
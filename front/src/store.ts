@@ -100,7 +100,11 @@ export const useStore = create<AppState>((set, get) => ({
         try {
             set(() => ({loading: {...get().loading, bookings: true}}));
 
-            const data = await Booking.getAll();
+            // Réservations du jour et à venir : le tableau de bord affiche aussi celles terminées aujourd'hui.
+            // Les périodes passées sont chargées par les vues qui les affichent (historique, calendrier).
+            const startOfToday = new Date();
+            startOfToday.setHours(0, 0, 0, 0);
+            const data = await Booking.getAll({from: startOfToday});
 
             set(() => ({
                 bookings: data || [],
@@ -0,0 +1,20 @@
+package fr.ccm2.dto.booking;
+
+public class BookingBatchResultDTO {
+    public static final String CREATED = "CREATED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String INVALID = "INVALID";
+
+    public int index;
+    public String status;
+    public Long bookingId;
+    public String message;
+
+    public static BookingBatchResultDTO of(int index, String status, String message) {
+        BookingBatchResultDTO dto = new BookingBatchResultDTO();
+        dto.index = index;
+        dto.status = status;
+        dto.message = message;
+        return dto;
+    }
+}
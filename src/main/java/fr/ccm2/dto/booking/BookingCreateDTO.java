@@ -13,4 +13,6 @@ public class BookingCreateDTO {
     public int attendees;
     public String organizer;
     public List<BookingEquipmentCreateDTO> bookingEquipments;
+    // Facultatif : transforme la réservation en série hebdomadaire
+    public RecurrenceDTO recurrence;
 }
@@ -0,0 +1,7 @@
+package fr.ccm2.dto.booking;
+
+public class BookingOccurrenceDTO {
+    public Long bookingId;
+    public String startTime;
+    public String endTime;
+}
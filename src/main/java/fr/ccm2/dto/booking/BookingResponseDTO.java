@@ -14,4 +14,7 @@ public class BookingResponseDTO {
     public String organizer;
     public RoomResponseDTO room;
     public List<BookingEquipmentResponseDTO> bookingEquipments;
+    // Identifiant commun aux occurrences d'une série ; la règle (recurrence) n'est portée que par la première
+    public Long seriesId;
+    public RecurrenceDTO recurrence;
 }
@@ -0,0 +1,11 @@
+package fr.ccm2.dto.booking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class RecurrenceDTO {
+    // 1 = hebdomadaire, 2 = toutes les deux semaines
+    public Integer intervalWeeks;
+    public LocalDate until;
+    public List<LocalDate> exceptionDates;
+}
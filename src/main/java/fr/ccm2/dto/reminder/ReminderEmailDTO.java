@@ -0,0 +1,16 @@
+package fr.ccm2.dto.reminder;
+
+/**
+ * Données propres à une réservation pour le rendu d'un rappel ; la partie salle est un fragment mis en cache
+ */
+public class ReminderEmailDTO {
+    public String organizerName;
+    public String title;
+    public String date;
+    public String startTime;
+    public long durationMinutes;
+    public Integer attendees;
+    // Destinataire d'origine, renseigné uniquement en mode test
+    public String testUsername;
+    public String testEmail;
+}
@@ -0,0 +1,6 @@
+package fr.ccm2.dto.room;
+
+public class FreeSlotDTO {
+    public String startTime;
+    public String endTime;
+}
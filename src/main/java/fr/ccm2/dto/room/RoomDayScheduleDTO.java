@@ -0,0 +1,12 @@
+package fr.ccm2.dto.room;
+
+import fr.ccm2.dto.booking.BookingResponseDTO;
+
+import java.util.List;
+
+public class RoomDayScheduleDTO {
+    public Long roomId;
+    public String date;
+    // Réservations du jour (occurrences de séries comprises), triées par heure de début
+    public List<BookingResponseDTO> entries;
+}
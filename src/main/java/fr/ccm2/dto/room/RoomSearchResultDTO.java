@@ -0,0 +1,13 @@
+package fr.ccm2.dto.room;
+
+import java.util.List;
+
+public class RoomSearchResultDTO {
+    public Long roomId;
+    public String name;
+    public String building;
+    public String floor;
+    public Integer capacity;
+    // Plages libres d'au moins la durée demandée, par ordre chronologique
+    public List<FreeSlotDTO> freeSlots;
+}
@@ -4,15 +4,24 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", indexes = {
+        // Pagination par clé (startTime, id) de GET /bookings, globale ou par salle
+        @Index(name = "idx_booking_start_id", columnList = "start_time, id"),
+        @Index(name = "idx_booking_room_start_id", columnList = "room_id, start_time, id"),
+        @Index(name = "idx_booking_series", columnList = "series_id")
+})
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -35,6 +44,24 @@ public class Booking {
     @JsonIgnoreProperties("bookings")
     private List<BookingEquipment> bookingEquipments;
 
+    // Série récurrente : chaque occurrence est une ligne, toutes portent l'identifiant de la série
+    // (celui de sa première occurrence). Null pour une réservation simple.
+    @Column(name = "series_id")
+    private Long seriesId;
+
+    // Règle hebdomadaire (RRULE FREQ=WEEKLY;INTERVAL=n;UNTIL=date), portée par la première occurrence
+    // de la série seulement, avec les dates annulées
+    @Column(name = "recurrence_interval_weeks")
+    private Integer recurrenceIntervalWeeks;
+
+    @Column(name = "recurrence_until")
+    private LocalDate recurrenceUntil;
+
+    @ElementCollection
+    @CollectionTable(name = "booking_exception_date", joinColumns = @JoinColumn(name = "booking_id"))
+    @Column(name = "exception_date")
+    private Set<LocalDate> exceptionDates = new HashSet<>();
+
     // Getters et Setters
     public Long getId() { return id; }
     public String getTitle() { return title; }
@@ -51,4 +78,13 @@ public class Booking {
     public void setRoom(Room room) { this.room = room; }
     public List<BookingEquipment> getBookingEquipments() { return bookingEquipments; }
     public void setBookingEquipments(List<BookingEquipment> bookingEquipments) { this.bookingEquipments = bookingEquipments; }
+    public Long getSeriesId() { return seriesId; }
+    public void setSeriesId(Long seriesId) { this.seriesId = seriesId; }
+    public Integer getRecurrenceIntervalWeeks() { return recurrenceIntervalWeeks; }
+    public void setRecurrenceIntervalWeeks(Integer recurrenceIntervalWeeks) { this.recurrenceIntervalWeeks = recurrenceIntervalWeeks; }
+    public LocalDate getRecurrenceUntil() { return recurrenceUntil; }
+    public void setRecurrenceUntil(LocalDate recurrenceUntil) { this.recurrenceUntil = recurrenceUntil; }
+    public Set<LocalDate> getExceptionDates() { return exceptionDates; }
+    public void setExceptionDates(Set<LocalDate> exceptionDates) { this.exceptionDates = exceptionDates; }
+    public boolean isRecurring() { return recurrenceIntervalWeeks != null; }
 }
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class BookingEquipment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_equipment_seq")
+    @SequenceGenerator(name = "booking_equipment_seq", sequenceName = "booking_equipment_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
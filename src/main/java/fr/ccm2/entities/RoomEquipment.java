@@ -6,11 +6,13 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "room_equipment")
+@Cacheable
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class RoomEquipment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_equipment_seq")
+    @SequenceGenerator(name = "room_equipment_seq", sequenceName = "room_equipment_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
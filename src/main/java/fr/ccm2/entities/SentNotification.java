@@ -1,21 +1,28 @@
 package fr.ccm2.entities;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "sent_notifications")
+@Table(name = "sent_notifications", indexes = {
+        // Boîte de réception, compteurs et marquage en lot d'un destinataire (migration V4)
+        @Index(name = "idx_sent_notifications_inbox", columnList = "recipient, deleted, read_status, sent_at")
+})
 public class SentNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sent_notifications_seq")
+    @SequenceGenerator(name = "sent_notifications_seq", sequenceName = "sent_notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -30,6 +37,10 @@ public class SentNotification {
     @Column(name = "organizer_email")
     private String organizerEmail;
 
+    // Nom d'utilisateur normalisé du destinataire (organisateur de la réservation au moment de l'envoi)
+    @Column(name = "recipient")
+    private String recipient;
+
     @Column(name = "title")
     private String title;
 
@@ -50,9 +61,17 @@ public class SentNotification {
         this.booking = booking;
         this.notificationType = notificationType;
         this.organizerEmail = organizerEmail;
+        this.recipient = normalizeRecipient(booking != null ? booking.getOrganizer() : null);
         this.sentAt = LocalDateTime.now();
     }
 
+    /**
+     * Forme stockée dans la colonne recipient, identique à LOWER(organizer) côté base
+     */
+    public static String normalizeRecipient(String username) {
+        return username != null ? username.toLowerCase(Locale.ROOT) : null;
+    }
+
     // Getters & Setters
     public Long getId() {
         return id;
@@ -94,6 +113,14 @@ public class SentNotification {
         this.organizerEmail = organizerEmail;
     }
 
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -0,0 +1,34 @@
+package fr.ccm2.events;
+
+/**
+ * Événement CDI émis par BookingService à chaque création, modification ou suppression de réservation.
+ * Les observateurs l'écoutent en phase AFTER_SUCCESS pour ne refléter que les changements validés.
+ */
+public class BookingChangedEvent {
+
+    private final BookingSnapshot before;
+    private final BookingSnapshot after;
+
+    private BookingChangedEvent(BookingSnapshot before, BookingSnapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static BookingChangedEvent created(BookingSnapshot after) {
+        return new BookingChangedEvent(null, after);
+    }
+
+    public static BookingChangedEvent updated(BookingSnapshot before, BookingSnapshot after) {
+        return new BookingChangedEvent(before, after);
+    }
+
+    public static BookingChangedEvent deleted(BookingSnapshot before) {
+        return new BookingChangedEvent(before, null);
+    }
+
+    /** État avant le changement, null pour une création. */
+    public BookingSnapshot getBefore() { return before; }
+
+    /** État après le changement, null pour une suppression. */
+    public BookingSnapshot getAfter() { return after; }
+}
@@ -0,0 +1,93 @@
+package fr.ccm2.events;
+
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.BookingEquipment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copie immuable de l'état d'une réservation, détachée de la session Hibernate.
+ * Chaque occurrence d'une série est une réservation à part entière : un instantané couvre un seul créneau.
+ */
+public class BookingSnapshot {
+
+    private final Long id;
+    private final Long roomId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private List<EquipmentUse> equipmentUses = Collections.emptyList();
+    // Détails d'affichage, renseignés uniquement par of()
+    private String title;
+    private String organizer;
+    private Integer attendees;
+
+    public BookingSnapshot(Long id, Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        this.id = id;
+        this.roomId = roomId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public static BookingSnapshot of(Booking booking) {
+        return of(booking, true);
+    }
+
+    /**
+     * @param withEquipment false pour ne pas initialiser la collection des équipements (chargements en masse)
+     */
+    public static BookingSnapshot of(Booking booking, boolean withEquipment) {
+        Long roomId = booking.getRoom() != null ? booking.getRoom().getId() : null;
+        BookingSnapshot snapshot = new BookingSnapshot(booking.getId(), roomId, booking.getStartTime(), booking.getEndTime());
+        snapshot.title = booking.getTitle();
+        snapshot.organizer = booking.getOrganizer();
+        snapshot.attendees = booking.getAttendees();
+        if (withEquipment && booking.getBookingEquipments() != null && !booking.getBookingEquipments().isEmpty()) {
+            List<EquipmentUse> uses = new ArrayList<>();
+            for (BookingEquipment be : booking.getBookingEquipments()) {
+                if (be.getEquipment() == null || be.getQuantity() == null) {
+                    continue;
+                }
+                // La période propre de l'équipement prime, à défaut celle de la réservation
+                LocalDateTime start = be.getStartTime() != null ? be.getStartTime() : booking.getStartTime();
+                LocalDateTime end = be.getEndTime() != null ? be.getEndTime() : booking.getEndTime();
+                uses.add(new EquipmentUse(be.getEquipment().getId(), be.getQuantity(), start, end));
+            }
+            snapshot.equipmentUses = Collections.unmodifiableList(uses);
+        }
+        return snapshot;
+    }
+
+    public Long getId() { return id; }
+    public Long getRoomId() { return roomId; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public List<EquipmentUse> getEquipmentUses() { return equipmentUses; }
+    public String getTitle() { return title; }
+    public String getOrganizer() { return organizer; }
+    public Integer getAttendees() { return attendees; }
+
+    /**
+     * Quantité d'un équipement réservée sur une période
+     */
+    public static final class EquipmentUse {
+        private final Long equipmentId;
+        private final int quantity;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+
+        public EquipmentUse(Long equipmentId, int quantity, LocalDateTime startTime, LocalDateTime endTime) {
+            this.equipmentId = equipmentId;
+            this.quantity = quantity;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public Long getEquipmentId() { return equipmentId; }
+        public int getQuantity() { return quantity; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public LocalDateTime getEndTime() { return endTime; }
+    }
+}
@@ -0,0 +1,20 @@
+package fr.ccm2.events;
+
+/**
+ * Événement CDI émis par EquipmentService à chaque modification ou suppression d'équipement.
+ * Les observateurs l'écoutent en phase AFTER_SUCCESS pour ne refléter que les changements validés.
+ */
+public class EquipmentChangedEvent {
+
+    private final Long equipmentId;
+
+    private EquipmentChangedEvent(Long equipmentId) {
+        this.equipmentId = equipmentId;
+    }
+
+    public static EquipmentChangedEvent of(Long equipmentId) {
+        return new EquipmentChangedEvent(equipmentId);
+    }
+
+    public Long getEquipmentId() { return equipmentId; }
+}
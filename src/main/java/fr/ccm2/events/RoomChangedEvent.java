@@ -0,0 +1,29 @@
+package fr.ccm2.events;
+
+/**
+ * Événement CDI émis par RoomService à chaque création, modification ou suppression de salle.
+ * Les observateurs l'écoutent en phase AFTER_SUCCESS pour ne refléter que les changements validés.
+ */
+public class RoomChangedEvent {
+
+    private final Long roomId;
+    private final RoomSnapshot after;
+
+    private RoomChangedEvent(Long roomId, RoomSnapshot after) {
+        this.roomId = roomId;
+        this.after = after;
+    }
+
+    public static RoomChangedEvent saved(RoomSnapshot after) {
+        return new RoomChangedEvent(after.getId(), after);
+    }
+
+    public static RoomChangedEvent deleted(Long roomId) {
+        return new RoomChangedEvent(roomId, null);
+    }
+
+    public Long getRoomId() { return roomId; }
+
+    /** État après le changement, null pour une suppression. */
+    public RoomSnapshot getAfter() { return after; }
+}
@@ -0,0 +1,65 @@
+package fr.ccm2.events;
+
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.RoomEquipment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copie immuable d'une salle et de ses équipements fixes, détachée de la session Hibernate.
+ */
+public class RoomSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final String building;
+    private final String floor;
+    private final String type;
+    private final Integer capacity;
+    // Équipements fixes : identifiant -> quantité
+    private final Map<Long, Integer> equipmentQuantities;
+    // Noms des équipements fixes pour l'affichage, renseignés uniquement par of()
+    private List<String> equipmentNames = Collections.emptyList();
+
+    public RoomSnapshot(Long id, String name, String building, String floor, String type, Integer capacity,
+                        Map<Long, Integer> equipmentQuantities) {
+        this.id = id;
+        this.name = name;
+        this.building = building;
+        this.floor = floor;
+        this.type = type;
+        this.capacity = capacity;
+        this.equipmentQuantities = Collections.unmodifiableMap(new HashMap<>(equipmentQuantities));
+    }
+
+    public static RoomSnapshot of(Room room, Collection<RoomEquipment> roomEquipments) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        if (roomEquipments != null) {
+            for (RoomEquipment re : roomEquipments) {
+                if (re.getEquipment() != null) {
+                    quantities.merge(re.getEquipment().getId(), re.getQuantity() != null ? re.getQuantity() : 0, Integer::sum);
+                    names.add(re.getEquipment().getName());
+                }
+            }
+        }
+        RoomSnapshot snapshot = new RoomSnapshot(room.getId(), room.getName(), room.getBuilding(), room.getFloor(),
+                room.getType(), room.getCapacity(), quantities);
+        snapshot.equipmentNames = Collections.unmodifiableList(names);
+        return snapshot;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getBuilding() { return building; }
+    public String getFloor() { return floor; }
+    public String getType() { return type; }
+    public Integer getCapacity() { return capacity; }
+    public Map<Long, Integer> getEquipmentQuantities() { return equipmentQuantities; }
+    public List<String> getEquipmentNames() { return equipmentNames; }
+}
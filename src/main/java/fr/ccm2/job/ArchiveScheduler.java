@@ -0,0 +1,32 @@
+package fr.ccm2.job;
+
+import fr.ccm2.services.ArchiveService;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+@ApplicationScoped
+public class ArchiveScheduler {
+
+    private static final Logger LOG = Logger.getLogger(ArchiveScheduler.class);
+
+    @Inject
+    ArchiveService archiveService;
+
+    // Exécution chaque nuit à 3h30, hors des heures de réservation
+    @Scheduled(cron = "{app.archive.cron}", identity = "archive", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void archiveClosedPeriods() {
+        LOG.info("Exécution planifiée de l'archivage des périodes closes");
+        archiveService.archiveClosedPeriods();
+    }
+
+    // Rattrapage peu après le démarrage puis chaque jour : une instance redémarrée ou absente à 3h30
+    // n'attend pas la nuit suivante ; un passage sans période close à déplacer ne fait rien
+    @Scheduled(every = "{app.archive.catch-up-every}", delayed = "{app.archive.catch-up-delay}",
+            identity = "archive-catch-up", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void catchUpClosedPeriods() {
+        LOG.info("Rattrapage de l'archivage des périodes closes");
+        archiveService.archiveClosedPeriods();
+    }
+}
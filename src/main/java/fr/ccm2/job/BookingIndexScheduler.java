@@ -0,0 +1,30 @@
+package fr.ccm2.job;
+
+import fr.ccm2.services.EquipmentReservationLedger;
+import fr.ccm2.services.RoomOccupancyIndex;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+@ApplicationScoped
+public class BookingIndexScheduler {
+
+    private static final Logger LOG = Logger.getLogger(BookingIndexScheduler.class);
+
+    @Inject
+    RoomOccupancyIndex occupancyIndex;
+
+    @Inject
+    EquipmentReservationLedger equipmentLedger;
+
+    // Purge des créneaux et paliers d'équipements terminés, toutes les heures par défaut
+    @Scheduled(every = "{app.booking.index.evict-every}", identity = "booking-index-eviction",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void evictEndedSlots() {
+        int evicted = occupancyIndex.evictEnded();
+        LOG.info("Index d'occupation: " + evicted + " créneaux terminés retirés");
+        int levels = equipmentLedger.evictEnded();
+        LOG.info("Registre des équipements: " + levels + " paliers terminés retirés");
+    }
+}
@@ -0,0 +1,27 @@
+package fr.ccm2.job;
+
+import fr.ccm2.services.EmailOutboxDispatcher;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class EmailOutboxScheduler {
+
+    @Inject
+    EmailOutboxDispatcher emailOutboxDispatcher;
+
+    // Fréquence réglée par app.mail.outbox.every
+    @Scheduled(every = "{app.mail.outbox.every}", identity = "email-outbox",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void dispatchEmails() {
+        emailOutboxDispatcher.dispatchDue();
+    }
+
+    // Fréquence réglée par app.mail.outbox.purge-every
+    @Scheduled(every = "{app.mail.outbox.purge-every}", identity = "email-outbox-purge",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeSentEmails() {
+        emailOutboxDispatcher.purgeSent();
+    }
+}
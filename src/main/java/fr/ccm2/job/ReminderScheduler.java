@@ -1,6 +1,6 @@
 package fr.ccm2.job;
 
-import fr.ccm2.services.ReminderService;
+import fr.ccm2.services.ReminderTimerWheel;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -12,19 +12,27 @@ public class ReminderScheduler {
     private static final Logger LOG = Logger.getLogger(ReminderScheduler.class);
 
     @Inject
-    ReminderService reminderService;
+    ReminderTimerWheel reminderTimerWheel;
 
-    // Exécution toutes les heures
-    @Scheduled(cron = "0 0 * * * ?", identity = "reminder-24h")
-    void sendReminder24h() {
-        LOG.info("Exécution planifiée du job de rappel 24h");
-        reminderService.sendContextualReminders("24h");
+    // Avance la roue des minuteurs, chaque seconde par défaut
+    @Scheduled(every = "{app.reminder.wheel.tick}", identity = "reminder-wheel",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void fireDueReminders() {
+        reminderTimerWheel.fireDue();
     }
 
-    // Exécution toutes les 15 minutes
-    @Scheduled(cron = "0 */15 * * * ?", identity = "reminder-1h")
-    void sendReminder1h() {
-        LOG.info("Exécution planifiée du job de rappel 1h");
-        reminderService.sendContextualReminders("1h");
+    // Battement des baux de shards entre instances, sans effet si app.reminder.shards.enabled est faux
+    @Scheduled(every = "{app.reminder.shards.heartbeat}", identity = "reminder-shards",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebalanceShards() {
+        reminderTimerWheel.rebalance();
     }
-}
\ No newline at end of file
+
+    // Réconciliation avec la base, toutes les 15 minutes par défaut
+    @Scheduled(every = "{app.reminder.reconcile-every}", identity = "reminder-reconcile",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcileReminders() {
+        int scheduled = reminderTimerWheel.reconcile();
+        LOG.info("Réconciliation des rappels: " + scheduled + " minuteurs reprogrammés, " + reminderTimerWheel.size() + " en attente");
+    }
+}
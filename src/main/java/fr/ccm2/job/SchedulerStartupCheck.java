@@ -0,0 +1,30 @@
+package fr.ccm2.job;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+/**
+ * Signale au démarrage un scheduler arrêté : les tâches de ce paquet sont alors le seul moteur de
+ * l'envoi des e-mails, des rappels, de l'archivage, des purges et de l'ajustement du pool.
+ */
+@ApplicationScoped
+public class SchedulerStartupCheck {
+
+    private static final Logger LOG = Logger.getLogger(SchedulerStartupCheck.class);
+
+    @Inject
+    Scheduler scheduler;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!scheduler.isRunning()) {
+            LOG.warn("Scheduler désactivé (quarkus.scheduler.enabled=false): aucun e-mail de la boîte d'envoi "
+                    + "ni aucun rappel 24h/1h ne partira, l'archivage et les purges ne s'exécuteront pas");
+            return;
+        }
+        LOG.info("Scheduler actif: " + scheduler.getScheduledJobs().size() + " tâches planifiées");
+    }
+}
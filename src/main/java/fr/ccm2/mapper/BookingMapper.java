@@ -3,12 +3,16 @@ package fr.ccm2.mapper;
 import fr.ccm2.dto.booking_equipment.BookingEquipmentResponseDTO;
 import fr.ccm2.dto.booking.BookingResponseDTO;
 import fr.ccm2.dto.booking.BookingCreateDTO;
+import fr.ccm2.dto.booking.BookingOccurrenceDTO;
 import fr.ccm2.dto.booking.BookingUpdateDTO;
+import fr.ccm2.dto.booking.RecurrenceDTO;
 import fr.ccm2.entities.Booking;
 import fr.ccm2.entities.BookingEquipment;
 import fr.ccm2.entities.Equipment;
 import fr.ccm2.entities.Room;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 public class BookingMapper {
@@ -27,6 +31,11 @@ public class BookingMapper {
         dto.endTime = booking.getEndTime().toString();
         dto.attendees = booking.getAttendees();
         dto.organizer = booking.getOrganizer();
+        dto.seriesId = booking.getSeriesId();
+
+        if (booking.isRecurring()) {
+            dto.recurrence = toRecurrence(booking);
+        }
 
         // Si on inclut les équipements, on les ajoute
         if (includeEquipments && booking.getBookingEquipments() != null) {
@@ -38,6 +47,72 @@ public class BookingMapper {
         return dto;
     }
 
+    // Seuls l'administrateur et l'organisateur voient les détails ; startTime, endTime et la salle
+    // restent visibles pour le planning
+    public static BookingResponseDTO anonymizeFor(BookingResponseDTO dto, String currentUser, boolean isAdmin) {
+        if (!isAdmin && !currentUser.equals(dto.organizer)) {
+            dto.title = "Réservé";
+            dto.organizer = "—";
+            dto.attendees = 0;
+        }
+        return dto;
+    }
+
+    // Colonnes attendues : id, title, startTime, endTime, attendees, organizer, recurrenceIntervalWeeks, recurrenceUntil,
+    // seriesId, puis la salle à partir de l'indice 9 (voir RoomMapper.fromRow), éventuellement nulle
+    public static BookingResponseDTO fromRow(Object[] row) {
+        BookingResponseDTO dto = new BookingResponseDTO();
+        dto.id = (Long) row[0];
+        dto.title = (String) row[1];
+        dto.startTime = row[2].toString();
+        dto.endTime = row[3].toString();
+        dto.attendees = row[4] != null ? (Integer) row[4] : 0;
+        dto.organizer = (String) row[5];
+        if (row[6] != null) {
+            dto.recurrence = new RecurrenceDTO();
+            dto.recurrence.intervalWeeks = (Integer) row[6];
+            dto.recurrence.until = (LocalDate) row[7];
+            dto.recurrence.exceptionDates = new ArrayList<>();
+        }
+        dto.seriesId = (Long) row[8];
+        if (row[9] != null) {
+            dto.room = RoomMapper.fromRow(row, 9);
+        }
+        dto.bookingEquipments = new ArrayList<>();
+        return dto;
+    }
+
+    // Colonnes attendues : id, bookingId, quantity, startTime, endTime, puis l'équipement à partir de l'indice 5
+    public static BookingEquipmentResponseDTO bookingEquipmentFromRow(Object[] row) {
+        BookingEquipmentResponseDTO dto = new BookingEquipmentResponseDTO();
+        dto.id = (Long) row[0];
+        dto.bookingId = (Long) row[1];
+        dto.quantity = row[2] != null ? (Integer) row[2] : 0;
+        dto.startTime = row[3] != null ? row[3].toString() : null;
+        dto.endTime = row[4] != null ? row[4].toString() : null;
+        dto.equipment = EquipmentMapper.fromRow(row, 5);
+        return dto;
+    }
+
+    public static RecurrenceDTO toRecurrence(Booking booking) {
+        RecurrenceDTO dto = new RecurrenceDTO();
+        dto.intervalWeeks = booking.getRecurrenceIntervalWeeks();
+        dto.until = booking.getRecurrenceUntil();
+        dto.exceptionDates = booking.getExceptionDates().stream()
+                .sorted()
+                .collect(Collectors.toList());
+        return dto;
+    }
+
+    // Occurrence d'une série (ou réservation simple)
+    public static BookingOccurrenceDTO toOccurrence(Booking booking) {
+        BookingOccurrenceDTO dto = new BookingOccurrenceDTO();
+        dto.bookingId = booking.getId();
+        dto.startTime = booking.getStartTime().toString();
+        dto.endTime = booking.getEndTime().toString();
+        return dto;
+    }
+
     private static BookingEquipmentResponseDTO mapBookingEquipment(BookingEquipment bookingEquipment) {
         BookingEquipmentResponseDTO dto = new BookingEquipmentResponseDTO();
         dto.id = bookingEquipment.getId(); //
@@ -15,4 +15,16 @@ public class EquipmentMapper {
         dto.imageUrl = equipment.getImageUrl();
         return dto;
     }
-}
\ No newline at end of file
+
+    // Colonnes attendues à partir de offset : id, name, description, quantity, mobile, imageUrl
+    public static EquipmentResponseDTO fromRow(Object[] row, int offset) {
+        EquipmentResponseDTO dto = new EquipmentResponseDTO();
+        dto.id = (Long) row[offset];
+        dto.name = (String) row[offset + 1];
+        dto.description = (String) row[offset + 2];
+        dto.quantity = (Integer) row[offset + 3];
+        dto.mobile = (Boolean) row[offset + 4];
+        dto.imageUrl = (String) row[offset + 5];
+        return dto;
+    }
+}
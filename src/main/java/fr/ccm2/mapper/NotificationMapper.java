@@ -0,0 +1,63 @@
+package fr.ccm2.mapper;
+
+import fr.ccm2.dto.reminder.NotificationResponseDTO;
+import fr.ccm2.entities.SentNotification;
+
+import java.time.LocalDateTime;
+
+public class NotificationMapper {
+
+    public static NotificationResponseDTO toResponse(SentNotification n) {
+        NotificationResponseDTO dto = new NotificationResponseDTO();
+        dto.id = n.getId();
+        dto.bookingId = n.getBooking().getId();
+        dto.bookingTitle = n.getBooking().getTitle();
+        dto.roomName = n.getBooking().getRoom().getName();
+        dto.organizer = n.getBooking().getOrganizer();
+        dto.organizerEmail = n.getOrganizerEmail();
+        dto.notificationType = n.getNotificationType();
+        dto.sentAt = n.getSentAt();
+        dto.read = n.isRead();
+        dto.deleted = n.isDeleted();
+        applyTexts(dto, n.getTitle(), n.getMessage());
+        return dto;
+    }
+
+    // Colonnes attendues : id, bookingId, bookingTitle, roomName, organizer, organizerEmail, notificationType,
+    // sentAt, title, message, read, deleted
+    public static NotificationResponseDTO fromRow(Object[] row) {
+        NotificationResponseDTO dto = new NotificationResponseDTO();
+        dto.id = (Long) row[0];
+        dto.bookingId = (Long) row[1];
+        dto.bookingTitle = (String) row[2];
+        dto.roomName = (String) row[3];
+        dto.organizer = (String) row[4];
+        dto.organizerEmail = (String) row[5];
+        dto.notificationType = (String) row[6];
+        dto.sentAt = (LocalDateTime) row[7];
+        dto.read = Boolean.TRUE.equals(row[10]);
+        dto.deleted = Boolean.TRUE.equals(row[11]);
+        applyTexts(dto, (String) row[8], (String) row[9]);
+        return dto;
+    }
+
+    // Les rappels automatiques sans texte enregistré reçoivent un titre et un message par défaut
+    private static void applyTexts(NotificationResponseDTO dto, String title, String message) {
+        if ("24h".equals(dto.notificationType)) {
+            dto.title = title != null ? title : "Rappel: Votre réservation demain";
+            dto.message = message != null ? message :
+                    "Votre réservation \"" + dto.bookingTitle +
+                            "\" dans la salle " + dto.roomName +
+                            " est prévue demain.";
+        } else if ("1h".equals(dto.notificationType)) {
+            dto.title = title != null ? title : "⚠️ Votre réservation commence bientôt";
+            dto.message = message != null ? message :
+                    "Votre réservation \"" + dto.bookingTitle +
+                            "\" dans la salle " + dto.roomName +
+                            " commence dans moins d'une heure.";
+        } else {
+            dto.title = title;
+            dto.message = message;
+        }
+    }
+}
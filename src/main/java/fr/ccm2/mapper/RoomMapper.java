@@ -5,6 +5,7 @@ import fr.ccm2.dto.room_equipment.RoomEquipmentResponseDTO;
 import fr.ccm2.entities.Room;
 import fr.ccm2.entities.RoomEquipment;
 
+import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 public class RoomMapper {
@@ -31,6 +32,30 @@ public class RoomMapper {
         return dto;
     }
 
+    // Colonnes attendues à partir de offset : id, name, capacity, imageUrl, building, floor, type
+    public static RoomResponseDTO fromRow(Object[] row, int offset) {
+        RoomResponseDTO dto = new RoomResponseDTO();
+        dto.id = (Long) row[offset];
+        dto.name = (String) row[offset + 1];
+        dto.capacity = (Integer) row[offset + 2];
+        dto.imageUrl = (String) row[offset + 3];
+        dto.building = (String) row[offset + 4];
+        dto.floor = (String) row[offset + 5];
+        dto.type = (String) row[offset + 6];
+        dto.roomEquipments = new ArrayList<>();
+        return dto;
+    }
+
+    // Colonnes attendues : id, roomId, equipmentId, quantity
+    public static RoomEquipmentResponseDTO roomEquipmentFromRow(Object[] row) {
+        RoomEquipmentResponseDTO dto = new RoomEquipmentResponseDTO();
+        dto.id = (Long) row[0];
+        dto.roomId = (Long) row[1];
+        dto.equipmentId = (Long) row[2];
+        dto.quantity = row[3] != null ? (Integer) row[3] : 0;
+        return dto;
+    }
+
     private static RoomEquipmentResponseDTO mapRoomEquipment(RoomEquipment re) {
         RoomEquipmentResponseDTO dto = new RoomEquipmentResponseDTO();
         dto.id = re.getId();
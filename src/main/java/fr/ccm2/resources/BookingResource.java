@@ -1,19 +1,28 @@
 package fr.ccm2.resources;
 
+import fr.ccm2.dto.booking.BookingBatchResultDTO;
 import fr.ccm2.dto.booking.BookingCreateDTO;
+import fr.ccm2.dto.booking.BookingOccurrenceDTO;
 import fr.ccm2.dto.booking.BookingResponseDTO;
 import fr.ccm2.dto.booking.BookingUpdateDTO;
 import fr.ccm2.entities.Booking;
 import fr.ccm2.mapper.BookingMapper;
+import fr.ccm2.services.BookingExportService;
 import fr.ccm2.services.BookingService;
+import fr.ccm2.services.ReactiveReadService;
+import fr.ccm2.utils.KeysetCursor;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,47 +33,107 @@ import java.util.stream.Collectors;
 @Consumes(MediaType.APPLICATION_JSON)
 public class BookingResource {
 
+    // Curseur de la page suivante ; absent sur la dernière page
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Inject
     BookingService bookingService;
 
+    @Inject
+    BookingExportService bookingExportService;
+
+    @Inject
+    ReactiveReadService reactiveReadService;
+
     @Inject
     SecurityIdentity securityIdentity;
 
     @GET
     @RolesAllowed({"user", "admin"})
-    public Response list() {
+    public Uni<Response> list(@QueryParam("from") String from,
+                         @QueryParam("to") String to,
+                         @QueryParam("roomId") Long roomId,
+                         @QueryParam("cursor") String cursor,
+                         @QueryParam("limit") Integer limit) {
         String currentUser = securityIdentity.getPrincipal().getName();
         boolean isAdmin = securityIdentity.hasRole("admin");
 
-        // Tous les utilisateurs voient toutes les réservations
-        List<Booking> allBookings = bookingService.getBookingsWithRelations();
-
-        // Transformer les réservations en DTOs en masquant les informations sensibles si nécessaire
-        List<BookingResponseDTO> bookingDTOs = allBookings.stream()
-                .map(booking -> {
-                    // Pour les administrateurs ou les réservations de l'utilisateur actuel,
-                    // afficher toutes les informations
-                    boolean isOwner = booking.getOrganizer().equals(currentUser);
-                    boolean showFullDetails = isAdmin || isOwner;
-
-                    // Obtenir le DTO avec toutes les informations
-                    BookingResponseDTO dto = BookingMapper.toResponse(booking, true, true);
-
-                    // Si ce n'est pas l'admin ni le propriétaire, anonymiser les informations sensibles
-                    if (!showFullDetails) {
-                        // Remplacer le titre par "Réservé"
-                        dto.title = "Réservé";
-                        // Masquer l'organisateur
-                        dto.organizer = "—";
-                        // Masquer le nombre de participants
-                        dto.attendees = 0;
-                        // On garde startTime, endTime et roomId qui sont nécessaires pour le planning
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        LocalDateTime fromTime;
+        LocalDateTime toTime;
+        KeysetCursor after;
+        int pageLimit;
+        try {
+            toTime = to != null ? LocalDateTime.parse(to) : null;
+            if (from != null) {
+                fromTime = LocalDateTime.parse(from);
+            } else {
+                // Sans fenêtre : réservations en cours et à venir plutôt que les plus anciennes (le front passe from / to)
+                fromTime = toTime == null ? LocalDateTime.now() : null;
+            }
+            after = KeysetCursor.decode(cursor);
+            pageLimit = bookingService.resolvePageLimit(limit);
+        } catch (DateTimeParseException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Format de date invalide").build());
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur de validation: " + e.getMessage()).build());
+        }
+
+        // Tous les utilisateurs voient toutes les réservations, une page à la fois (une ligne de plus pour détecter la suite)
+        return reactiveReadService.findBookingViewsPage(fromTime, toTime, roomId, after, pageLimit + 1)
+                .map(page -> toPageResponse(page, pageLimit, currentUser, isAdmin));
+    }
+
+    private Response toPageResponse(List<BookingResponseDTO> bookingDTOs, int pageLimit, String currentUser, boolean isAdmin) {
+        String nextCursor = null;
+        if (bookingDTOs.size() > pageLimit) {
+            bookingDTOs = bookingDTOs.subList(0, pageLimit);
+            BookingResponseDTO last = bookingDTOs.get(pageLimit - 1);
+            nextCursor = new KeysetCursor(LocalDateTime.parse(last.startTime), last.id).encode();
+        }
+
+        // Masquer les informations sensibles si nécessaire
+        for (BookingResponseDTO dto : bookingDTOs) {
+            BookingMapper.anonymizeFor(dto, currentUser, isAdmin);
+        }
+
+        Response.ResponseBuilder response = Response.ok(bookingDTOs);
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.build();
+    }
+
+    @GET
+    @Path("/export")
+    @Produces({"application/x-ndjson", "text/csv"})
+    @RolesAllowed("admin")
+    public Response export(@QueryParam("format") @DefaultValue(BookingExportService.FORMAT_NDJSON) String format,
+                           @QueryParam("from") String from,
+                           @QueryParam("to") String to) {
+        if (!BookingExportService.isSupportedFormat(format)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Format d'export inconnu (ndjson ou csv)").type(MediaType.TEXT_PLAIN).build();
+        }
+
+        LocalDateTime fromTime;
+        LocalDateTime toTime;
+        try {
+            fromTime = from != null ? LocalDateTime.parse(from) : null;
+            toTime = to != null ? LocalDateTime.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Format de date invalide").type(MediaType.TEXT_PLAIN).build();
+        }
 
-        return Response.ok(bookingDTOs).build();
+        // Écrit au fil de la lecture du curseur, sans matérialiser la liste des réservations
+        StreamingOutput stream = output -> bookingExportService.export(format, fromTime, toTime, output);
+        boolean csv = BookingExportService.FORMAT_CSV.equals(format);
+        return Response.ok(stream)
+                .type(csv ? "text/csv; charset=UTF-8" : "application/x-ndjson")
+                .header("Content-Disposition", "attachment; filename=\"bookings." + format + "\"")
+                .build();
     }
 
     @GET
@@ -76,22 +145,10 @@ public class BookingResource {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
 
-        // Déterminer si l'utilisateur actuel peut voir les détails complets
+        // Obtenir le DTO avec toutes les informations, anonymisé si ce n'est pas l'admin ni le propriétaire
         String currentUser = securityIdentity.getPrincipal().getName();
         boolean isAdmin = securityIdentity.hasRole("admin");
-        boolean isOwner = booking.getOrganizer().equals(currentUser);
-        boolean showFullDetails = isAdmin || isOwner;
-
-        // Obtenir le DTO avec toutes les informations
-        BookingResponseDTO dto = BookingMapper.toResponse(booking, true, true);
-
-        // Si ce n'est pas l'admin ni le propriétaire, anonymiser les informations sensibles
-        if (!showFullDetails) {
-            dto.title = "Réservé";
-            dto.organizer = "—";
-            dto.attendees = 0;
-            // On garde uniquement les informations de base : salle, dates de début et fin
-        }
+        BookingResponseDTO dto = BookingMapper.anonymizeFor(BookingMapper.toResponse(booking, true, true), currentUser, isAdmin);
 
         return Response.ok(dto).build();
     }
@@ -124,6 +181,46 @@ public class BookingResource {
         }
     }
 
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RolesAllowed({"user", "admin"})
+    public Response createBatch(List<BookingCreateDTO> dtos) {
+        try {
+            // Comme pour la création unitaire, l'utilisateur connecté est l'organisateur de chaque réservation
+            String currentUser = securityIdentity.getPrincipal().getName();
+            if (dtos != null) {
+                for (BookingCreateDTO dto : dtos) {
+                    if (dto == null) {
+                        throw new IllegalArgumentException("Le lot contient un élément vide.");
+                    }
+                    dto.organizer = currentUser;
+                }
+            }
+
+            List<BookingBatchResultDTO> results = bookingService.createBookings(dtos);
+            long created = results.stream()
+                    .filter(result -> BookingBatchResultDTO.CREATED.equals(result.status))
+                    .count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("created", created);
+            response.put("rejected", results.size() - created);
+            response.put("results", results);
+            return Response.ok(response).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur de validation: " + e.getMessage()).build();
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(error)
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+    }
+
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -152,6 +249,16 @@ public class BookingResource {
 
             System.out.println("Booking updated successfully: " + responseDTO.title);
             return Response.ok(responseDTO).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur de validation: " + e.getMessage()).build();
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(error)
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
         } catch (Exception e) {
             System.err.println("Error updating booking " + id + ": " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -179,6 +286,58 @@ public class BookingResource {
         return Response.noContent().build();
     }
 
+    @GET
+    @Path("/{id}/occurrences")
+    @RolesAllowed({"user", "admin"})
+    public Response getOccurrences(@PathParam("id") Long id,
+                                   @QueryParam("from") String from,
+                                   @QueryParam("to") String to) {
+        try {
+            LocalDateTime fromTime = from != null ? LocalDateTime.parse(from) : null;
+            LocalDateTime toTime = to != null ? LocalDateTime.parse(to) : null;
+
+            List<Booking> bookings = bookingService.getOccurrences(id, fromTime, toTime);
+            if (bookings == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+
+            List<BookingOccurrenceDTO> occurrences = bookings.stream()
+                    .map(BookingMapper::toOccurrence)
+                    .collect(Collectors.toList());
+            return Response.ok(occurrences).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Format de date invalide").build();
+        }
+    }
+
+    @DELETE
+    @Path("/{id}/occurrences/{date}")
+    @RolesAllowed({"user", "admin"})
+    public Response cancelOccurrence(@PathParam("id") Long id, @PathParam("date") String date) {
+        Booking existingBooking = bookingService.getBookingById(id);
+        if (existingBooking == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        String currentUser = securityIdentity.getPrincipal().getName();
+        if (!securityIdentity.hasRole("admin") && !existingBooking.getOrganizer().equals(currentUser)) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity("Vous n'êtes pas autorisé à modifier cette réservation").build();
+        }
+
+        try {
+            bookingService.cancelOccurrence(id, LocalDate.parse(date));
+            return Response.noContent().build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Format de date invalide").build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur de validation: " + e.getMessage()).build();
+        }
+    }
+
     @GET
     @Path("/available-equipments")
     @RolesAllowed({"user", "admin"})
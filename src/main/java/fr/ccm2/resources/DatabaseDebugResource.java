@@ -1,5 +1,6 @@
 package fr.ccm2.resources;
 
+import fr.ccm2.services.CatalogCache;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -18,6 +19,17 @@ public class DatabaseDebugResource {
     @Inject
     DataSource dataSource;
 
+    @Inject
+    CatalogCache catalogCache;
+
+    @GET
+    @Path("/cache-stats")
+    @RolesAllowed({"admin"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getCacheStatistics() {
+        return Response.ok(catalogCache.statistics()).build();
+    }
+
     @GET
     @Path("/connection-info")
     @RolesAllowed({"admin"})
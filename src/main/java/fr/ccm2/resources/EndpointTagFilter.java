@@ -0,0 +1,30 @@
+package fr.ccm2.resources;
+
+import fr.ccm2.services.RequestEndpoint;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Retient la méthode de ressource appelée (BookingResource.list...) pour étiqueter l'attente de connexion
+ */
+@Provider
+public class EndpointTagFilter implements ContainerRequestFilter {
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Inject
+    RequestEndpoint requestEndpoint;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (resourceInfo.getResourceClass() != null && resourceInfo.getResourceMethod() != null) {
+            requestEndpoint.setName(resourceInfo.getResourceClass().getSimpleName()
+                    + "." + resourceInfo.getResourceMethod().getName());
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class EquipmentResource {
     @Inject
     ImageService imageService;
 
+    // Catalogue : lu par le chemin JPA pour profiter du cache de requêtes de second niveau
     @GET
     @RolesAllowed({"user", "admin"})
     public Response list() {
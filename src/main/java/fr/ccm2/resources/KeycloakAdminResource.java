@@ -61,6 +61,31 @@ public interface KeycloakAdminResource {
             @QueryParam("max") Integer max
     );
 
+    /**
+     * Recherche exacte par nom d'utilisateur
+     */
+    @GET
+    @Path("/admin/realms/{realm}/users")
+    List<KeycloakUserResponse> findUsersByUsername(
+            @PathParam("realm") String realm,
+            @HeaderParam("Authorization") String authorization,
+            @QueryParam("username") String username,
+            @QueryParam("exact") Boolean exact
+    );
+
+    /**
+     * Page d'utilisateurs du realm, à partir du rang first
+     */
+    @GET
+    @Path("/admin/realms/{realm}/users")
+    List<KeycloakUserResponse> getUsersPage(
+            @PathParam("realm") String realm,
+            @HeaderParam("Authorization") String authorization,
+            @QueryParam("first") Integer first,
+            @QueryParam("max") Integer max,
+            @QueryParam("briefRepresentation") Boolean briefRepresentation
+    );
+
     @GET
     @Path("/admin/realms/{realm}/users/{userId}")
     KeycloakUserResponse getUser(
@@ -5,6 +5,8 @@ import fr.ccm2.dto.reminder.NotificationCreateDTO;
 import fr.ccm2.dto.reminder.NotificationUpdateDTO;
 import fr.ccm2.entities.SentNotification;
 import fr.ccm2.services.NotificationService;
+import fr.ccm2.services.ReactiveReadService;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -28,6 +30,9 @@ public class NotificationResource {
     @Inject
     NotificationService notificationService;
 
+    @Inject
+    ReactiveReadService reactiveReadService;
+
     @Context
     SecurityContext securityContext;
 
@@ -36,7 +41,7 @@ public class NotificationResource {
      */
     @GET
     @RolesAllowed({"user", "admin"})
-    public Response getUserNotifications(
+    public Uni<Response> getUserNotifications(
             @QueryParam("read") Boolean read,
             @QueryParam("limit") @DefaultValue("50") int limit,
             @QueryParam("offset") @DefaultValue("0") int offset,
@@ -44,16 +49,19 @@ public class NotificationResource {
 
         String currentUsername = securityContext.getUserPrincipal().getName().toLowerCase();
 
-        List<NotificationResponseDTO> result = notificationService.getUserNotifications(
-                currentUsername, read, type, limit, offset);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("notifications", result);
-        response.put("total", notificationService.countUserNotifications(currentUsername, read, type));
-        response.put("limit", limit);
-        response.put("offset", offset);
-
-        return Response.ok(response).build();
+        // Page et total lus en parallèle
+        return Uni.combine().all().unis(
+                        reactiveReadService.getUserNotifications(currentUsername, read, type, limit, offset),
+                        reactiveReadService.countUserNotifications(currentUsername, read, type))
+                .asTuple()
+                .map(result -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("notifications", result.getItem1());
+                    response.put("total", result.getItem2());
+                    response.put("limit", limit);
+                    response.put("offset", offset);
+                    return Response.ok(response).build();
+                });
     }
 
     /**
@@ -62,15 +70,15 @@ public class NotificationResource {
     @GET
     @Path("/unread-count")
     @RolesAllowed({"user", "admin"})
-    public Response getUnreadCount() {
+    public Uni<Response> getUnreadCount() {
         String currentUsername = securityContext.getUserPrincipal().getName().toLowerCase();
 
-        Long count = notificationService.getUnreadCount(currentUsername);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("count", count);
-
-        return Response.ok(result).build();
+        return reactiveReadService.countUserNotifications(currentUsername, false, null)
+                .map(count -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("count", count);
+                    return Response.ok(result).build();
+                });
     }
 
     /**
@@ -130,7 +138,7 @@ public class NotificationResource {
                     .build();
         }
 
-        if (!currentUsername.equalsIgnoreCase(notification.getBooking().getOrganizer()) &&
+        if (!currentUsername.equalsIgnoreCase(notification.getRecipient()) &&
                 !securityContext.isUserInRole("admin")) {
             return Response.status(Response.Status.FORBIDDEN)
                     .entity(Map.of("success", false, "message", "Vous n'êtes pas autorisé à marquer cette notification comme lue"))
@@ -166,7 +174,7 @@ public class NotificationResource {
                     .build();
         }
 
-        if (!currentUsername.equalsIgnoreCase(notification.getBooking().getOrganizer()) &&
+        if (!currentUsername.equalsIgnoreCase(notification.getRecipient()) &&
                 !securityContext.isUserInRole("admin")) {
             return Response.status(Response.Status.FORBIDDEN)
                     .entity(Map.of("success", false, "message", "Vous n'êtes pas autorisé à modifier cette notification"))
@@ -224,7 +232,7 @@ public class NotificationResource {
         }
 
         if (!securityContext.isUserInRole("admin") &&
-                !currentUsername.equalsIgnoreCase(notification.getBooking().getOrganizer())) {
+                !currentUsername.equalsIgnoreCase(notification.getRecipient())) {
             return Response.status(Response.Status.FORBIDDEN)
                     .entity(Map.of("success", false, "message", "Vous n'êtes pas autorisé à supprimer cette notification"))
                     .build();
@@ -265,6 +273,10 @@ public class NotificationResource {
                     ))
                     .build();
 
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("success", false, "message", e.getMessage()))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("success", false, "message", "Erreur lors de la mise à jour: " + e.getMessage()))
@@ -374,6 +386,10 @@ public class NotificationResource {
                         .build();
             }
 
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("success", false, "message", e.getMessage()))
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("success", false, "message", "Erreur lors de la création: " + e.getMessage()))
@@ -0,0 +1,77 @@
+package fr.ccm2.resources;
+
+import fr.ccm2.services.PrimaryPin;
+import fr.ccm2.services.ReadReplicaRouter;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Set;
+
+/**
+ * Épinglage sur la base principale porté par le client (voir ReadReplicaRouter) : une écriture réussie dépose
+ * son heure dans le cookie ReadReplicaRouter.PIN_COOKIE et l'en-tête ReadReplicaRouter.PIN_HEADER,
+ * relus à chaque requête par n'importe quelle instance ; la plus récente des deux valeurs l'emporte.
+ */
+@Provider
+public class PrimaryPinFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    @Inject
+    ReadReplicaRouter readReplicaRouter;
+
+    @Inject
+    PrimaryPin primaryPin;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (!readReplicaRouter.isReplicaEnabled()) {
+            return;
+        }
+        Cookie cookie = request.getCookies().get(ReadReplicaRouter.PIN_COOKIE);
+        long lastWriteMs = Math.max(parse(cookie != null ? cookie.getValue() : null),
+                parse(request.getHeaderString(ReadReplicaRouter.PIN_HEADER)));
+        if (lastWriteMs > 0) {
+            primaryPin.setLastWriteMs(lastWriteMs);
+        }
+    }
+
+    // Valeur absente ou illisible : lectures aiguillées normalement
+    private static long parse(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!readReplicaRouter.isReplicaEnabled()
+                || READ_METHODS.contains(request.getMethod())
+                || response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            return;
+        }
+        String now = Long.toString(System.currentTimeMillis());
+        NewCookie cookie = new NewCookie.Builder(ReadReplicaRouter.PIN_COOKIE)
+                .value(now)
+                .path("/")
+                .maxAge((int) Math.max(1, (readReplicaRouter.getPrimaryPinMs() + 999) / 1000))
+                .httpOnly(true)
+                .build();
+        response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+        response.getHeaders().putSingle(ReadReplicaRouter.PIN_HEADER, now);
+    }
+}
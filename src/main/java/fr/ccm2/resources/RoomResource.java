@@ -1,9 +1,14 @@
 package fr.ccm2.resources;
 
+import fr.ccm2.dto.booking.BookingResponseDTO;
 import fr.ccm2.dto.room.*;
 import fr.ccm2.entities.Room;
+import fr.ccm2.mapper.BookingMapper;
 import fr.ccm2.mapper.RoomMapper;
+import fr.ccm2.services.RoomFinder;
+import fr.ccm2.services.RoomScheduleService;
 import fr.ccm2.services.RoomService;
+import io.quarkus.security.identity.SecurityIdentity;
 import fr.ccm2.services.ImageService;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -13,10 +18,13 @@ import jakarta.ws.rs.core.Response;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 @Path("/rooms")
 @Produces(MediaType.APPLICATION_JSON)
@@ -31,15 +39,21 @@ public class RoomResource {
     @Inject
     ImageService imageService;
 
+    @Inject
+    RoomFinder roomFinder;
+
+    @Inject
+    RoomScheduleService roomScheduleService;
+
+    @Inject
+    SecurityIdentity securityIdentity;
+
+    // Catalogue : lu par le chemin JPA pour profiter du cache de requêtes de second niveau
     @GET
     @RolesAllowed({"user", "admin"})
     public Response list() {
         try {
-            List<Room> rooms = roomService.getRoomsWithRelations();
-            List<RoomResponseDTO> response = rooms.stream()
-                    .map(room -> RoomMapper.toResponse(room, true))
-                    .collect(Collectors.toList());
-
+            List<RoomResponseDTO> response = roomService.getRoomViews();
             return Response.ok(response).build();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching rooms", e);
@@ -47,6 +61,36 @@ public class RoomResource {
         }
     }
 
+    @GET
+    @Path("/search")
+    @RolesAllowed({"user", "admin"})
+    public Response search(@QueryParam("attendees") Integer attendees,
+                           @QueryParam("equipmentId") List<Long> equipmentIds,
+                           @QueryParam("building") String building,
+                           @QueryParam("from") String from,
+                           @QueryParam("to") String to,
+                           @QueryParam("duration") Integer durationMinutes,
+                           @QueryParam("limit") @DefaultValue("10") int limit) {
+        if (attendees == null || from == null || to == null || durationMinutes == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Les paramètres 'attendees', 'from', 'to' et 'duration' sont requis.").build();
+        }
+
+        try {
+            List<RoomSearchResultDTO> results = roomFinder.search(attendees,
+                    equipmentIds != null ? equipmentIds : List.of(),
+                    building != null && !building.isBlank() ? building : null,
+                    LocalDateTime.parse(from), LocalDateTime.parse(to),
+                    Duration.ofMinutes(durationMinutes), Math.max(1, limit));
+            return Response.ok(results).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Format de date invalide").build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur de validation: " + e.getMessage()).build();
+        }
+    }
+
     @GET
     @Path("/{id}")
     @RolesAllowed({"user", "admin"})
@@ -59,6 +103,33 @@ public class RoomResource {
         return Response.ok(responseDTO).build();
     }
 
+    @GET
+    @Path("/{id}/schedule")
+    @RolesAllowed({"user", "admin"})
+    public Response schedule(@PathParam("id") Long id,
+                             @QueryParam("date") String date,
+                             @QueryParam("days") @DefaultValue("7") int days) {
+        try {
+            LocalDate from = date != null ? LocalDate.parse(date) : LocalDate.now();
+            List<RoomDayScheduleDTO> schedule = roomScheduleService.getSchedule(id, from, days);
+
+            // Même règle que GET /bookings : seuls l'administrateur et l'organisateur voient les détails
+            String currentUser = securityIdentity.getPrincipal().getName();
+            boolean isAdmin = securityIdentity.hasRole("admin");
+            for (RoomDayScheduleDTO day : schedule) {
+                for (BookingResponseDTO entry : day.entries) {
+                    BookingMapper.anonymizeFor(entry, currentUser, isAdmin);
+                }
+            }
+            return Response.ok(schedule).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Format de date invalide").build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Erreur de validation: " + e.getMessage()).build();
+        }
+    }
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @RolesAllowed({"admin"})
@@ -0,0 +1,186 @@
+package fr.ccm2.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Archivage des périodes closes : les réservations terminées et les notifications anciennes quittent les tables
+ * chaudes pour les archives partitionnées par mois (migration V6).
+ *
+ * Une période est close au début du mois qui précède la durée de rétention : les mois sont archivés entiers.
+ * Les lignes sont déplacées par lots, chacun dans sa propre transaction ; les lignes verrouillées par ailleurs
+ * sont laissées au passage suivant. La rétention doit rester supérieure à app.booking.index.history-days,
+ * les structures en mémoire ne recevant pas d'événement pour les réservations archivées.
+ */
+@ApplicationScoped
+public class ArchiveService {
+
+    private static final Logger LOG = Logger.getLogger(ArchiveService.class);
+
+    public static final String BOOKING_ARCHIVE = "booking_archive";
+    public static final String BOOKING_EQUIPMENT_ARCHIVE = "booking_equipment_archive";
+    public static final String NOTIFICATION_ARCHIVE = "sent_notifications_archive";
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.archive.booking-retention-days", defaultValue = "365")
+    int bookingRetentionDays;
+
+    @ConfigProperty(name = "app.archive.notification-retention-days", defaultValue = "180")
+    int notificationRetentionDays;
+
+    @ConfigProperty(name = "app.archive.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    /**
+     * Début de la période encore chaude pour les réservations
+     */
+    public LocalDateTime bookingCutoff() {
+        return closedBefore(bookingRetentionDays);
+    }
+
+    public LocalDateTime notificationCutoff() {
+        return closedBefore(notificationRetentionDays);
+    }
+
+    /**
+     * Archive les notifications puis les réservations des périodes closes
+     */
+    public void archiveClosedPeriods() {
+        int notifications = archiveNotifications(notificationCutoff());
+        int bookings = archiveBookings(bookingCutoff());
+        LOG.info("Archivage terminé: " + bookings + " réservations, " + notifications + " notifications");
+    }
+
+    /**
+     * Déplace les notifications envoyées avant la date donnée
+     */
+    public int archiveNotifications(LocalDateTime cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = QuarkusTransaction.requiringNew().call(() -> moveNotificationBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    /**
+     * Déplace, avec leurs équipements et dates d'exception, les réservations terminées avant la date donnée
+     * (dernière occurrence comprise pour une série). Une réservation encore citée par une notification chaude reste en place.
+     */
+    public int archiveBookings(LocalDateTime cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = QuarkusTransaction.requiringNew().call(() -> moveBookingBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int moveNotificationBatch(LocalDateTime cutoff) {
+        List<Long> ids = em.createNativeQuery(
+                        "SELECT id FROM sent_notifications WHERE sent_at < :cutoff ORDER BY id LIMIT :limit " +
+                                "FOR UPDATE SKIP LOCKED", Long.class)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        ensurePartitions(NOTIFICATION_ARCHIVE,
+                "SELECT DISTINCT CAST(date_trunc('month', sent_at) AS date) FROM sent_notifications WHERE id IN (:ids)", ids);
+        move("sent_notifications",
+                "INSERT INTO sent_notifications_archive " +
+                        "(id, booking_id, notification_type, sent_at, organizer_email, recipient, title, message, " +
+                        "read_status, deleted) " +
+                        "SELECT id, booking_id, notification_type, sent_at, organizer_email, recipient, title, message, " +
+                        "read_status, deleted FROM sent_notifications WHERE id IN (:ids)",
+                "DELETE FROM sent_notifications WHERE id IN (:ids)", ids);
+        return ids.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int moveBookingBatch(LocalDateTime cutoff) {
+        List<Long> ids = em.createNativeQuery(
+                        "SELECT b.id FROM booking b " +
+                                "WHERE b.start_time IS NOT NULL AND b.end_time < :cutoff " +
+                                "AND (b.recurrence_until IS NULL OR b.recurrence_until < :cutoffDate) " +
+                                "AND NOT EXISTS (SELECT 1 FROM sent_notifications n WHERE n.booking_id = b.id) " +
+                                "ORDER BY b.id LIMIT :limit FOR UPDATE OF b SKIP LOCKED", Long.class)
+                .setParameter("cutoff", cutoff)
+                .setParameter("cutoffDate", cutoff.toLocalDate())
+                .setParameter("limit", batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String bookingMonths = "SELECT DISTINCT CAST(date_trunc('month', start_time) AS date) FROM booking WHERE id IN (:ids)";
+        ensurePartitions(BOOKING_ARCHIVE, bookingMonths, ids);
+        ensurePartitions(BOOKING_EQUIPMENT_ARCHIVE, bookingMonths, ids);
+
+        // Enfants d'abord : les clés étrangères des tables chaudes pointent vers booking
+        move("booking_exception_date",
+                "INSERT INTO booking_exception_date_archive (booking_id, exception_date) " +
+                        "SELECT booking_id, exception_date FROM booking_exception_date WHERE booking_id IN (:ids)",
+                "DELETE FROM booking_exception_date WHERE booking_id IN (:ids)", ids);
+        move("booking_equipment",
+                "INSERT INTO booking_equipment_archive " +
+                        "(id, booking_id, equipment_id, quantity, start_time, end_time, booking_start_time) " +
+                        "SELECT be.id, be.booking_id, be.equipment_id, be.quantity, be.start_time, be.end_time, b.start_time " +
+                        "FROM booking_equipment be JOIN booking b ON b.id = be.booking_id WHERE be.booking_id IN (:ids)",
+                "DELETE FROM booking_equipment WHERE booking_id IN (:ids)", ids);
+        move("booking",
+                "INSERT INTO booking_archive " +
+                        "(id, title, start_time, end_time, attendees, organizer, room_id, series_id, " +
+                        "recurrence_interval_weeks, recurrence_until) " +
+                        "SELECT id, title, start_time, end_time, attendees, organizer, room_id, series_id, " +
+                        "recurrence_interval_weeks, recurrence_until " +
+                        "FROM booking WHERE id IN (:ids)",
+                "DELETE FROM booking WHERE id IN (:ids)", ids);
+        return ids.size();
+    }
+
+    // Les tables touchées sont déclarées à Hibernate : sans elles, toute requête native de mise à jour
+    // viderait l'ensemble du cache de second niveau (catalogue compris)
+    private void move(String table, String insert, String delete, List<Long> ids) {
+        em.createNativeQuery(insert).unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(table + "_archive")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        em.createNativeQuery(delete).unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(table)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    // Partitions mensuelles des lignes du lot, créées avant l'insertion
+    @SuppressWarnings("unchecked")
+    private void ensurePartitions(String parent, String monthsSql, List<Long> ids) {
+        List<LocalDate> months = em.createNativeQuery(monthsSql, LocalDate.class).setParameter("ids", ids).getResultList();
+        for (LocalDate month : months) {
+            em.createNativeQuery("SELECT ensure_monthly_partition(:parent, :month)", String.class)
+                    .setParameter("parent", parent)
+                    .setParameter("month", month)
+                    .getSingleResult();
+        }
+    }
+
+    private static LocalDateTime closedBefore(int retentionDays) {
+        return LocalDate.now().minusDays(retentionDays).withDayOfMonth(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,114 @@
+package fr.ccm2.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sérialise les admissions de réservation par salle et par équipement.
+ *
+ * L'autorité est un verrou consultatif PostgreSQL de transaction (pg_advisory_xact_lock) par salle et par
+ * équipement : il est libéré par le commit ou le rollback, y compris quand l'admission rejoint une transaction
+ * ouverte par l'appelant, et il sérialise les demandes de toutes les instances de l'application.
+ * Les verrous locaux répartis en bandes (striping) font patienter les demandes d'une même instance avant
+ * qu'elles n'occupent une connexion ; deux demandes ne s'attendent que si elles touchent la même salle
+ * ou le même équipement (ou une bande partagée). Les verrous sont toujours pris dans l'ordre croissant
+ * pour éviter les interblocages.
+ */
+@ApplicationScoped
+public class BookingAdmission {
+
+    // Espaces de clés des verrous consultatifs (première clé de pg_advisory_xact_lock(int, int))
+    private static final int ROOM_LOCK_SPACE = 1;
+    private static final int EQUIPMENT_LOCK_SPACE = 2;
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.booking.admission.stripes", defaultValue = "64")
+    int stripeCount;
+
+    @ConfigProperty(name = "app.booking.admission.timeout-ms", defaultValue = "10000")
+    long timeoutMs;
+
+    // Bandes des salles dans [0, stripeCount), bandes des équipements dans [stripeCount, 2 * stripeCount)
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new ReentrantLock[stripeCount * 2];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Exécute l'action dans une transaction (rejointe si elle existe) qui détient les verrous des salles
+     * et équipements concernés jusqu'à sa fin
+     */
+    public <T> T admit(Collection<Long> roomIds, Collection<Long> equipmentIds, Supplier<T> action) {
+        SortedSet<Long> rooms = new TreeSet<>();
+        SortedSet<Long> equipments = new TreeSet<>();
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Long roomId : roomIds) {
+            if (roomId != null) {
+                rooms.add(roomId);
+                indexes.add(Math.floorMod(Long.hashCode(roomId), stripeCount));
+            }
+        }
+        for (Long equipmentId : equipmentIds) {
+            if (equipmentId != null) {
+                equipments.add(equipmentId);
+                indexes.add(stripeCount + Math.floorMod(Long.hashCode(equipmentId), stripeCount));
+            }
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Trop de demandes simultanées sur cette salle, veuillez réessayer.");
+                }
+                acquired.add(lock);
+            }
+            return QuarkusTransaction.joiningExisting().call(() -> {
+                lockInTransaction(ROOM_LOCK_SPACE, rooms);
+                lockInTransaction(EQUIPMENT_LOCK_SPACE, equipments);
+                return action.get();
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Réservation interrompue, veuillez réessayer.", e);
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Verrous consultatifs de transaction, pris dans l'ordre croissant des identifiants
+     */
+    private void lockInTransaction(int space, SortedSet<Long> ids) {
+        for (Long id : ids) {
+            // La fonction renvoie void : le comptage donne un résultat lisible par le pilote
+            em.createNativeQuery("SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:space, :key)) AS admission_lock")
+                    .setParameter("space", space)
+                    .setParameter("key", Long.hashCode(id))
+                    .getSingleResult();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package fr.ccm2.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Export de l'historique des réservations en flux (NDJSON ou CSV).
+ *
+ * Les lignes sont lues par un curseur serveur en avant seulement et écrites au fil de l'eau :
+ * ni la liste des réservations ni celle des DTO ne sont construites en mémoire.
+ * Les réservations archivées (ArchiveService) suivent celles de la table chaude lorsque la fenêtre les atteint.
+ */
+@ApplicationScoped
+public class BookingExportService {
+
+    private static final Logger LOG = Logger.getLogger(BookingExportService.class);
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final String[] COLUMNS = {
+            "id", "title", "roomId", "roomName", "startTime", "endTime",
+            "attendees", "organizer", "seriesId", "recurrenceIntervalWeeks", "recurrenceUntil"
+    };
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ArchiveService archiveService;
+
+    // Lignes récupérées par aller-retour avec PostgreSQL
+    @ConfigProperty(name = "app.booking.export.fetch-size", defaultValue = "500")
+    int fetchSize;
+
+    // Fréquence de vidage de la session Hibernate
+    @ConfigProperty(name = "app.booking.export.clear-every", defaultValue = "1000")
+    int clearEvery;
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_NDJSON.equals(format) || FORMAT_CSV.equals(format);
+    }
+
+    /**
+     * Écrit les réservations chevauchant [from, to) (bornes facultatives) dans le flux, triées par id (table chaude puis archives).
+     * La transaction est ouverte ici : l'écriture a lieu après le retour de la méthode de ressource.
+     */
+    public long export(String format, LocalDateTime from, LocalDateTime to, OutputStream output) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            long count = 0;
+            try {
+                if (FORMAT_CSV.equals(format)) {
+                    writer.write(String.join(",", COLUMNS));
+                    writer.write("\n");
+                }
+                try (ScrollableResults<Object[]> rows = openCursor(from, to)) {
+                    count = writeRows(format, writer, rows, count);
+                }
+                // Les périodes archivées ne sont lues que si la fenêtre demandée les atteint
+                if (from == null || from.isBefore(archiveService.bookingCutoff())) {
+                    try (ScrollableResults<Object[]> rows = openArchiveCursor(from, to)) {
+                        count = writeRows(format, writer, rows, count);
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // Client déconnecté en cours d'export
+                throw new UncheckedIOException(e);
+            }
+            LOG.info("Export " + format + " terminé: " + count + " réservations");
+            return count;
+        });
+    }
+
+    private long writeRows(String format, Writer writer, ScrollableResults<Object[]> rows, long count) throws IOException {
+        while (rows.next()) {
+            Object[] row = rows.get();
+            if (FORMAT_CSV.equals(format)) {
+                writeCsv(writer, row);
+            } else {
+                writeNdjson(writer, row);
+            }
+            count++;
+            if (count % clearEvery == 0) {
+                writer.flush();
+                em.clear();
+            }
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ScrollableResults<Object[]> openCursor(LocalDateTime from, LocalDateTime to) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT b.id, b.title, r.id, r.name, b.startTime, b.endTime, b.attendees, b.organizer, " +
+                        "b.seriesId, b.recurrenceIntervalWeeks, b.recurrenceUntil " +
+                        "FROM Booking b LEFT JOIN b.room r WHERE 1 = 1");
+        if (from != null) {
+            jpql.append(" AND b.endTime > :from");
+        }
+        if (to != null) {
+            jpql.append(" AND b.startTime < :to");
+        }
+        jpql.append(" ORDER BY b.id");
+
+        Query<Object[]> query = em.createQuery(jpql.toString(), Object[].class).unwrap(Query.class);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query.setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    /**
+     * Réservations archivées, mêmes colonnes que openCursor. La borne sur start_time limite la lecture
+     * aux partitions mensuelles antérieures à la fin de la fenêtre.
+     */
+    @SuppressWarnings("unchecked")
+    private ScrollableResults<Object[]> openArchiveCursor(LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT a.id, a.title, a.room_id, r.name, a.start_time, a.end_time, a.attendees, a.organizer, " +
+                        "a.series_id, a.recurrence_interval_weeks, a.recurrence_until " +
+                        "FROM booking_archive a LEFT JOIN room r ON r.id = a.room_id WHERE TRUE");
+        if (from != null) {
+            sql.append(" AND a.end_time > :from");
+        }
+        if (to != null) {
+            sql.append(" AND a.start_time < :to");
+        }
+        sql.append(" ORDER BY a.id");
+
+        NativeQuery<Object[]> query = em.createNativeQuery(sql.toString(), Object[].class).unwrap(NativeQuery.class);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query.setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    private void writeNdjson(Writer writer, Object[] row) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Object value = row[i];
+            if (value == null) {
+                generator.writeNullField(COLUMNS[i]);
+            } else if (value instanceof Timestamp) {
+                generator.writeStringField(COLUMNS[i], ((Timestamp) value).toLocalDateTime().toString());
+            } else if (value instanceof Date) {
+                generator.writeStringField(COLUMNS[i], ((Date) value).toLocalDate().toString());
+            } else if (value instanceof Number) {
+                generator.writeNumberField(COLUMNS[i], ((Number) value).longValue());
+            } else {
+                generator.writeStringField(COLUMNS[i], value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.flush();
+        writer.write("\n");
+    }
+
+    private void writeCsv(Writer writer, Object[] row) throws IOException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(",");
+            }
+            if (row[i] instanceof Timestamp) {
+                writer.write(((Timestamp) row[i]).toLocalDateTime().toString());
+            } else if (row[i] instanceof Date) {
+                writer.write(((Date) row[i]).toLocalDate().toString());
+            } else if (row[i] != null) {
+                writer.write(csvField(row[i].toString()));
+            }
+        }
+        writer.write("\n");
+    }
+
+    // RFC 4180 : guillemets doublés, champ entre guillemets s'il contient un séparateur
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
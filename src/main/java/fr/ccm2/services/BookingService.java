@@ -1,26 +1,76 @@
 package fr.ccm2.services;
 
+import fr.ccm2.dto.booking.BookingBatchResultDTO;
 import fr.ccm2.dto.booking.BookingCreateDTO;
 import fr.ccm2.dto.booking.BookingUpdateDTO;
+import fr.ccm2.dto.booking.RecurrenceDTO;
 import fr.ccm2.entities.BookingEquipment;
 import fr.ccm2.entities.Booking;
 import fr.ccm2.entities.Equipment;
 import fr.ccm2.entities.Room;
+import fr.ccm2.events.BookingChangedEvent;
+import fr.ccm2.events.BookingSnapshot;
 import fr.ccm2.utils.DateUtils;
+import fr.ccm2.utils.RecurrenceUtils;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
 @ApplicationScoped
 public class BookingService {
 
+    // SQLSTATE PostgreSQL exclusion_violation
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // Contrainte d'exclusion créée par la migration V2
+    public static final String ROOM_PERIOD_CONSTRAINT = "booking_room_period_excl";
+
     @Inject
     EntityManager em;
 
+    @Inject
+    RoomOccupancyIndex occupancyIndex;
+
+    @Inject
+    EquipmentReservationLedger equipmentLedger;
+
+    @Inject
+    BookingAdmission admission;
+
+    @Inject
+    Event<BookingChangedEvent> bookingEvents;
+
+    @Inject
+    CatalogCache catalogCache;
+
+    @ConfigProperty(name = "app.booking.recurrence.max-weeks", defaultValue = "52")
+    int recurrenceMaxWeeks;
+
+    @ConfigProperty(name = "app.booking.page.default-limit", defaultValue = "500")
+    int pageDefaultLimit;
+
+    @ConfigProperty(name = "app.booking.page.max-limit", defaultValue = "1000")
+    int pageMaxLimit;
+
+    @ConfigProperty(name = "app.booking.batch.max-size", defaultValue = "5000")
+    int batchMaxSize;
+
+    // Aligné sur quarkus.hibernate-orm.jdbc.statement-batch-size
+    @ConfigProperty(name = "app.booking.batch.flush-size", defaultValue = "50")
+    int batchFlushSize;
+
     public List<Booking> getAllBookings() {
         return em.createQuery("FROM Booking", Booking.class).getResultList();
     }
@@ -51,39 +101,98 @@ public class BookingService {
                 .getResultList();
     }
 
-    private void checkEquipmentAvailability(List<BookingEquipment> requestedEquipments, LocalDateTime start, LocalDateTime end) {
+    /**
+     * Vérifie les quantités d'équipements mobiles demandées pour une réservation.
+     * Le registre refuse tôt, sans requête ; la décision finale relit les réservations en base sous verrou
+     * des équipements, jusqu'au commit.
+     */
+    private void checkEquipmentAvailability(Booking booking, List<BookingEquipment> requestedEquipments,
+                                            LocalDateTime start, LocalDateTime end) {
+        Set<Long> mobileIds = new HashSet<>();
         for (BookingEquipment requested : requestedEquipments) {
-            Equipment equipment = em.find(Equipment.class, requested.getEquipment().getId());
-
-            if (equipment == null) {
-                throw new IllegalArgumentException("Équipement non trouvé (ID=" + requested.getEquipment().getId() + ")");
+            Equipment equipment = requested.getEquipment();
+            if (equipment.isMobile()) {
+                checkQuantity(equipment, requested.getQuantity(), equipmentLedger.peakReserved(equipment.getId(), start, end));
+                mobileIds.add(equipment.getId());
             }
+        }
+        if (mobileIds.isEmpty()) {
+            return;
+        }
 
+        Map<Long, EquipmentReservationLedger.Timeline> reservations = lockReservations(mobileIds, start, end, booking.getId());
+        for (BookingEquipment requested : requestedEquipments) {
+            Equipment equipment = requested.getEquipment();
             if (equipment.isMobile()) {
-                Long reservedQuantity = em.createQuery(
-                                "SELECT COALESCE(SUM(be.quantity), 0) FROM BookingEquipment be " +
-                                        "JOIN be.booking b " +
-                                        "WHERE be.equipment.id = :equipmentId " +
-                                        "AND b.endTime > :start AND b.startTime < :end", Long.class)
-                        .setParameter("equipmentId", equipment.getId())
-                        .setParameter("start", start)
-                        .setParameter("end", end)
-                        .getSingleResult();
-
-                if (reservedQuantity + requested.getQuantity() > equipment.getQuantity()) {
-                    throw new IllegalStateException(
-                            "Quantité insuffisante pour l'équipement mobile '" + equipment.getName() + "'. " +
-                                    "Demandé: " + requested.getQuantity() + ", Disponible: " +
-                                    (equipment.getQuantity() - reservedQuantity)
-                    );
-                }
+                checkQuantity(equipment, requested.getQuantity(), reservations.get(equipment.getId()).peak(start, end));
             }
         }
     }
 
+    private static void checkQuantity(Equipment equipment, int requested, int reservedQuantity) {
+        if (reservedQuantity + requested > equipment.getQuantity()) {
+            throw new IllegalStateException(
+                    "Quantité insuffisante pour l'équipement mobile '" + equipment.getName() + "'. " +
+                            "Demandé: " + requested + ", Disponible: " +
+                            (equipment.getQuantity() - reservedQuantity)
+            );
+        }
+    }
 
-    @Transactional
+    /**
+     * Verrouille les lignes des équipements (ordre des id, sans interblocage) puis relit leurs réservations
+     * engagées sur [start, end), hors réservation en cours de création. Une admission concurrente sur le même
+     * équipement attend le commit de celle-ci et voit ses lignes.
+     */
+    private Map<Long, EquipmentReservationLedger.Timeline> lockReservations(Collection<Long> equipmentIds,
+                                                                           LocalDateTime start, LocalDateTime end,
+                                                                           Long excludedBookingId) {
+        em.createQuery("SELECT e.id FROM Equipment e WHERE e.id IN :ids ORDER BY e.id", Long.class)
+                .setParameter("ids", equipmentIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        Map<Long, EquipmentReservationLedger.Timeline> reservations = new HashMap<>();
+        for (Long equipmentId : equipmentIds) {
+            reservations.put(equipmentId, new EquipmentReservationLedger.Timeline());
+        }
+        for (Object[] row : em.createQuery(
+                        "SELECT be.equipment.id, be.quantity, COALESCE(be.startTime, b.startTime), COALESCE(be.endTime, b.endTime) " +
+                                "FROM BookingEquipment be JOIN be.booking b " +
+                                "WHERE be.equipment.id IN :ids AND b.id <> :excluded " +
+                                "AND COALESCE(be.endTime, b.endTime) > :start AND COALESCE(be.startTime, b.startTime) < :end",
+                        Object[].class)
+                .setParameter("ids", equipmentIds)
+                .setParameter("excluded", excludedBookingId != null ? excludedBookingId : -1L)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList()) {
+            reservations.get((Long) row[0]).add((LocalDateTime) row[2], (LocalDateTime) row[3], (Integer) row[1]);
+        }
+        return reservations;
+    }
+
+
+    /**
+     * Crée une réservation en sérialisant uniquement les demandes portant sur la même salle ou le même équipement.
+     * Les verrous en base sont pris dans la transaction et tenus jusqu'à son commit.
+     */
     public Booking createBooking(BookingCreateDTO dto) {
+        List<Long> roomIds = new ArrayList<>();
+        roomIds.add(dto.roomId);
+
+        // Tous les équipements demandés sont verrouillés : la mobilité n'est connue qu'après chargement
+        List<Long> equipmentIds = new ArrayList<>();
+        if (dto.bookingEquipments != null) {
+            for (var beDto : dto.bookingEquipments) {
+                equipmentIds.add(beDto.equipmentId);
+            }
+        }
+
+        return admission.admit(roomIds, equipmentIds, () -> admitBooking(dto));
+    }
+
+    private Booking admitBooking(BookingCreateDTO dto) {
         Room room = em.find(Room.class, dto.roomId);
         System.out.println("Salle recherchée : " + dto.roomId);
 
@@ -102,89 +211,743 @@ public class BookingService {
             );
         }
 
-        List<Booking> conflicts = getAvailableRoom(room.getId(), dto.startTime, dto.endTime);
-        if (!conflicts.isEmpty()) {
-            StringBuilder message = new StringBuilder("La salle est déjà réservée pour les périodes suivantes :\n");
-            for (Booking conflict : conflicts) {
-                message.append("Du ")
-                        .append(DateUtils.formatForUser(conflict.getStartTime()))
-                        .append(" au ")
-                        .append(DateUtils.formatForUser(conflict.getEndTime()))
-                        .append("\n");
+        boolean recurring = dto.recurrence != null;
+        if (recurring) {
+            validateRecurrence(dto);
+        }
+        List<RoomOccupancyIndex.Slot> candidates = candidateSlots(dto);
+
+        // L'index mémoire signale les conflits probables ; ils sont confirmés en base avant tout rejet,
+        // la contrainte d'exclusion restant l'autorité finale pour les créneaux que l'index dit libres
+        List<RoomOccupancyIndex.Slot> indexed = new ArrayList<>();
+        for (RoomOccupancyIndex.Slot candidate : candidates) {
+            indexed.addAll(occupancyIndex.findOverlaps(room.getId(), candidate.getStartTime(), candidate.getEndTime()));
+        }
+        if (!indexed.isEmpty()) {
+            List<RoomOccupancyIndex.Slot> conflicts = findRoomConflicts(room.getId(), candidates);
+            if (!conflicts.isEmpty()) {
+                throw roomConflict(conflicts);
             }
-            System.out.println("Conflits détectés : " + message);
-            throw new IllegalStateException(message.toString());
+            // Créneaux absents de la base (événement manqué, annulation non propagée) : retirés de l'index
+            occupancyIndex.discard(room.getId(), indexed);
         }
 
-        Booking booking = new Booking();
+        // Une série est matérialisée : chaque occurrence est une ligne, couverte par la contrainte d'exclusion,
+        // les rappels, les listes et les exports ; la première porte la règle de récurrence
+        Booking booking = newOccurrence(dto, room, candidates.get(0));
         System.out.println("Réservation créée : " + booking);
 
-        booking.setTitle(dto.title);
-        booking.setStartTime(dto.startTime);
-        booking.setEndTime(dto.endTime);
-        booking.setAttendees(dto.attendees);
-        booking.setOrganizer(dto.organizer);
-        booking.setRoom(room);
+        if (recurring) {
+            booking.setRecurrenceIntervalWeeks(dto.recurrence.intervalWeeks);
+            booking.setRecurrenceUntil(dto.recurrence.until);
+            if (dto.recurrence.exceptionDates != null) {
+                booking.getExceptionDates().addAll(dto.recurrence.exceptionDates);
+            }
+        }
 
         booking.setBookingEquipments(new ArrayList<>());
 
-        em.persist(booking);
+        List<Booking> occurrences = new ArrayList<>();
+        occurrences.add(booking);
+        try {
+            em.persist(booking);
+            if (recurring) {
+                booking.setSeriesId(booking.getId());
+                for (RoomOccupancyIndex.Slot candidate : candidates.subList(1, candidates.size())) {
+                    Booking occurrence = newOccurrence(dto, room, candidate);
+                    occurrence.setSeriesId(booking.getId());
+                    em.persist(occurrence);
+                    occurrences.add(occurrence);
+                }
+            }
+            em.flush();
+        } catch (PersistenceException e) {
+            if (isRoomPeriodViolation(e)) {
+                // La transaction est invalidée : le détail des conflits provient de l'index mémoire
+                List<RoomOccupancyIndex.Slot> conflicts = new ArrayList<>();
+                for (RoomOccupancyIndex.Slot candidate : candidates) {
+                    conflicts.addAll(occupancyIndex.findOverlaps(room.getId(), candidate.getStartTime(), candidate.getEndTime()));
+                }
+                throw roomConflict(conflicts);
+            }
+            throw e;
+        }
         System.out.println("Réservation persistée avec succès : " + booking.getId());
 
         if (dto.bookingEquipments != null) {
             Map<Long, BookingEquipment> equipmentMap = new HashMap<>();
 
+            // Tous les équipements demandés en une requête
+            Set<Long> requestedIds = new HashSet<>();
             for (var beDto : dto.bookingEquipments) {
-                String key = beDto.equipmentId + "-" + beDto.startTime + "-" + beDto.endTime;
+                if (beDto.equipmentId != null) {
+                    requestedIds.add(beDto.equipmentId);
+                }
+            }
+            Map<Long, Equipment> equipments = new HashMap<>();
+            if (!requestedIds.isEmpty()) {
+                for (Equipment equipment : em.createQuery("SELECT e FROM Equipment e WHERE e.id IN :ids", Equipment.class)
+                        .setParameter("ids", requestedIds)
+                        .getResultList()) {
+                    equipments.put(equipment.getId(), equipment);
+                }
+            }
+            if (equipments.size() < requestedIds.size()) {
+                Set<Long> missing = new TreeSet<>(requestedIds);
+                missing.removeAll(equipments.keySet());
+                throw new IllegalArgumentException("Équipement non trouvé (ID=" + joinIds(missing) + ")");
+            }
 
-                if (!equipmentMap.containsKey(beDto.equipmentId)) {
-                    Equipment equipment = em.find(Equipment.class, beDto.equipmentId);
-                    if (equipment == null) {
-                        continue;
+            // Chaque occurrence réserve les mêmes équipements, décalés comme elle
+            for (Booking occurrence : occurrences) {
+                Duration shift = Duration.between(dto.startTime, occurrence.getStartTime());
+                equipmentMap.clear();
+                if (occurrence.getBookingEquipments() == null) {
+                    occurrence.setBookingEquipments(new ArrayList<>());
+                }
+                for (var beDto : dto.bookingEquipments) {
+                    if (!equipmentMap.containsKey(beDto.equipmentId)) {
+                        Equipment equipment = equipments.get(beDto.equipmentId);
+                        if (equipment == null) {
+                            continue;
+                        }
+
+                        BookingEquipment be = new BookingEquipment();
+                        be.setEquipment(equipment);
+                        be.setQuantity(beDto.quantity);
+                        be.setBooking(occurrence);
+                        be.setStartTime(beDto.startTime != null ? beDto.startTime.plus(shift) : null);
+                        be.setEndTime(beDto.endTime != null ? beDto.endTime.plus(shift) : null);
+
+                        equipmentMap.put(beDto.equipmentId, be);
+
+                        occurrence.getBookingEquipments().add(be);
+
+                        em.persist(be);
                     }
+                }
+
+                checkEquipmentAvailability(occurrence, new ArrayList<>(equipmentMap.values()),
+                        occurrence.getStartTime(), occurrence.getEndTime());
+            }
+        }
+
+        em.flush();
+        for (Booking occurrence : occurrences) {
+            bookingEvents.fire(BookingChangedEvent.created(BookingSnapshot.of(occurrence)));
+        }
+        return booking;
+    }
+
+    private static Booking newOccurrence(BookingCreateDTO dto, Room room, RoomOccupancyIndex.Slot slot) {
+        Booking booking = new Booking();
+        booking.setTitle(dto.title);
+        booking.setStartTime(slot.getStartTime());
+        booking.setEndTime(slot.getEndTime());
+        booking.setAttendees(dto.attendees);
+        booking.setOrganizer(dto.organizer);
+        booking.setRoom(room);
+        return booking;
+    }
 
+    private IllegalStateException roomConflict(List<RoomOccupancyIndex.Slot> conflicts) {
+        if (conflicts.isEmpty()) {
+            return new IllegalStateException("La salle est déjà réservée sur cette période.");
+        }
+        StringBuilder message = new StringBuilder("La salle est déjà réservée pour les périodes suivantes :\n");
+        for (RoomOccupancyIndex.Slot conflict : conflicts) {
+            message.append("Du ")
+                    .append(DateUtils.formatForUser(conflict.getStartTime()))
+                    .append(" au ")
+                    .append(DateUtils.formatForUser(conflict.getEndTime()))
+                    .append("\n");
+        }
+        System.out.println("Conflits détectés : " + message);
+        return new IllegalStateException(message.toString());
+    }
+
+    /**
+     * Valide et normalise la règle de récurrence (hebdomadaire, toutes les 1 à 4 semaines)
+     */
+    private void validateRecurrence(BookingCreateDTO dto) {
+        RecurrenceDTO recurrence = dto.recurrence;
+        if (recurrence.intervalWeeks == null) {
+            recurrence.intervalWeeks = 1;
+        }
+        if (recurrence.intervalWeeks < 1 || recurrence.intervalWeeks > 4) {
+            throw new IllegalArgumentException("L'intervalle de récurrence doit être compris entre 1 et 4 semaines.");
+        }
+        if (recurrence.until == null || recurrence.until.isBefore(dto.startTime.toLocalDate())) {
+            throw new IllegalArgumentException("La date de fin de la série doit suivre la première occurrence.");
+        }
+        if (recurrence.until.isAfter(dto.startTime.toLocalDate().plusWeeks(recurrenceMaxWeeks))) {
+            throw new IllegalArgumentException("Une série ne peut pas dépasser " + recurrenceMaxWeeks + " semaines.");
+        }
+        if (!Duration.between(dto.startTime, dto.endTime).minusDays(7L * recurrence.intervalWeeks).isNegative()) {
+            throw new IllegalArgumentException("Les occurrences d'une série ne peuvent pas se chevaucher.");
+        }
+    }
+
+    /**
+     * Créneaux demandés : une seule occurrence pour une réservation simple, toutes celles de la série sinon
+     */
+    private List<RoomOccupancyIndex.Slot> candidateSlots(BookingCreateDTO dto) {
+        if (dto.recurrence == null) {
+            return List.of(new RoomOccupancyIndex.Slot(null, dto.startTime, dto.endTime));
+        }
+        Duration duration = Duration.between(dto.startTime, dto.endTime);
+        Set<LocalDate> exceptions = dto.recurrence.exceptionDates != null
+                ? new HashSet<>(dto.recurrence.exceptionDates) : Collections.emptySet();
+
+        List<RoomOccupancyIndex.Slot> slots = new ArrayList<>();
+        for (LocalDateTime start : RecurrenceUtils.occurrenceStarts(dto.startTime, dto.endTime,
+                dto.recurrence.intervalWeeks, dto.recurrence.until, exceptions, null, null)) {
+            slots.add(new RoomOccupancyIndex.Slot(null, start, start.plus(duration)));
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("La série ne contient aucune occurrence.");
+        }
+        return slots;
+    }
+
+    /**
+     * Cherche en une requête les réservations de la salle qui chevauchent l'un des créneaux candidats (triés)
+     */
+    private List<RoomOccupancyIndex.Slot> findRoomConflicts(Long roomId, List<RoomOccupancyIndex.Slot> candidates) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT b.id, b.startTime, b.endTime FROM Booking b WHERE b.room.id = :roomId " +
+                                "AND b.endTime > :from AND b.startTime < :to ORDER BY b.startTime, b.id", Object[].class)
+                .setParameter("roomId", roomId)
+                .setParameter("from", candidates.get(0).getStartTime())
+                .setParameter("to", candidates.get(candidates.size() - 1).getEndTime())
+                .getResultList();
+
+        List<RoomOccupancyIndex.Slot> conflicts = new ArrayList<>();
+        for (Object[] row : rows) {
+            LocalDateTime start = (LocalDateTime) row[1];
+            LocalDateTime end = (LocalDateTime) row[2];
+            for (RoomOccupancyIndex.Slot candidate : candidates) {
+                if (candidate.getStartTime().isBefore(end) && candidate.getEndTime().isAfter(start)) {
+                    conflicts.add(new RoomOccupancyIndex.Slot((Long) row[0], start, end));
+                    break;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Occurrences d'une série qui chevauchent [from, to), bornes null pour la série entière ;
+     * la réservation seule s'il ne s'agit pas d'une série
+     */
+    @Transactional
+    public List<Booking> getOccurrences(Long id, LocalDateTime from, LocalDateTime to) {
+        Booking booking = em.find(Booking.class, id);
+        if (booking == null) {
+            return null;
+        }
+        if (booking.getSeriesId() == null) {
+            boolean overlaps = (from == null || booking.getEndTime().isAfter(from)) && (to == null || booking.getStartTime().isBefore(to));
+            return overlaps ? List.of(booking) : Collections.emptyList();
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT b FROM Booking b WHERE b.seriesId = :seriesId");
+        if (from != null) {
+            jpql.append(" AND b.endTime > :from");
+        }
+        if (to != null) {
+            jpql.append(" AND b.startTime < :to");
+        }
+        jpql.append(" ORDER BY b.startTime, b.id");
+        TypedQuery<Booking> query = em.createQuery(jpql.toString(), Booking.class)
+                .setParameter("seriesId", booking.getSeriesId());
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Annule l'occurrence d'une série qui commence le jour donné : sa ligne est supprimée et la date rejoint
+     * les exceptions de la règle. Annuler la première occurrence transmet la règle à la suivante.
+     */
+    @Transactional
+    public Booking cancelOccurrence(Long id, LocalDate date) {
+        Booking booking = em.find(Booking.class, id);
+        if (booking == null) {
+            return null;
+        }
+        if (booking.getSeriesId() == null) {
+            throw new IllegalArgumentException("La réservation " + id + " n'est pas une série récurrente.");
+        }
+
+        List<Booking> members = seriesMembers(booking.getSeriesId());
+        Booking occurrence = null;
+        Booking master = null;
+        for (Booking member : members) {
+            if (member.getStartTime().toLocalDate().equals(date)) {
+                occurrence = member;
+            }
+            if (member.isRecurring()) {
+                master = member;
+            }
+        }
+        if (occurrence == null) {
+            throw new IllegalArgumentException("Le " + date + " n'est pas une occurrence de la série " + booking.getSeriesId() + ".");
+        }
+
+        if (occurrence == master) {
+            master = null;
+            for (Booking member : members) {
+                if (member != occurrence) {
+                    master = member;
+                    master.setRecurrenceIntervalWeeks(occurrence.getRecurrenceIntervalWeeks());
+                    master.setRecurrenceUntil(occurrence.getRecurrenceUntil());
+                    master.getExceptionDates().addAll(occurrence.getExceptionDates());
+                    break;
+                }
+            }
+        }
+        if (master != null) {
+            master.getExceptionDates().add(date);
+        }
+
+        BookingSnapshot removed = BookingSnapshot.of(occurrence);
+        em.remove(occurrence);
+        em.flush();
+        bookingEvents.fire(BookingChangedEvent.deleted(removed));
+        return master;
+    }
+
+    private List<Booking> seriesMembers(Long seriesId) {
+        return em.createQuery(
+                        "SELECT DISTINCT b FROM Booking b LEFT JOIN FETCH b.exceptionDates " +
+                                "WHERE b.seriesId = :seriesId ORDER BY b.startTime, b.id", Booking.class)
+                .setParameter("seriesId", seriesId)
+                .getResultList();
+    }
+
+    /**
+     * Détecte la violation de la contrainte d'exclusion (room_id, period) (migration V2)
+     */
+    private boolean isRoomPeriodViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                        || String.valueOf(sqlException.getMessage()).contains(ROOM_PERIOD_CONSTRAINT)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Crée un lot de réservations en une seule passe : salles, équipements et réservations existantes
+     * sont chargés en trois requêtes, puis les conflits sont détectés par balayage trié par salle.
+     * Chaque élément reçoit un résultat individuel ; seuls les éléments acceptés sont persistés.
+     */
+    public List<BookingBatchResultDTO> createBookings(List<BookingCreateDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Le lot de réservations est vide.");
+        }
+        if (dtos.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Le lot dépasse la taille maximale autorisée (" + batchMaxSize + ").");
+        }
+
+        Set<Long> roomIds = new TreeSet<>();
+        Set<Long> equipmentIds = new TreeSet<>();
+        for (BookingCreateDTO dto : dtos) {
+            if (dto.roomId != null) {
+                roomIds.add(dto.roomId);
+            }
+            if (dto.bookingEquipments != null) {
+                for (var beDto : dto.bookingEquipments) {
+                    if (beDto.equipmentId != null) {
+                        equipmentIds.add(beDto.equipmentId);
+                    }
+                }
+            }
+        }
+
+        return admission.admit(roomIds, equipmentIds, () -> admitBatch(dtos, roomIds, equipmentIds));
+    }
+
+    private List<BookingBatchResultDTO> admitBatch(List<BookingCreateDTO> dtos, Set<Long> roomIds, Set<Long> equipmentIds) {
+        BookingBatchResultDTO[] results = new BookingBatchResultDTO[dtos.size()];
+
+        Map<Long, Room> rooms = new HashMap<>();
+        if (!roomIds.isEmpty()) {
+            for (Room room : em.createQuery("SELECT r FROM Room r WHERE r.id IN :ids", Room.class)
+                    .setParameter("ids", roomIds)
+                    .getResultList()) {
+                rooms.put(room.getId(), room);
+            }
+        }
+
+        Map<Long, Equipment> equipments = new HashMap<>();
+        if (!equipmentIds.isEmpty()) {
+            for (Equipment equipment : em.createQuery("SELECT e FROM Equipment e WHERE e.id IN :ids", Equipment.class)
+                    .setParameter("ids", equipmentIds)
+                    .getResultList()) {
+                equipments.put(equipment.getId(), equipment);
+            }
+        }
+
+        // Validation unitaire et regroupement des candidats par salle
+        Map<Long, List<Integer>> candidatesByRoom = new HashMap<>();
+        LocalDateTime windowStart = null;
+        LocalDateTime windowEnd = null;
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingCreateDTO dto = dtos.get(i);
+            Room room = dto.roomId != null ? rooms.get(dto.roomId) : null;
+            String missingEquipments = missingEquipments(dto, equipments);
+            if (room == null) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.INVALID, "Salle introuvable (ID=" + dto.roomId + ")");
+            } else if (missingEquipments != null) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.INVALID, "Équipement non trouvé (ID=" + missingEquipments + ")");
+            } else if (dto.recurrence != null) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.INVALID, "Les séries récurrentes se créent unitairement.");
+            } else if (dto.startTime == null || dto.endTime == null || !dto.startTime.isBefore(dto.endTime)) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.INVALID, "La date de début doit précéder la date de fin.");
+            } else if (dto.attendees > room.getCapacity()) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.INVALID,
+                        "Nombre de participants (" + dto.attendees + ") > capacité de la salle (" + room.getCapacity() + ").");
+            } else {
+                candidatesByRoom.computeIfAbsent(room.getId(), id -> new ArrayList<>()).add(i);
+                windowStart = windowStart == null || dto.startTime.isBefore(windowStart) ? dto.startTime : windowStart;
+                windowEnd = windowEnd == null || dto.endTime.isAfter(windowEnd) ? dto.endTime : windowEnd;
+            }
+        }
+
+        if (!candidatesByRoom.isEmpty()) {
+            // Réservations existantes des salles concernées sur la fenêtre couverte par le lot, en une requête
+            Map<Long, List<RoomOccupancyIndex.Slot>> existingByRoom = new HashMap<>();
+            List<Object[]> rows = em.createQuery(
+                            "SELECT b.id, b.room.id, b.startTime, b.endTime FROM Booking b " +
+                                    "WHERE b.room.id IN :roomIds AND b.endTime > :start AND b.startTime < :end", Object[].class)
+                    .setParameter("roomIds", candidatesByRoom.keySet())
+                    .setParameter("start", windowStart)
+                    .setParameter("end", windowEnd)
+                    .getResultList();
+            for (Object[] row : rows) {
+                existingByRoom.computeIfAbsent((Long) row[1], id -> new ArrayList<>())
+                        .add(new RoomOccupancyIndex.Slot((Long) row[0], (LocalDateTime) row[2], (LocalDateTime) row[3]));
+            }
+
+            for (List<RoomOccupancyIndex.Slot> slots : existingByRoom.values()) {
+                Collections.sort(slots);
+            }
+
+            for (Map.Entry<Long, List<Integer>> entry : candidatesByRoom.entrySet()) {
+                sweepRoom(dtos, entry.getValue(), existingByRoom.getOrDefault(entry.getKey(), Collections.emptyList()), results);
+            }
+
+            checkBatchEquipmentAvailability(dtos, equipments, results);
+        }
+
+        persistBatch(dtos, rooms, equipments, results);
+        return Arrays.asList(results);
+    }
+
+    // Identifiants demandés par l'élément et absents du catalogue, null si tous existent
+    private static String missingEquipments(BookingCreateDTO dto, Map<Long, Equipment> equipments) {
+        if (dto.bookingEquipments == null) {
+            return null;
+        }
+        Set<Long> missing = new TreeSet<>();
+        for (var beDto : dto.bookingEquipments) {
+            if (beDto.equipmentId != null && !equipments.containsKey(beDto.equipmentId)) {
+                missing.add(beDto.equipmentId);
+            }
+        }
+        return missing.isEmpty() ? null : joinIds(missing);
+    }
+
+    private static String joinIds(Collection<Long> ids) {
+        StringJoiner joined = new StringJoiner(", ");
+        for (Long id : ids) {
+            joined.add(String.valueOf(id));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Balayage d'une salle : les candidats triés par début sont comparés aux réservations existantes
+     * (maximum cumulé des fins, recherche dichotomique) puis au dernier candidat accepté du lot
+     */
+    private void sweepRoom(List<BookingCreateDTO> dtos, List<Integer> candidates,
+                           List<RoomOccupancyIndex.Slot> existing, BookingBatchResultDTO[] results) {
+        int n = existing.size();
+        LocalDateTime[] starts = new LocalDateTime[n];
+        LocalDateTime[] prefixMaxEnd = new LocalDateTime[n];
+        for (int k = 0; k < n; k++) {
+            RoomOccupancyIndex.Slot slot = existing.get(k);
+            starts[k] = slot.getStartTime();
+            prefixMaxEnd[k] = k == 0 || slot.getEndTime().isAfter(prefixMaxEnd[k - 1]) ? slot.getEndTime() : prefixMaxEnd[k - 1];
+        }
+
+        List<Integer> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparing((Integer i) -> dtos.get(i).startTime).thenComparing(i -> i));
+
+        LocalDateTime lastAcceptedEnd = null;
+        int lastAcceptedIndex = -1;
+        for (int i : sorted) {
+            BookingCreateDTO dto = dtos.get(i);
+
+            // Nombre de réservations existantes qui commencent avant la fin du candidat
+            int before = upperBound(starts, dto.endTime);
+            if (before > 0 && prefixMaxEnd[before - 1].isAfter(dto.startTime)) {
+                List<RoomOccupancyIndex.Slot> overlapping = new ArrayList<>();
+                for (int k = 0; k < before; k++) {
+                    if (existing.get(k).getEndTime().isAfter(dto.startTime)) {
+                        overlapping.add(existing.get(k));
+                    }
+                }
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.CONFLICT, roomConflict(overlapping).getMessage());
+                continue;
+            }
+
+            if (lastAcceptedEnd != null && lastAcceptedEnd.isAfter(dto.startTime)) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.CONFLICT,
+                        "Chevauche l'élément " + lastAcceptedIndex + " du lot dans la même salle.");
+                continue;
+            }
+
+            lastAcceptedEnd = dto.endTime;
+            lastAcceptedIndex = i;
+        }
+    }
+
+    private static int upperBound(LocalDateTime[] sortedStarts, LocalDateTime value) {
+        int low = 0;
+        int high = sortedStarts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedStarts[mid].isBefore(value)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Vérifie les quantités d'équipements mobiles du lot sur les réservations relues en base sous verrou,
+     * complétées au fil des éléments acceptés. Chaque équipement est compté sur sa propre fenêtre,
+     * celle de la réservation à défaut, comme les lignes relues en base (COALESCE).
+     */
+    private void checkBatchEquipmentAvailability(List<BookingCreateDTO> dtos, Map<Long, Equipment> equipments,
+                                                 BookingBatchResultDTO[] results) {
+        Set<Long> mobileIds = new HashSet<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingCreateDTO dto = dtos.get(i);
+            if (results[i] != null || dto.bookingEquipments == null) {
+                continue;
+            }
+            for (var beDto : dto.bookingEquipments) {
+                Equipment equipment = equipments.get(beDto.equipmentId);
+                if (equipment == null || !equipment.isMobile()) {
+                    continue;
+                }
+                mobileIds.add(equipment.getId());
+                LocalDateTime beStart = beDto.startTime != null ? beDto.startTime : dto.startTime;
+                LocalDateTime beEnd = beDto.endTime != null ? beDto.endTime : dto.endTime;
+                start = start == null || beStart.isBefore(start) ? beStart : start;
+                end = end == null || beEnd.isAfter(end) ? beEnd : end;
+            }
+        }
+        if (mobileIds.isEmpty()) {
+            return;
+        }
+        Map<Long, EquipmentReservationLedger.Timeline> reservations = lockReservations(mobileIds, start, end, null);
+
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingCreateDTO dto = dtos.get(i);
+            if (results[i] != null || dto.bookingEquipments == null) {
+                continue;
+            }
+
+            String shortage = null;
+            for (var beDto : dto.bookingEquipments) {
+                Equipment equipment = equipments.get(beDto.equipmentId);
+                if (equipment == null || !equipment.isMobile()) {
+                    continue;
+                }
+                int reserved = reservations.get(equipment.getId()).peak(
+                        beDto.startTime != null ? beDto.startTime : dto.startTime,
+                        beDto.endTime != null ? beDto.endTime : dto.endTime);
+                if (reserved + beDto.quantity > equipment.getQuantity()) {
+                    shortage = "Quantité insuffisante pour l'équipement mobile '" + equipment.getName() + "'. " +
+                            "Demandé: " + beDto.quantity + ", Disponible: " + (equipment.getQuantity() - reserved);
+                    break;
+                }
+            }
+
+            if (shortage != null) {
+                results[i] = BookingBatchResultDTO.of(i, BookingBatchResultDTO.CONFLICT, shortage);
+                continue;
+            }
+
+            for (var beDto : dto.bookingEquipments) {
+                Equipment equipment = equipments.get(beDto.equipmentId);
+                if (equipment != null && equipment.isMobile()) {
+                    reservations.get(equipment.getId()).add(
+                            beDto.startTime != null ? beDto.startTime : dto.startTime,
+                            beDto.endTime != null ? beDto.endTime : dto.endTime,
+                            beDto.quantity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Persiste les éléments acceptés ; le contexte de persistance est vidé par paquets pour profiter du batching JDBC
+     */
+    private void persistBatch(List<BookingCreateDTO> dtos, Map<Long, Room> rooms, Map<Long, Equipment> equipments,
+                              BookingBatchResultDTO[] results) {
+        List<BookingChangedEvent> events = new ArrayList<>();
+        List<Booking> pending = new ArrayList<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BookingCreateDTO dto = dtos.get(i);
+
+            Booking booking = new Booking();
+            booking.setTitle(dto.title);
+            booking.setStartTime(dto.startTime);
+            booking.setEndTime(dto.endTime);
+            booking.setAttendees(dto.attendees);
+            booking.setOrganizer(dto.organizer);
+            booking.setRoom(em.getReference(Room.class, rooms.get(dto.roomId).getId()));
+            booking.setBookingEquipments(new ArrayList<>());
+            em.persist(booking);
+
+            if (dto.bookingEquipments != null) {
+                Set<Long> seen = new HashSet<>();
+                for (var beDto : dto.bookingEquipments) {
+                    Equipment equipment = equipments.get(beDto.equipmentId);
+                    if (equipment == null || !seen.add(equipment.getId())) {
+                        continue;
+                    }
                     BookingEquipment be = new BookingEquipment();
-                    be.setEquipment(equipment);
+                    be.setEquipment(em.getReference(Equipment.class, equipment.getId()));
                     be.setQuantity(beDto.quantity);
                     be.setBooking(booking);
                     be.setStartTime(beDto.startTime);
                     be.setEndTime(beDto.endTime);
-
-                    equipmentMap.put(beDto.equipmentId, be);
-
                     booking.getBookingEquipments().add(be);
-
                     em.persist(be);
                 }
             }
 
-            checkEquipmentAvailability(new ArrayList<>(equipmentMap.values()), dto.startTime, dto.endTime);
+            pending.add(booking);
+            pendingIndexes.add(i);
+            if (pending.size() >= batchFlushSize) {
+                flushBatch(pending, pendingIndexes, results, events);
+            }
         }
+        flushBatch(pending, pendingIndexes, results, events);
 
-        em.flush();
-        return booking;
+        for (BookingChangedEvent event : events) {
+            bookingEvents.fire(event);
+        }
+    }
+
+    private void flushBatch(List<Booking> pending, List<Integer> pendingIndexes,
+                            BookingBatchResultDTO[] results, List<BookingChangedEvent> events) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            em.flush();
+        } catch (PersistenceException e) {
+            if (isRoomPeriodViolation(e)) {
+                // Réservation concurrente apparue depuis la vérification : le lot entier est annulé
+                throw new IllegalStateException("Une réservation concurrente est en conflit avec le lot, veuillez le soumettre à nouveau.");
+            }
+            throw e;
+        }
+
+        for (int k = 0; k < pending.size(); k++) {
+            Booking booking = pending.get(k);
+            int index = pendingIndexes.get(k);
+            BookingBatchResultDTO result = BookingBatchResultDTO.of(index, BookingBatchResultDTO.CREATED, null);
+            result.bookingId = booking.getId();
+            results[index] = result;
+            events.add(BookingChangedEvent.created(BookingSnapshot.of(booking)));
+        }
+        em.clear();
+        pending.clear();
+        pendingIndexes.clear();
     }
 
     @Transactional
     public Booking updateBooking(Long id, BookingUpdateDTO dto) {
+        if (dto.startTime != null && dto.endTime != null && dto.startTime.isAfter(dto.endTime)) {
+            throw new IllegalArgumentException("La date de début ne peut pas être après la date de fin.");
+        }
+
         Booking booking = em.find(Booking.class, id);
         if (booking != null) {
+            BookingSnapshot before = BookingSnapshot.of(booking);
             booking.setTitle(dto.title);
             booking.setRoom(em.find(Room.class, dto.roomId));
             booking.setStartTime(dto.startTime);
             booking.setEndTime(dto.endTime);
             booking.setAttendees(dto.attendees);
             booking.setOrganizer(dto.organizer);
+
+            try {
+                em.flush();
+            } catch (PersistenceException e) {
+                if (isRoomPeriodViolation(e) && booking.getRoom() != null) {
+                    List<RoomOccupancyIndex.Slot> conflicts = new ArrayList<>();
+                    for (RoomOccupancyIndex.Slot slot : occupancyIndex.findOverlaps(booking.getRoom().getId(), dto.startTime, dto.endTime)) {
+                        if (!slot.getBookingId().equals(id)) {
+                            conflicts.add(slot);
+                        }
+                    }
+                    throw roomConflict(conflicts);
+                }
+                throw e;
+            }
+            bookingEvents.fire(BookingChangedEvent.updated(before, BookingSnapshot.of(booking)));
         }
 
         return booking;
     }
 
+    /**
+     * Supprime une réservation ; la première occurrence d'une série emporte toute la série,
+     * une autre occurrence est annulée seule
+     */
     @Transactional
     public void deleteBooking(Long id) {
         Booking booking = em.find(Booking.class, id);
-        if (booking != null) {
-            em.remove(booking);
+        if (booking == null) {
+            return;
+        }
+        if (booking.getSeriesId() != null && !booking.isRecurring()) {
+            cancelOccurrence(id, booking.getStartTime().toLocalDate());
+            return;
+        }
+
+        List<Booking> removed = booking.getSeriesId() != null ? seriesMembers(booking.getSeriesId()) : List.of(booking);
+        for (Booking member : removed) {
+            BookingSnapshot before = BookingSnapshot.of(member);
+            em.remove(member);
+            bookingEvents.fire(BookingChangedEvent.deleted(before));
         }
     }
 
@@ -208,26 +971,30 @@ public class BookingService {
                 .getResultList();
     }
 
+    public int resolvePageLimit(Integer requested) {
+        if (requested == null) {
+            return pageDefaultLimit;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("La limite doit être positive.");
+        }
+        return Math.min(requested, pageMaxLimit);
+    }
+
     public List<Map<String, Object>> getAvailableEquipmentsForPeriod(LocalDateTime start, LocalDateTime end) {
         // Récupérer tous les équipements mobiles
+        catalogCache.expireIfDue();
         List<Equipment> allMobileEquipments = em.createQuery(
                         "SELECT e FROM Equipment e WHERE e.mobile = true", Equipment.class)
+                .setHint(CatalogCache.QUERY_CACHEABLE_HINT, true)
                 .getResultList();
 
-        // Récupérer tous les BookingEquipment qui chevauchent l'intervalle
-        List<BookingEquipment> overlappingBookings = em.createQuery(
-                        "SELECT be FROM BookingEquipment be WHERE be.startTime < :end AND be.endTime > :start", BookingEquipment.class)
-                .setParameter("start", start)
-                .setParameter("end", end)
-                .getResultList();
-
-        // Calcul de la quantité réservée
-        Map<Long, Integer> usedQuantities = new HashMap<>();
-        for (BookingEquipment be : overlappingBookings) {
-            Long equipmentId = be.getEquipment().getId();
-            usedQuantities.put(equipmentId,
-                    usedQuantities.getOrDefault(equipmentId, 0) + be.getQuantity());
+        // Pic de quantité réservée simultanément sur l'intervalle, pour tous les équipements en un appel
+        List<Long> equipmentIds = new ArrayList<>();
+        for (Equipment eq : allMobileEquipments) {
+            equipmentIds.add(eq.getId());
         }
+        Map<Long, Integer> usedQuantities = equipmentLedger.peakReserved(equipmentIds, start, end);
 
         // Résultat structuré
         List<Map<String, Object>> result = new ArrayList<>();
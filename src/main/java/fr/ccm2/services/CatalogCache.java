@@ -0,0 +1,138 @@
+package fr.ccm2.services;
+
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.RoomEquipment;
+import fr.ccm2.events.EquipmentChangedEvent;
+import fr.ccm2.events.RoomChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidation explicite et statistiques du cache de second niveau du catalogue (salles, équipements).
+ *
+ * Hibernate met à jour les entités en cache lors de leurs propres écritures, mais pas les collections
+ * dont les éléments sont ajoutés ou supprimés sans passer par la collection (cas de Room.roomEquipments) :
+ * ces données sont évincées explicitement à chaque changement de salle ou d'équipement.
+ *
+ * L'éviction suit le commit (AFTER_SUCCESS) : faite dans la transaction, une lecture concurrente pouvait
+ * remettre en cache l'ancien état entre l'éviction et le commit.
+ *
+ * Les modifications faites par une autre instance ne passent par aucun de ces événements. Les régions Quarkus
+ * n'offrant qu'une expiration par inactivité, l'âge des entrées est borné ici : les lectures du catalogue
+ * appellent expireIfDue, qui vide les régions dès que la génération en cours dépasse
+ * app.catalog.cache.expire-after-write. Aucune tâche planifiée n'intervient.
+ */
+@ApplicationScoped
+public class CatalogCache {
+
+    public static final String ROOM_EQUIPMENTS_ROLE = Room.class.getName() + ".roomEquipments";
+
+    // Requêtes de lecture du catalogue mises en cache
+    public static final String QUERY_CACHEABLE_HINT = "org.hibernate.cacheable";
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // Âge maximal d'une entrée ; zéro : pas d'expiration
+    @ConfigProperty(name = "app.catalog.cache.expire-after-write", defaultValue = "10m")
+    Duration expireAfterWrite;
+
+    // Début de la génération en cours : toute entrée présente y a été écrite
+    private final AtomicLong generationStart = new AtomicLong(System.nanoTime());
+
+    void onRoomChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) RoomChangedEvent event) {
+        evictRoom(event.getRoomId());
+    }
+
+    void onEquipmentChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) EquipmentChangedEvent event) {
+        evictEquipment(event.getEquipmentId());
+    }
+
+    public void evictRoom(Long roomId) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Room.class, roomId);
+        cache.evictCollectionData(ROOM_EQUIPMENTS_ROLE, roomId);
+        cache.evictEntityData(RoomEquipment.class);
+        cache.evictDefaultQueryRegion();
+    }
+
+    public void evictEquipment(Long equipmentId) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Equipment.class, equipmentId);
+        // Une suppression d'équipement peut retirer des éléments de toutes les salles
+        cache.evictCollectionData(ROOM_EQUIPMENTS_ROLE);
+        cache.evictEntityData(RoomEquipment.class);
+        cache.evictDefaultQueryRegion();
+    }
+
+    /**
+     * À appeler avant une lecture du catalogue : vide le cache si sa génération a dépassé l'âge maximal
+     */
+    public void expireIfDue() {
+        if (expireAfterWrite.isZero()) {
+            return;
+        }
+        long start = generationStart.get();
+        long now = System.nanoTime();
+        // Une seule lecture concurrente ouvre la génération suivante et vide le cache
+        if (now - start >= expireAfterWrite.toNanos() && generationStart.compareAndSet(start, now)) {
+            evictAll();
+        }
+    }
+
+    /**
+     * Vide les régions du catalogue et le cache de requêtes
+     */
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Room.class);
+        cache.evictEntityData(Equipment.class);
+        cache.evictEntityData(RoomEquipment.class);
+        cache.evictCollectionData(ROOM_EQUIPMENTS_ROLE);
+        cache.evictDefaultQueryRegion();
+    }
+
+    /**
+     * Taux de succès par région du catalogue et du cache de requêtes
+     */
+    public Map<String, Object> statistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("queryCachePuts", statistics.getQueryCachePutCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("hits", regionStatistics.getHitCount());
+            values.put("misses", regionStatistics.getMissCount());
+            values.put("puts", regionStatistics.getPutCount());
+            values.put("elementsInMemory", regionStatistics.getElementCountInMemory());
+            regions.put(region, values);
+        }
+        result.put("regions", regions);
+        return result;
+    }
+}
@@ -0,0 +1,210 @@
+package fr.ccm2.services;
+
+import fr.ccm2.entities.EmailOutbox;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boîte d'envoi des e-mails : les services enregistrent l'e-mail dans leur transaction (enqueue),
+ * l'envoi SMTP a lieu plus tard, hors de toute transaction et sans retenir de connexion à la base.
+ *
+ * Chaque passage prend un lot de lignes dues (FOR UPDATE SKIP LOCKED, plusieurs instances possibles) et leur pose
+ * un bail, puis les envoie en parallèle sur un nombre borné de threads. Un échec est retenté avec un délai
+ * exponentiel, jusqu'à app.mail.outbox.max-attempts. Livraison au moins une fois : si l'application s'arrête
+ * entre l'envoi et son enregistrement, l'e-mail repart à l'expiration du bail.
+ *
+ * Les lignes envoyées sont supprimées après app.mail.outbox.retention (purgeSent), par lots courts ;
+ * les lignes abandonnées (FAILED) restent pour diagnostic.
+ */
+@ApplicationScoped
+public class EmailOutboxDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(EmailOutboxDispatcher.class);
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    EmailService emailService;
+
+    @ConfigProperty(name = "app.mail.outbox.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "app.mail.outbox.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "app.mail.outbox.max-attempts", defaultValue = "8")
+    int maxAttempts;
+
+    // Délai avant la première nouvelle tentative, doublé à chaque échec
+    @ConfigProperty(name = "app.mail.outbox.backoff", defaultValue = "PT30S")
+    Duration backoff;
+
+    @ConfigProperty(name = "app.mail.outbox.max-backoff", defaultValue = "PT1H")
+    Duration maxBackoff;
+
+    // Durée maximale d'un envoi avant que la ligne ne soit reprise
+    @ConfigProperty(name = "app.mail.outbox.lease", defaultValue = "PT5M")
+    Duration lease;
+
+    // Durée de conservation d'une ligne envoyée
+    @ConfigProperty(name = "app.mail.outbox.retention", defaultValue = "P7D")
+    Duration retention;
+
+    @ConfigProperty(name = "app.mail.outbox.purge-batch-size", defaultValue = "1000")
+    int purgeBatchSize;
+
+    private ExecutorService senders;
+
+    @PostConstruct
+    void start() {
+        senders = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdown();
+    }
+
+    /**
+     * Enregistre un e-mail dans la transaction de l'appelant : il ne part que si celle-ci est validée
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public EmailOutbox enqueue(String recipient, String subject, String body) {
+        return enqueue(recipient, subject, body, null);
+    }
+
+    /**
+     * Variante multipart : partie texte et partie HTML du même message
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public EmailOutbox enqueue(String recipient, String subject, String body, String htmlBody) {
+        EmailOutbox email = new EmailOutbox(recipient, subject, body, htmlBody);
+        em.persist(email);
+        return email;
+    }
+
+    /**
+     * Envoie les e-mails dus, lot par lot ; renvoie le nombre d'e-mails envoyés
+     */
+    public int dispatchDue() {
+        int sent = 0;
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (EmailOutbox email : batch) {
+                results.add(senders.submit(() -> send(email)));
+            }
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        sent++;
+                    }
+                } catch (ExecutionException e) {
+                    LOG.error("Erreur du dispatcher d'e-mails", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return sent;
+                }
+            }
+        } while (batch.size() == batchSize);
+        return sent;
+    }
+
+    /**
+     * Supprime les lignes envoyées depuis plus de app.mail.outbox.retention ; renvoie le nombre de lignes supprimées
+     */
+    public int purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        int deleted;
+        do {
+            // Une transaction par lot : verrous et WAL restent bornés même après un long arrêt de la purge
+            deleted = QuarkusTransaction.requiringNew().call(() -> em.createNativeQuery(
+                            "DELETE FROM email_outbox WHERE id IN (SELECT id FROM email_outbox " +
+                                    "WHERE status = :sent AND sent_at < :cutoff LIMIT :limit)")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace("email_outbox")
+                    .setParameter("sent", EmailOutbox.SENT)
+                    .setParameter("cutoff", cutoff)
+                    .setParameter("limit", purgeBatchSize)
+                    .executeUpdate());
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        if (purged > 0) {
+            LOG.info("E-mails envoyés purgés de la boîte d'envoi: " + purged);
+        }
+        return purged;
+    }
+
+    // Lignes dues prises sous bail dans une transaction courte, validée avant tout envoi
+    private List<EmailOutbox> claimBatch() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            @SuppressWarnings("unchecked")
+            List<EmailOutbox> due = em.createNativeQuery(
+                            "SELECT * FROM email_outbox WHERE status = :pending AND next_attempt_at <= :now " +
+                                    "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", EmailOutbox.class)
+                    .setParameter("pending", EmailOutbox.PENDING)
+                    .setParameter("now", now)
+                    .setParameter("limit", batchSize)
+                    .getResultList();
+            for (EmailOutbox email : due) {
+                email.setAttempts(email.getAttempts() + 1);
+                email.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private boolean send(EmailOutbox email) {
+        try {
+            emailService.sendNotificationEmail(email.getRecipient(), email.getSubject(), email.getBody(), email.getHtmlBody());
+        } catch (RuntimeException e) {
+            recordFailure(email.getId(), e);
+            return false;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            EmailOutbox sent = em.find(EmailOutbox.class, email.getId());
+            sent.setStatus(EmailOutbox.SENT);
+            sent.setSentAt(LocalDateTime.now());
+            sent.setLastError(null);
+        });
+        return true;
+    }
+
+    private void recordFailure(Long id, RuntimeException error) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            EmailOutbox email = em.find(EmailOutbox.class, id);
+            String message = String.valueOf(error.getMessage());
+            email.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutbox.FAILED);
+                LOG.error("Abandon de l'e-mail " + id + " à " + email.getRecipient() + " après " + email.getAttempts() + " tentatives", error);
+                return;
+            }
+            Duration delay = backoff.multipliedBy(1L << Math.min(email.getAttempts() - 1, 20));
+            email.setNextAttemptAt(LocalDateTime.now().plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay));
+            LOG.warn("Échec de l'envoi de l'e-mail " + id + " (tentative " + email.getAttempts() + "), nouvel essai à "
+                    + email.getNextAttemptAt() + ": " + message);
+        });
+    }
+}
@@ -12,8 +12,17 @@ public class EmailService {
     Mailer mailer;
 
     public void sendNotificationEmail(String recipient, String subject, String body) {
-        mailer.send(
-                Mail.withText(recipient, subject, body)
-        );
+        sendNotificationEmail(recipient, subject, body, null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Avec une partie HTML, le message part en multipart/alternative : le client affiche la variante qu'il sait lire
+     */
+    public void sendNotificationEmail(String recipient, String subject, String body, String htmlBody) {
+        Mail mail = Mail.withText(recipient, subject, body);
+        if (htmlBody != null) {
+            mail.setHtml(htmlBody);
+        }
+        mailer.send(mail);
+    }
+}
@@ -0,0 +1,176 @@
+package fr.ccm2.services;
+
+import fr.ccm2.dto.reminder.ReminderEmailDTO;
+import fr.ccm2.entities.Room;
+import fr.ccm2.events.RoomChangedEvent;
+import fr.ccm2.events.RoomSnapshot;
+import io.quarkus.qute.CheckedTemplate;
+import io.quarkus.qute.Engine;
+import io.quarkus.qute.TemplateInstance;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendu des e-mails de rappel et de notification, en texte et en HTML, par des templates Qute typés
+ * (src/main/resources/templates/EmailTemplates), vérifiés à la compilation et analysés une fois au démarrage.
+ *
+ * La partie salle d'un rappel ne dépend que de la salle : elle est rendue une fois par salle à partir de
+ * RoomCatalog, sans accès à la base, puis insérée telle quelle dans chaque rappel. Le fragment est refait
+ * dès que le catalogue porte une nouvelle version de la salle.
+ */
+@ApplicationScoped
+public class EmailTemplates {
+
+    private static final Logger LOG = Logger.getLogger(EmailTemplates.class);
+
+    private static final String PLAN_URL = "https://vite-oc-gregorydhmccm-dev.apps.rm1.0a51.p1.openshiftapps.com/rooms/";
+
+    // Instructions d'accès par bâtiment
+    private static final Map<String, String> BUILDING_ACCESS_INSTRUCTIONS = Map.of(
+            "A", "Accès par l'entrée principale, badge nécessaire après 18h",
+            "B", "Accès côté cafétéria, code d'accès: 3456",
+            "C", "Accès par le parking enseignants, interphone disponible"
+    );
+
+    private static final List<String> TEMPLATE_NAMES = List.of(
+            "advanceRoomText", "advanceRoomHtml", "imminentRoomText", "imminentRoomHtml",
+            "advanceReminderText", "advanceReminderHtml", "imminentReminderText", "imminentReminderHtml",
+            "notificationText", "notificationHtml");
+
+    @Inject
+    Engine engine;
+
+    @Inject
+    RoomCatalog roomCatalog;
+
+    private final Map<Long, RoomFragments> fragments = new ConcurrentHashMap<>();
+
+    @CheckedTemplate
+    static class Templates {
+        static native TemplateInstance advanceRoomText(RoomSnapshot room, List<String> notes);
+        static native TemplateInstance advanceRoomHtml(RoomSnapshot room, List<String> notes);
+        static native TemplateInstance imminentRoomText(RoomSnapshot room, String access, String planUrl);
+        static native TemplateInstance imminentRoomHtml(RoomSnapshot room, String access, String planUrl);
+        static native TemplateInstance advanceReminderText(ReminderEmailDTO reminder, String roomSection);
+        static native TemplateInstance advanceReminderHtml(ReminderEmailDTO reminder, String roomSection);
+        static native TemplateInstance imminentReminderText(ReminderEmailDTO reminder, String roomSection);
+        static native TemplateInstance imminentReminderHtml(ReminderEmailDTO reminder, String roomSection);
+        static native TemplateInstance notificationText(String title, String message);
+        static native TemplateInstance notificationHtml(String title, String message);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        // Analyse anticipée : le premier rappel ne paie pas la lecture des templates
+        for (String name : TEMPLATE_NAMES) {
+            if (engine.getTemplate("EmailTemplates/" + name) == null) {
+                throw new IllegalStateException("Template d'e-mail introuvable: " + name);
+            }
+        }
+        LOG.info("Templates d'e-mail chargés: " + TEMPLATE_NAMES.size());
+    }
+
+    void onRoomChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) RoomChangedEvent event) {
+        fragments.remove(event.getRoomId());
+    }
+
+    /**
+     * Rappel 24h avant : détails de la réservation, de la salle, de ses équipements et consignes
+     */
+    public RenderedEmail advanceReminder(ReminderEmailDTO reminder, Room room) {
+        RoomFragments roomFragments = fragmentsFor(room);
+        return new RenderedEmail(
+                Templates.advanceReminderText(reminder, roomFragments.advanceText).render(),
+                Templates.advanceReminderHtml(reminder, roomFragments.advanceHtml).render());
+    }
+
+    /**
+     * Rappel 1h avant : heure de début et accès à la salle
+     */
+    public RenderedEmail imminentReminder(ReminderEmailDTO reminder, Room room) {
+        RoomFragments roomFragments = fragmentsFor(room);
+        return new RenderedEmail(
+                Templates.imminentReminderText(reminder, roomFragments.imminentText).render(),
+                Templates.imminentReminderHtml(reminder, roomFragments.imminentHtml).render());
+    }
+
+    /**
+     * Notification saisie par un administrateur
+     */
+    public RenderedEmail notification(String title, String message) {
+        return new RenderedEmail(
+                Templates.notificationText(title, message).render(),
+                Templates.notificationHtml(title, message).render());
+    }
+
+    private RoomFragments fragmentsFor(Room room) {
+        RoomSnapshot snapshot = roomCatalog.getRoom(room.getId());
+        if (snapshot == null) {
+            // Salle absente du catalogue (création concurrente) : rendu ponctuel depuis l'entité
+            return new RoomFragments(RoomSnapshot.of(room, room.getRoomEquipments()));
+        }
+        RoomFragments cached = fragments.get(room.getId());
+        if (cached == null || cached.room != snapshot) {
+            cached = new RoomFragments(snapshot);
+            fragments.put(room.getId(), cached);
+        }
+        return cached;
+    }
+
+    private static List<String> safetyNotes(String roomType) {
+        List<String> notes = new ArrayList<>();
+        if (roomType != null) {
+            if (roomType.contains("LAB")) {
+                notes.add("Cette salle est un laboratoire, pensez à respecter les consignes de sécurité");
+                notes.add("L'utilisation des équipements nécessite une formation préalable");
+            } else if (roomType.contains("AMPHI")) {
+                notes.add("Pour utiliser le système audio, contactez l'accueil du bâtiment");
+                notes.add("Les lumières s'éteignent automatiquement après 10 minutes d'inactivité");
+            }
+        }
+        return notes;
+    }
+
+    /**
+     * Parties salle des rappels, rendues une fois pour une version donnée de la salle
+     */
+    private static final class RoomFragments {
+        final RoomSnapshot room;
+        final String advanceText;
+        final String advanceHtml;
+        final String imminentText;
+        final String imminentHtml;
+
+        RoomFragments(RoomSnapshot room) {
+            this.room = room;
+            List<String> notes = safetyNotes(room.getType());
+            String access = room.getBuilding() != null ? BUILDING_ACCESS_INSTRUCTIONS.get(room.getBuilding()) : null;
+            String planUrl = PLAN_URL + room.getId();
+            this.advanceText = Templates.advanceRoomText(room, notes).render().strip();
+            this.advanceHtml = Templates.advanceRoomHtml(room, notes).render().strip();
+            this.imminentText = Templates.imminentRoomText(room, access, planUrl).render().strip();
+            this.imminentHtml = Templates.imminentRoomHtml(room, access, planUrl).render().strip();
+        }
+    }
+
+    /**
+     * Message rendu : partie texte et partie HTML
+     */
+    public static final class RenderedEmail {
+        public final String text;
+        public final String html;
+
+        public RenderedEmail(String text, String html) {
+            this.text = text;
+            this.html = html;
+        }
+    }
+}
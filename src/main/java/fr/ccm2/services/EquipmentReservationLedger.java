@@ -0,0 +1,210 @@
+package fr.ccm2.services;
+
+import fr.ccm2.events.BookingChangedEvent;
+import fr.ccm2.events.BookingSnapshot;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre en mémoire des quantités d'équipements réservées dans le temps.
+ *
+ * Chaque équipement possède une fonction en escalier : à chaque instant de changement est associée
+ * la quantité réservée jusqu'au changement suivant. Le pic sur [début, fin) se lit en O(log n + k),
+ * contrairement à une somme des réservations chevauchantes qui compte aussi celles qui ne se chevauchent pas entre elles.
+ *
+ * Le registre ne sert qu'à refuser tôt une demande manifestement impossible : la décision finale relit les
+ * réservations en base sous verrou de l'équipement (BookingService). Les paliers terminés avant l'historique
+ * conservé sont purgés à chaque modification de l'équipement, et pour tous les équipements par la purge
+ * périodique (evictEnded).
+ */
+@ApplicationScoped
+public class EquipmentReservationLedger {
+
+    private static final Logger LOG = Logger.getLogger(EquipmentReservationLedger.class);
+
+    @Inject
+    EntityManager em;
+
+    // Même fenêtre d'historique que l'index d'occupation des salles
+    @ConfigProperty(name = "app.booking.index.history-days", defaultValue = "7")
+    int historyDays;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        reload();
+    }
+
+    /**
+     * Recharge entièrement le registre depuis la table booking_equipment
+     */
+    @Transactional
+    public void reload() {
+        LocalDateTime since = LocalDateTime.now().minusDays(historyDays);
+        List<Object[]> rows = em.createQuery(
+                        "SELECT be.equipment.id, be.quantity, COALESCE(be.startTime, b.startTime), COALESCE(be.endTime, b.endTime) " +
+                                "FROM BookingEquipment be JOIN be.booking b " +
+                                "WHERE be.equipment IS NOT NULL AND COALESCE(be.endTime, b.endTime) > :since", Object[].class)
+                .setParameter("since", since)
+                .getResultList();
+
+        timelines.clear();
+        for (Object[] row : rows) {
+            add((Long) row[0], (LocalDateTime) row[2], (LocalDateTime) row[3], (Integer) row[1]);
+        }
+        LOG.info("Registre des équipements chargé: " + rows.size() + " réservations sur " + timelines.size() + " équipements");
+    }
+
+    void onBookingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingChangedEvent event) {
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1);
+        }
+    }
+
+    /**
+     * Quantité maximale réservée simultanément sur [start, end) pour un équipement
+     */
+    public int peakReserved(Long equipmentId, LocalDateTime start, LocalDateTime end) {
+        Timeline timeline = timelines.get(equipmentId);
+        return timeline != null ? timeline.peak(start, end) : 0;
+    }
+
+    /**
+     * Pics de réservation sur [start, end) pour plusieurs équipements en un appel (0 si aucune réservation)
+     */
+    public Map<Long, Integer> peakReserved(Collection<Long> equipmentIds, LocalDateTime start, LocalDateTime end) {
+        Map<Long, Integer> peaks = new HashMap<>();
+        for (Long equipmentId : equipmentIds) {
+            peaks.put(equipmentId, peakReserved(equipmentId, start, end));
+        }
+        return peaks;
+    }
+
+    /**
+     * Retire les paliers terminés avant l'historique conservé ; renvoie le nombre de paliers retirés
+     */
+    public int evictEnded() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(historyDays);
+        int evicted = 0;
+        for (Map.Entry<Long, Timeline> entry : timelines.entrySet()) {
+            evicted += entry.getValue().evictBefore(cutoff);
+            // Équipement sans réservation récente : sa fonction est retirée si elle n'a pas été reprise entre-temps
+            timelines.computeIfPresent(entry.getKey(), (id, timeline) -> timeline.isEmpty() ? null : timeline);
+        }
+        return evicted;
+    }
+
+    private void apply(BookingSnapshot snapshot, int sign) {
+        for (BookingSnapshot.EquipmentUse use : snapshot.getEquipmentUses()) {
+            if (use.getStartTime() == null || use.getEndTime() == null) {
+                continue;
+            }
+            add(use.getEquipmentId(), use.getStartTime(), use.getEndTime(), sign * use.getQuantity());
+        }
+    }
+
+    // Ajout sous le verrou de la clé : une purge concurrente ne peut pas retirer la fonction entre-temps.
+    // Les paliers terminés de l'équipement sont purgés au passage : la fonction ne grandit pas sans limite
+    private void add(Long equipmentId, LocalDateTime start, LocalDateTime end, int quantity) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(historyDays);
+        timelines.compute(equipmentId, (id, timeline) -> {
+            Timeline target = timeline != null ? timeline : new Timeline();
+            target.evictBefore(cutoff);
+            target.add(start, end, quantity);
+            return target;
+        });
+    }
+
+    /**
+     * Fonction en escalier : chaque clé porte la quantité réservée jusqu'à la clé suivante
+     */
+    public static final class Timeline {
+        private final TreeMap<LocalDateTime, Integer> levels = new TreeMap<>();
+        // Début de la partie conservée : ce qui précède a été purgé et n'est plus suivi
+        private LocalDateTime horizon;
+
+        public synchronized void add(LocalDateTime start, LocalDateTime end, int quantity) {
+            if (horizon != null && start.isBefore(horizon)) {
+                start = horizon;
+            }
+            if (!start.isBefore(end) || quantity == 0) {
+                return;
+            }
+            split(start);
+            split(end);
+            for (Map.Entry<LocalDateTime, Integer> entry : levels.subMap(start, true, end, false).entrySet()) {
+                entry.setValue(entry.getValue() + quantity);
+            }
+            coalesce(start);
+            coalesce(end);
+        }
+
+        public synchronized int peak(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Integer> floor = levels.floorEntry(start);
+            int peak = floor != null ? floor.getValue() : 0;
+            for (int level : levels.subMap(start, false, end, false).values()) {
+                peak = Math.max(peak, level);
+            }
+            return peak;
+        }
+
+        public synchronized int evictBefore(LocalDateTime cutoff) {
+            if (levels.isEmpty() || !levels.firstKey().isBefore(cutoff)) {
+                horizon = cutoff;
+                return 0;
+            }
+            split(cutoff);
+            NavigableMap<LocalDateTime, Integer> ended = levels.headMap(cutoff, false);
+            int evicted = ended.size();
+            ended.clear();
+            coalesce(cutoff);
+            horizon = cutoff;
+            return evicted;
+        }
+
+        public synchronized boolean isEmpty() {
+            return levels.isEmpty();
+        }
+
+        // Crée un point de rupture à l'instant donné en reprenant le niveau précédent
+        private void split(LocalDateTime at) {
+            if (!levels.containsKey(at)) {
+                Map.Entry<LocalDateTime, Integer> floor = levels.floorEntry(at);
+                levels.put(at, floor != null ? floor.getValue() : 0);
+            }
+        }
+
+        // Supprime un point de rupture devenu inutile (même niveau que le précédent)
+        private void coalesce(LocalDateTime at) {
+            Integer level = levels.get(at);
+            if (level == null) {
+                return;
+            }
+            NavigableMap<LocalDateTime, Integer> before = levels.headMap(at, false);
+            int previous = before.isEmpty() ? 0 : before.lastEntry().getValue();
+            if (previous == level) {
+                levels.remove(at);
+            }
+        }
+    }
+}
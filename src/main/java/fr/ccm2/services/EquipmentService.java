@@ -3,7 +3,9 @@ package fr.ccm2.services;
 import fr.ccm2.dto.equipment.EquipmentCreateDTO;
 import fr.ccm2.dto.equipment.EquipmentUpdateDTO;
 import fr.ccm2.entities.Equipment;
+import fr.ccm2.events.EquipmentChangedEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
@@ -16,11 +18,22 @@ public class EquipmentService {
     @Inject
     EntityManager em;
 
+    // Le cache du catalogue est évincé après le commit (CatalogCache)
+    @Inject
+    Event<EquipmentChangedEvent> equipmentEvents;
+
+    @Inject
+    CatalogCache catalogCache;
+
     public List<Equipment> getAllEquipments() {
-        return em.createQuery("FROM Equipment", Equipment.class).getResultList();
+        catalogCache.expireIfDue();
+        return em.createQuery("FROM Equipment", Equipment.class)
+                .setHint(CatalogCache.QUERY_CACHEABLE_HINT, true)
+                .getResultList();
     }
 
     public Equipment getEquipmentById(Long id) {
+        catalogCache.expireIfDue();
         return em.find(Equipment.class, id);
     }
 
@@ -62,6 +75,7 @@ public class EquipmentService {
             if (dto.imageUrl != null) {
                 equipment.setImageUrl(dto.imageUrl);
             }
+            equipmentEvents.fire(EquipmentChangedEvent.of(id));
         }
         return equipment;
     }
@@ -82,6 +96,7 @@ public class EquipmentService {
         Equipment equipment = em.find(Equipment.class, id);
         if (equipment != null) {
             em.remove(equipment);
+            equipmentEvents.fire(EquipmentChangedEvent.of(id));
         }
     }
 }
@@ -141,6 +141,60 @@ public class KeycloakAdminService {
         }
     }
 
+    /**
+     * Utilisateur actif portant exactement ce nom d'utilisateur, null s'il n'existe pas
+     */
+    public UserDTO findUserByUsername(String username) {
+        try {
+            String token = getValidAdminToken();
+            String authHeader = "Bearer " + token;
+
+            List<KeycloakUserResponse> keycloakUsers = keycloakClient.findUsersByUsername(
+                    adminRealm,
+                    authHeader,
+                    username,
+                    true
+            );
+
+            return keycloakUsers.stream()
+                    .filter(ku -> ku.enabled != null && ku.enabled)
+                    .filter(ku -> username.equals(ku.username))
+                    .findFirst()
+                    .map(this::mapToUserDTO)
+                    .orElse(null);
+
+        } catch (Exception e) {
+            LOGGER.severe("❌ Error finding user in Keycloak: " + e.getMessage());
+            throw new RuntimeException("Failed to find user in Keycloak", e);
+        }
+    }
+
+    /**
+     * Une page d'utilisateurs du realm, actifs et inactifs ; une page incomplète est la dernière
+     */
+    public List<UserDTO> getUsersPage(int first, int max) {
+        try {
+            String token = getValidAdminToken();
+            String authHeader = "Bearer " + token;
+
+            List<KeycloakUserResponse> keycloakUsers = keycloakClient.getUsersPage(
+                    adminRealm,
+                    authHeader,
+                    first,
+                    max,
+                    true
+            );
+
+            return keycloakUsers.stream()
+                    .map(this::mapToUserDTO)
+                    .collect(Collectors.toList());
+
+        } catch (Exception e) {
+            LOGGER.severe("❌ Error fetching users page from Keycloak: " + e.getMessage());
+            throw new RuntimeException("Failed to fetch users from Keycloak", e);
+        }
+    }
+
     private UserDTO mapToUserDTO(KeycloakUserResponse keycloakUser) {
         UserDTO user = new UserDTO();
         user.id = keycloakUser.id;
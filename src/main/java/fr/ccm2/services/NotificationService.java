@@ -5,6 +5,7 @@ import fr.ccm2.dto.reminder.NotificationResponseDTO;
 import fr.ccm2.dto.reminder.NotificationUpdateDTO;
 import fr.ccm2.entities.Booking;
 import fr.ccm2.entities.SentNotification;
+import fr.ccm2.mapper.NotificationMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -12,11 +13,14 @@ import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class NotificationService {
 
+    private static final Set<String> REMINDER_TYPES = Set.of("24h", "1h");
+
     @Inject
     EntityManager em;
 
@@ -24,81 +28,13 @@ public class NotificationService {
     UserService userService;
 
     @Inject
-    EmailService emailService;
-
-    /**
-     * Récupère les notifications d'un utilisateur avec filtrage
-     */
-    public List<NotificationResponseDTO> getUserNotifications(String username, Boolean read, String type, int limit, int offset) {
-        StringBuilder queryBuilder = new StringBuilder(
-                "SELECT n FROM SentNotification n WHERE LOWER(n.booking.organizer) = :username AND n.deleted = false");
-
-        if (read != null) {
-            queryBuilder.append(" AND n.read = :read");
-        }
-
-        if (type != null && !type.isEmpty()) {
-            queryBuilder.append(" AND n.notificationType = :type");
-        }
-
-        queryBuilder.append(" ORDER BY n.sentAt DESC");
-
-        TypedQuery<SentNotification> query = em.createQuery(queryBuilder.toString(), SentNotification.class)
-                .setParameter("username", username.toLowerCase())
-                .setFirstResult(offset)
-                .setMaxResults(limit);
-
-        if (read != null) {
-            query.setParameter("read", read);
-        }
-
-        if (type != null && !type.isEmpty()) {
-            query.setParameter("type", type);
-        }
-
-        List<SentNotification> notifications = query.getResultList();
-        return notifications.stream().map(this::convertToResponseDTO).collect(Collectors.toList());
-    }
-
-    /**
-     * Compte le nombre total de notifications pour un utilisateur
-     */
-    public long countUserNotifications(String username, Boolean read, String type) {
-        StringBuilder queryBuilder = new StringBuilder(
-                "SELECT COUNT(n) FROM SentNotification n WHERE LOWER(n.booking.organizer) = :username AND n.deleted = false");
-
-        if (read != null) {
-            queryBuilder.append(" AND n.read = :read");
-        }
-
-        if (type != null && !type.isEmpty()) {
-            queryBuilder.append(" AND n.notificationType = :type");
-        }
-
-        TypedQuery<Long> countQuery = em.createQuery(queryBuilder.toString(), Long.class)
-                .setParameter("username", username.toLowerCase());
-
-        if (read != null) {
-            countQuery.setParameter("read", read);
-        }
-
-        if (type != null && !type.isEmpty()) {
-            countQuery.setParameter("type", type);
-        }
+    EmailOutboxDispatcher emailOutboxDispatcher;
 
-        return countQuery.getSingleResult();
-    }
+    @Inject
+    EmailTemplates emailTemplates;
 
-    /**
-     * Récupère le nombre de notifications non lues pour un utilisateur
-     */
-    public long getUnreadCount(String username) {
-        return em.createQuery(
-                        "SELECT COUNT(n) FROM SentNotification n WHERE LOWER(n.booking.organizer) = :username AND n.read = false AND n.deleted = false",
-                        Long.class)
-                .setParameter("username", username.toLowerCase())
-                .getSingleResult();
-    }
+    @Inject
+    ReadReplicaRouter readReplicaRouter;
 
     /**
      * Récupère une notification par ID
@@ -122,19 +58,11 @@ public class NotificationService {
      */
     @Transactional
     public int markAllAsRead(String username) {
-        List<SentNotification> notifications = em.createQuery(
-                        "SELECT n FROM SentNotification n WHERE LOWER(n.booking.organizer) = :username AND n.read = false AND n.deleted = false",
-                        SentNotification.class)
-                .setParameter("username", username.toLowerCase())
-                .getResultList();
-
-        int count = 0;
-        for (SentNotification notification : notifications) {
-            notification.setRead(true);
-            em.merge(notification);
-            count++;
-        }
-        return count;
+        return em.createQuery(
+                        "UPDATE SentNotification n SET n.read = true " +
+                                "WHERE n.recipient = :username AND n.read = false AND n.deleted = false")
+                .setParameter("username", SentNotification.normalizeRecipient(username))
+                .executeUpdate();
     }
 
     /**
@@ -174,12 +102,12 @@ public class NotificationService {
         }
 
         if (organizer != null && !organizer.isEmpty()) {
-            queryBuilder.append(" AND LOWER(n.booking.organizer) = :organizer");
+            queryBuilder.append(" AND n.recipient = :organizer");
         }
 
         queryBuilder.append(" ORDER BY n.sentAt DESC");
 
-        TypedQuery<SentNotification> query = em.createQuery(queryBuilder.toString(), SentNotification.class)
+        TypedQuery<SentNotification> query = readReplicaRouter.reader().createQuery(queryBuilder.toString(), SentNotification.class)
                 .setFirstResult(offset)
                 .setMaxResults(limit);
 
@@ -188,7 +116,7 @@ public class NotificationService {
         }
 
         if (organizer != null && !organizer.isEmpty()) {
-            query.setParameter("organizer", organizer.toLowerCase());
+            query.setParameter("organizer", SentNotification.normalizeRecipient(organizer));
         }
 
         List<SentNotification> notifications = query.getResultList();
@@ -206,17 +134,17 @@ public class NotificationService {
         }
 
         if (organizer != null && !organizer.isEmpty()) {
-            countQueryBuilder.append(" AND LOWER(n.booking.organizer) = :organizer");
+            countQueryBuilder.append(" AND n.recipient = :organizer");
         }
 
-        TypedQuery<Long> countQuery = em.createQuery(countQueryBuilder.toString(), Long.class);
+        TypedQuery<Long> countQuery = readReplicaRouter.reader().createQuery(countQueryBuilder.toString(), Long.class);
 
         if (type != null && !type.isEmpty()) {
             countQuery.setParameter("type", type);
         }
 
         if (organizer != null && !organizer.isEmpty()) {
-            countQuery.setParameter("organizer", organizer.toLowerCase());
+            countQuery.setParameter("organizer", SentNotification.normalizeRecipient(organizer));
         }
 
         return countQuery.getSingleResult();
@@ -235,10 +163,11 @@ public class NotificationService {
 
     @Transactional
     public SentNotification createNotificationForUser(String username, NotificationCreateDTO data) {
+        requireManualType(data.notificationType);
         List<Long> bookingIds = em.createQuery(
                         "SELECT b.id FROM Booking b WHERE LOWER(b.organizer) = :username ORDER BY b.startTime DESC",
                         Long.class)
-                .setParameter("username", username.toLowerCase())
+                .setParameter("username", SentNotification.normalizeRecipient(username))
                 .setMaxResults(1)
                 .getResultList();
 
@@ -260,17 +189,17 @@ public class NotificationService {
         // Récupère l'email réel du destinataire depuis Keycloak via UserService
         String recipientEmail = getEmailForUser(username);
         notification.setOrganizerEmail(recipientEmail);
+        notification.setRecipient(SentNotification.normalizeRecipient(username));
 
         notification.setRead(false);
         notification.setDeleted(false);
 
         em.persist(notification);
 
-        // Envoi d'e-mail après la création de la notification
+        // E-mail enregistré avec la notification, envoyé après validation par EmailOutboxDispatcher
         if (recipientEmail != null && !recipientEmail.isEmpty()) {
-            String subject = data.title;
-            String body = data.message;
-            emailService.sendNotificationEmail(recipientEmail, subject, body);
+            EmailTemplates.RenderedEmail body = emailTemplates.notification(data.title, data.message);
+            emailOutboxDispatcher.enqueue(recipientEmail, data.title, body.text, body.html);
         }
 
         return notification;
@@ -281,6 +210,7 @@ public class NotificationService {
      */
     @Transactional
     public SentNotification updateNotification(SentNotification notification, NotificationUpdateDTO updates) {
+        requireManualType(updates.notificationType);
         if (updates.title != null) {
             notification.setTitle(updates.title);
         }
@@ -302,42 +232,18 @@ public class NotificationService {
     }
 
     /**
-     * Convertit une entité SentNotification en NotificationResponseDTO
+     * Les types de rappel sont réservés à ReminderService : un seul par réservation (index unique partiel de V7)
      */
-    public NotificationResponseDTO convertToResponseDTO(SentNotification n) {
-        String title, message;
-
-        if ("24h".equals(n.getNotificationType())) {
-            title = n.getTitle() != null ? n.getTitle() : "Rappel: Votre réservation demain";
-            message = n.getMessage() != null ? n.getMessage() :
-                    "Votre réservation \"" + n.getBooking().getTitle() +
-                            "\" dans la salle " + n.getBooking().getRoom().getName() +
-                            " est prévue demain.";
-        } else if ("1h".equals(n.getNotificationType())) {
-            title = n.getTitle() != null ? n.getTitle() : "⚠️ Votre réservation commence bientôt";
-            message = n.getMessage() != null ? n.getMessage() :
-                    "Votre réservation \"" + n.getBooking().getTitle() +
-                            "\" dans la salle " + n.getBooking().getRoom().getName() +
-                            " commence dans moins d'une heure.";
-        } else {
-            title = n.getTitle();
-            message = n.getMessage();
+    private static void requireManualType(String notificationType) {
+        if (notificationType != null && REMINDER_TYPES.contains(notificationType)) {
+            throw new IllegalArgumentException("Le type '" + notificationType + "' est réservé aux rappels automatiques.");
         }
+    }
 
-        NotificationResponseDTO dto = new NotificationResponseDTO();
-        dto.id = n.getId();
-        dto.bookingId = n.getBooking().getId();
-        dto.bookingTitle = n.getBooking().getTitle();
-        dto.roomName = n.getBooking().getRoom().getName();
-        dto.organizer = n.getBooking().getOrganizer();
-        dto.organizerEmail = n.getOrganizerEmail();
-        dto.notificationType = n.getNotificationType();
-        dto.sentAt = n.getSentAt();
-        dto.title = title;
-        dto.message = message;
-        dto.read = n.isRead();
-        dto.deleted = n.isDeleted();
-
-        return dto;
+    /**
+     * Convertit une entité SentNotification en NotificationResponseDTO
+     */
+    public NotificationResponseDTO convertToResponseDTO(SentNotification n) {
+        return NotificationMapper.toResponse(n);
     }
-}
\ No newline at end of file
+}
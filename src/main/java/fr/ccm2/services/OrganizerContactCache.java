@@ -0,0 +1,177 @@
+package fr.ccm2.services;
+
+import fr.ccm2.dto.user.UserDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache des contacts Keycloak des organisateurs (nom d'utilisateur -> utilisateur actif), pour l'envoi des rappels.
+ *
+ * Les entrées expirent après app.keycloak.contacts.ttl ; un organisateur inconnu ou désactivé est aussi retenu,
+ * plus brièvement (negative-ttl), pour ne pas interroger Keycloak à chaque rappel. Avant un lot de rappels,
+ * prefetch charge tous les organisateurs manquants : quelques recherches exactes s'ils sont peu nombreux,
+ * sinon un parcours du realm par pages, soit quelques appels quel que soit le nombre de réservations.
+ */
+@ApplicationScoped
+public class OrganizerContactCache {
+
+    private static final Logger LOG = Logger.getLogger(OrganizerContactCache.class);
+
+    @Inject
+    KeycloakAdminService keycloakAdminService;
+
+    @ConfigProperty(name = "app.keycloak.contacts.ttl", defaultValue = "PT30M")
+    Duration ttl;
+
+    @ConfigProperty(name = "app.keycloak.contacts.negative-ttl", defaultValue = "PT5M")
+    Duration negativeTtl;
+
+    @ConfigProperty(name = "app.keycloak.contacts.max-size", defaultValue = "1000")
+    int maxSize;
+
+    @ConfigProperty(name = "app.keycloak.contacts.page-size", defaultValue = "100")
+    int pageSize;
+
+    // Au-delà, le préchargement parcourt le realm plutôt que de chercher chaque organisateur
+    @ConfigProperty(name = "app.keycloak.contacts.exact-lookup-limit", defaultValue = "5")
+    int exactLookupLimit;
+
+    private TtlLruCache<String, UserDTO> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new TtlLruCache<>(maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Utilisateur actif de ce nom, null s'il est inconnu ou désactivé
+     */
+    public UserDTO find(String username) {
+        TtlLruCache.Entry<UserDTO> cached = cache.get(username);
+        if (cached != null) {
+            return cached.getValue();
+        }
+        UserDTO user = keycloakAdminService.findUserByUsername(username);
+        remember(username, user);
+        return user;
+    }
+
+    /**
+     * Charge en une fois les organisateurs absents du cache ; en cas d'échec, find les cherchera un par un
+     */
+    public void prefetch(Collection<String> usernames) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (username != null && !username.isEmpty() && cache.get(username) == null) {
+                missing.add(username);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (missing.size() <= exactLookupLimit) {
+                for (String username : missing) {
+                    find(username);
+                }
+                return;
+            }
+
+            int first = 0;
+            int calls = 0;
+            List<UserDTO> page;
+            do {
+                page = keycloakAdminService.getUsersPage(first, pageSize);
+                calls++;
+                for (UserDTO user : page) {
+                    if (user.enabled && missing.remove(user.username)) {
+                        remember(user.username, user);
+                    }
+                }
+                first += pageSize;
+            } while (page.size() == pageSize && !missing.isEmpty());
+
+            // Realm parcouru en entier : les noms restants sont inconnus ou désactivés
+            for (String username : missing) {
+                remember(username, null);
+            }
+            LOG.info("Contacts des organisateurs préchargés en " + calls + " appels Keycloak, " + missing.size() + " inconnus");
+        } catch (RuntimeException e) {
+            LOG.warn("Préchargement des contacts impossible: " + e.getMessage());
+        }
+    }
+
+    private void remember(String username, UserDTO user) {
+        cache.put(username, user, user != null ? ttl : negativeTtl);
+    }
+
+    /**
+     * Cache borné à durée de vie : au-delà de maxSize, l'entrée la moins récemment lue est évincée.
+     * Une valeur null est mise en cache (absence connue) et se distingue d'une entrée manquante ou expirée.
+     */
+    public static final class TtlLruCache<K, V> {
+
+        private final int maxSize;
+        private final LongSupplier clock;
+        private final Map<K, Entry<V>> entries;
+
+        public TtlLruCache(int maxSize, LongSupplier clock) {
+            this.maxSize = maxSize;
+            this.clock = clock;
+            this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > TtlLruCache.this.maxSize;
+                }
+            };
+        }
+
+        /**
+         * Entrée valide pour cette clé, null si absente ou expirée
+         */
+        public synchronized Entry<V> get(K key) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.getAsLong()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+
+        public synchronized void put(K key, V value, Duration ttl) {
+            entries.put(key, new Entry<>(value, clock.getAsLong() + ttl.toMillis()));
+        }
+
+        public synchronized int size() {
+            return entries.size();
+        }
+
+        public static final class Entry<V> {
+            private final V value;
+            private final long expiresAt;
+
+            Entry(V value, long expiresAt) {
+                this.value = value;
+                this.expiresAt = expiresAt;
+            }
+
+            public V getValue() { return value; }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package fr.ccm2.services;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.arc.Arc;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métriques des accès à la base, publiées sur /q/metrics :
+ * - db.pool.wait : histogramme du temps d'obtention d'une connexion JDBC, par méthode de ressource ;
+ * - db.reactive.query : histogramme de la durée des lectures réactives (ReactiveReadService), attente
+ *   d'une connexion du client réactif comprise, par méthode de ressource ;
+ * - db.pool.active / idle / pending / max-size : connexions JDBC utilisées, libres, demandes en attente et taille maximale ;
+ * - db.pool.leaks : connexions détenues au-delà de quarkus.datasource.jdbc.leak-detection-interval.
+ */
+@ApplicationScoped
+public class PoolMetrics {
+
+    public static final String WAIT_TIMER = "db.pool.wait";
+    public static final String REACTIVE_QUERY_TIMER = "db.reactive.query";
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    void registerGauges(@Observes StartupEvent event) {
+        gauge("db.pool.active", "Connexions utilisées", AgroalDataSourceMetrics::activeCount);
+        gauge("db.pool.idle", "Connexions libres", AgroalDataSourceMetrics::availableCount);
+        gauge("db.pool.pending", "Demandes de connexion en attente", AgroalDataSourceMetrics::awaitingCount);
+        gauge("db.pool.leaks", "Fuites de connexion détectées", AgroalDataSourceMetrics::leakDetectionCount);
+        Gauge.builder("db.pool.max-size", dataSource,
+                        ds -> ds.getConfiguration().connectionPoolConfiguration().maxSize())
+                .description("Taille maximale courante du pool")
+                .register(registry);
+    }
+
+    /**
+     * Enregistre une attente de connexion pour la méthode de ressource en cours
+     */
+    public void recordWait(long nanos) {
+        Timer.builder(WAIT_TIMER)
+                .description("Temps d'obtention d'une connexion du pool")
+                .tag("endpoint", currentEndpoint())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Minuteur des lectures réactives de la méthode de ressource en cours, à résoudre avant de quitter son contexte
+     */
+    public Timer reactiveQueryTimer() {
+        return Timer.builder(REACTIVE_QUERY_TIMER)
+                .description("Durée d'une lecture par le client réactif, attente de connexion comprise")
+                .tag("endpoint", currentEndpoint())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    public AgroalDataSourceMetrics poolMetrics() {
+        return dataSource.getMetrics();
+    }
+
+    private void gauge(String name, String description, ToDoubleFunction<AgroalDataSourceMetrics> value) {
+        Gauge.builder(name, dataSource, ds -> value.applyAsDouble(ds.getMetrics()))
+                .description(description)
+                .register(registry);
+    }
+
+    private static String currentEndpoint() {
+        if (!Arc.container().requestContext().isActive()) {
+            return RequestEndpoint.BACKGROUND;
+        }
+        return Arc.container().instance(RequestEndpoint.class).get().getName();
+    }
+}
@@ -0,0 +1,159 @@
+package fr.ccm2.services;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.agroal.api.configuration.AgroalConnectionPoolConfiguration;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ajuste la taille maximale du pool JDBC principal selon l'attente observée, entre deux bornes.
+ *
+ * Le régulateur est mené par les obtentions de connexion elles-mêmes (PoolWaitListener appelle
+ * adjustIfDue), au plus une fois par app.datasource.pool.adaptive.interval : il ne dépend d'aucune
+ * tâche planifiée et reste inactif tant que le pool n'est pas sollicité, ce qui ne change rien à son état.
+ * À chaque passage, l'attente moyenne depuis le passage précédent est calculée à partir des compteurs Agroal.
+ * Au-dessus de la cible, ou si des demandes attendent encore, le pool grandit d'un pas. Après plusieurs
+ * passages calmes où la marge n'a pas servi, il rétrécit d'un pas.
+ *
+ * Les autres pools de l'instance (client réactif, réplique JDBC et réactive si elle est active) ont une taille
+ * fixe. Avec app.datasource.pool.total-max-size, la borne haute est ramenée à ce qui reste du budget de
+ * connexions une fois ces pools comptés : l'instance ne dépasse jamais le nombre de connexions accordé par
+ * le pooler Supabase. Un budget qui ne couvre même pas la taille de départ est refusé au démarrage.
+ */
+@ApplicationScoped
+public class PoolSizeController {
+
+    private static final Logger LOG = Logger.getLogger(PoolSizeController.class);
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "app.datasource.pool.adaptive.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.datasource.pool.adaptive.lower-max-size", defaultValue = "8")
+    int lowerMaxSize;
+
+    @ConfigProperty(name = "app.datasource.pool.adaptive.upper-max-size", defaultValue = "16")
+    int upperMaxSize;
+
+    @ConfigProperty(name = "app.datasource.pool.adaptive.interval", defaultValue = "15s")
+    Duration interval;
+
+    @ConfigProperty(name = "app.datasource.pool.adaptive.target-wait-ms", defaultValue = "20")
+    long targetWaitMs;
+
+    @ConfigProperty(name = "app.datasource.pool.adaptive.step", defaultValue = "2")
+    int step;
+
+    // Passages calmes consécutifs avant de rétrécir
+    @ConfigProperty(name = "app.datasource.pool.adaptive.shrink-after", defaultValue = "20")
+    int shrinkAfter;
+
+    // Connexions accordées à l'instance, tous pools confondus ; 0 : pas de budget commun
+    @ConfigProperty(name = "app.datasource.pool.total-max-size", defaultValue = "0")
+    int totalMaxSize;
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.max-size", defaultValue = "20")
+    int reactiveMaxSize;
+
+    @ConfigProperty(name = "app.read-replica.enabled", defaultValue = "false")
+    boolean replicaEnabled;
+
+    @ConfigProperty(name = "quarkus.datasource.\"replica\".jdbc.max-size", defaultValue = "20")
+    int replicaJdbcMaxSize;
+
+    @ConfigProperty(name = "quarkus.datasource.\"replica\".reactive.max-size", defaultValue = "20")
+    int replicaReactiveMaxSize;
+
+    // Échéance du prochain passage, en nanosecondes
+    private final AtomicLong nextAdjustNanos = new AtomicLong(System.nanoTime());
+
+    private long lastAcquireCount;
+    private long lastBlockingMs;
+    private int quietTicks;
+
+    void checkBudget(@Observes StartupEvent event) {
+        if (totalMaxSize <= 0) {
+            return;
+        }
+        int maxSize = dataSource.getConfiguration().connectionPoolConfiguration().maxSize();
+        int others = otherPoolsMaxSize();
+        if (maxSize > totalMaxSize - others) {
+            throw new IllegalStateException("Budget de connexions insuffisant: " + totalMaxSize
+                    + " pour " + others + " connexions des autres pools et " + maxSize + " du pool JDBC");
+        }
+        LOG.info("Budget de connexions: " + totalMaxSize + ", dont au plus " + upperBound() + " pour le pool JDBC");
+    }
+
+    /**
+     * Borne haute effective du pool JDBC : la borne configurée, dans la limite du budget commun
+     */
+    public int upperBound() {
+        if (totalMaxSize <= 0) {
+            return upperMaxSize;
+        }
+        return Math.min(upperMaxSize, totalMaxSize - otherPoolsMaxSize());
+    }
+
+    private int otherPoolsMaxSize() {
+        return reactiveMaxSize + (replicaEnabled ? replicaJdbcMaxSize + replicaReactiveMaxSize : 0);
+    }
+
+    /**
+     * Passage du régulateur si l'intervalle est écoulé ; un seul appelant concurrent l'exécute
+     */
+    public void adjustIfDue() {
+        if (!enabled) {
+            return;
+        }
+        long due = nextAdjustNanos.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextAdjustNanos.compareAndSet(due, now + interval.toNanos())) {
+            adjust();
+        }
+    }
+
+    /**
+     * Un passage du régulateur ; renvoie la taille maximale retenue
+     */
+    public synchronized int adjust() {
+        AgroalConnectionPoolConfiguration pool = dataSource.getConfiguration().connectionPoolConfiguration();
+        int maxSize = pool.maxSize();
+        if (!enabled) {
+            return maxSize;
+        }
+
+        AgroalDataSourceMetrics metrics = dataSource.getMetrics();
+        long acquireCount = metrics.acquireCount();
+        long blockingMs = metrics.blockingTimeTotal().toMillis();
+        long acquired = acquireCount - lastAcquireCount;
+        long averageWaitMs = acquired > 0 ? (blockingMs - lastBlockingMs) / acquired : 0;
+        lastAcquireCount = acquireCount;
+        lastBlockingMs = blockingMs;
+
+        int target = maxSize;
+        if (averageWaitMs > targetWaitMs || metrics.awaitingCount() > 0) {
+            quietTicks = 0;
+            target = Math.max(maxSize, Math.min(upperBound(), maxSize + step));
+        } else if (metrics.activeCount() <= maxSize - step && ++quietTicks >= shrinkAfter) {
+            quietTicks = 0;
+            target = Math.min(maxSize, Math.max(Math.max(lowerMaxSize, pool.minSize()), maxSize - step));
+        }
+
+        if (target != maxSize) {
+            pool.setMaxSize(target);
+            LOG.info("Taille maximale du pool JDBC: " + maxSize + " -> " + target
+                    + " (attente moyenne " + averageWaitMs + " ms, " + metrics.awaitingCount() + " en attente)");
+        }
+        return target;
+    }
+}
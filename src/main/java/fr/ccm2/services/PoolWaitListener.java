@@ -0,0 +1,25 @@
+package fr.ccm2.services;
+
+import io.quarkus.arc.Arc;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Mesure, pour chaque session Hibernate, le temps d'obtention d'une connexion auprès du pool, puis donne
+ * la main au régulateur de taille du pool (PoolSizeController) quand son intervalle est écoulé.
+ * Instancié par Hibernate à chaque session (hibernate.session.events.auto) : pas d'injection CDI ici.
+ */
+public class PoolWaitListener extends BaseSessionEventListener {
+
+    private long acquisitionStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        Arc.container().instance(PoolMetrics.class).get().recordWait(System.nanoTime() - acquisitionStart);
+        Arc.container().instance(PoolSizeController.class).get().adjustIfDue();
+    }
+}
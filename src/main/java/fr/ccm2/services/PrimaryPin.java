@@ -0,0 +1,21 @@
+package fr.ccm2.services;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Dernière écriture connue du client de la requête courante, en millisecondes, lue dans le cookie
+ * ReadReplicaRouter.PIN_COOKIE. Hors requête HTTP ou sans cookie, elle reste à 0.
+ */
+@RequestScoped
+public class PrimaryPin {
+
+    private long lastWriteMs;
+
+    public long getLastWriteMs() {
+        return lastWriteMs;
+    }
+
+    public void setLastWriteMs(long lastWriteMs) {
+        this.lastWriteMs = lastWriteMs;
+    }
+}
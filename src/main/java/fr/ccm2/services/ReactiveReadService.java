@@ -0,0 +1,240 @@
+package fr.ccm2.services;
+
+import fr.ccm2.dto.booking.BookingResponseDTO;
+import fr.ccm2.dto.booking_equipment.BookingEquipmentResponseDTO;
+import fr.ccm2.dto.reminder.NotificationResponseDTO;
+import fr.ccm2.dto.room.RoomResponseDTO;
+import fr.ccm2.dto.room_equipment.RoomEquipmentResponseDTO;
+import fr.ccm2.entities.SentNotification;
+import fr.ccm2.mapper.BookingMapper;
+import fr.ccm2.mapper.NotificationMapper;
+import fr.ccm2.mapper.RoomMapper;
+import fr.ccm2.utils.KeysetCursor;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemin de lecture non bloquant des listes les plus sollicitées (réservations, boîte de réception),
+ * via le client PostgreSQL réactif : les requêtes ne retiennent ni thread de travail ni connexion JDBC.
+ * C'est la seule implémentation de ces lectures ; le catalogue (salles, équipements) reste sur le chemin JPA
+ * pour profiter du cache de requêtes de second niveau.
+ *
+ * Les lignes alimentent les mappers des DTO ; les lectures complémentaires d'une page partent en parallèle.
+ * Toutes les requêtes d'un appel passent par le même client, celui de la réplique sauf épinglage (ReadReplicaRouter).
+ * Le SQL exécuté est transmis aux ReactiveStatementInspector déclarés, comme le StatementInspector de Hibernate,
+ * et la durée de chaque requête est mesurée (PoolMetrics.REACTIVE_QUERY_TIMER).
+ */
+@ApplicationScoped
+public class ReactiveReadService {
+
+    @Inject
+    ReadReplicaRouter readReplicaRouter;
+
+    @Inject
+    PoolMetrics poolMetrics;
+
+    @Inject
+    Instance<ReactiveStatementInspector> inspectorInstances;
+
+    private List<ReactiveStatementInspector> inspectors;
+
+    @PostConstruct
+    void init() {
+        inspectors = new ArrayList<>();
+        for (ReactiveStatementInspector inspector : inspectorInstances) {
+            inspectors.add(inspector);
+        }
+    }
+
+    /**
+     * Page de réservations chevauchant [from, to), triée par (startTime, id) et reprise après le curseur
+     */
+    public Uni<List<BookingResponseDTO>> findBookingViewsPage(LocalDateTime from, LocalDateTime to, Long roomId,
+                                                              KeysetCursor after, int limit) {
+        Pool client = readReplicaRouter.readerPool();
+        Timer timer = poolMetrics.reactiveQueryTimer();
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.id, b.title, b.start_time, b.end_time, b.attendees, b.organizer, " +
+                        "b.recurrence_interval_weeks, b.recurrence_until, b.series_id, " +
+                        "r.id, r.name, r.capacity, r.image_url, r.building, r.floor, r.type " +
+                        "FROM booking b LEFT JOIN room r ON r.id = b.room_id WHERE TRUE");
+        if (from != null) {
+            sql.append(" AND b.end_time > ").append(bind(params, from));
+        }
+        if (to != null) {
+            sql.append(" AND b.start_time < ").append(bind(params, to));
+        }
+        if (roomId != null) {
+            sql.append(" AND b.room_id = ").append(bind(params, roomId));
+        }
+        if (after != null) {
+            String afterStart = bind(params, after.getStartTime());
+            sql.append(" AND (b.start_time > ").append(afterStart)
+                    .append(" OR (b.start_time = ").append(afterStart)
+                    .append(" AND b.id > ").append(bind(params, after.getId())).append("))");
+        }
+        sql.append(" ORDER BY b.start_time, b.id LIMIT ").append(bind(params, (long) limit));
+
+        return query(client, timer, sql.toString(), Tuple.from(params)).flatMap(rows -> {
+            List<BookingResponseDTO> page = new ArrayList<>();
+            Map<Long, BookingResponseDTO> byId = new HashMap<>();
+            Map<Long, List<RoomResponseDTO>> roomsById = new HashMap<>();
+            List<Long> seriesIds = new ArrayList<>();
+            for (Object[] row : rows) {
+                BookingResponseDTO dto = BookingMapper.fromRow(row);
+                page.add(dto);
+                byId.put(dto.id, dto);
+                if (dto.room != null) {
+                    roomsById.computeIfAbsent(dto.room.id, id -> new ArrayList<>()).add(dto.room);
+                }
+                if (dto.recurrence != null) {
+                    seriesIds.add(dto.id);
+                }
+            }
+            if (page.isEmpty()) {
+                return Uni.createFrom().item(page);
+            }
+
+            // Chaque lecture complète des listes distinctes : elles peuvent se terminer dans n'importe quel ordre
+            Uni<Void> bookingEquipments = query(client, timer,
+                    "SELECT be.id, be.booking_id, be.quantity, be.start_time, be.end_time, " +
+                            "e.id, e.name, e.description, e.quantity, e.mobile, e.image_url " +
+                            "FROM booking_equipment be JOIN equipment e ON e.id = be.equipment_id " +
+                            "WHERE be.booking_id = ANY($1)", Tuple.of(ids(byId.keySet())))
+                    .invoke(equipmentRows -> {
+                        for (Object[] row : equipmentRows) {
+                            BookingEquipmentResponseDTO be = BookingMapper.bookingEquipmentFromRow(row);
+                            byId.get(be.bookingId).bookingEquipments.add(be);
+                        }
+                    })
+                    .replaceWithVoid();
+
+            Uni<Void> roomEquipments = roomsById.isEmpty() ? Uni.createFrom().voidItem() : query(client, timer,
+                    "SELECT re.id, re.room_id, re.equipment_id, re.quantity FROM room_equipment re " +
+                            "WHERE re.room_id = ANY($1)", Tuple.of(ids(roomsById.keySet())))
+                    .invoke(equipmentRows -> {
+                        for (Object[] row : equipmentRows) {
+                            RoomEquipmentResponseDTO re = RoomMapper.roomEquipmentFromRow(row);
+                            for (RoomResponseDTO room : roomsById.get(re.roomId)) {
+                                room.roomEquipments.add(re);
+                            }
+                        }
+                    })
+                    .replaceWithVoid();
+
+            Uni<Void> exceptionDates = seriesIds.isEmpty() ? Uni.createFrom().voidItem() : query(client, timer,
+                    "SELECT booking_id, exception_date FROM booking_exception_date " +
+                            "WHERE booking_id = ANY($1) ORDER BY exception_date", Tuple.of(ids(seriesIds)))
+                    .invoke(dateRows -> {
+                        for (Object[] row : dateRows) {
+                            byId.get((Long) row[0]).recurrence.exceptionDates.add((LocalDate) row[1]);
+                        }
+                    })
+                    .replaceWithVoid();
+
+            return Uni.combine().all().unis(bookingEquipments, roomEquipments, exceptionDates)
+                    .discardItems()
+                    .replaceWith(page);
+        });
+    }
+
+    /**
+     * Boîte de réception d'un utilisateur, triée de la plus récente à la plus ancienne
+     */
+    public Uni<List<NotificationResponseDTO>> getUserNotifications(String username, Boolean read, String type,
+                                                                   int limit, int offset) {
+        Pool client = readReplicaRouter.readerPool();
+        Timer timer = poolMetrics.reactiveQueryTimer();
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT n.id, n.booking_id, b.title, r.name, b.organizer, n.organizer_email, n.notification_type, " +
+                        "n.sent_at, n.title, n.message, n.read_status, n.deleted " +
+                        "FROM sent_notifications n LEFT JOIN booking b ON b.id = n.booking_id " +
+                        "LEFT JOIN room r ON r.id = b.room_id");
+        appendInboxFilter(sql, params, username, read, type);
+        sql.append(" ORDER BY n.sent_at DESC LIMIT ").append(bind(params, (long) limit))
+                .append(" OFFSET ").append(bind(params, (long) offset));
+
+        return query(client, timer, sql.toString(), Tuple.from(params)).map(rows -> {
+            List<NotificationResponseDTO> notifications = new ArrayList<>();
+            for (Object[] row : rows) {
+                notifications.add(NotificationMapper.fromRow(row));
+            }
+            return notifications;
+        });
+    }
+
+    public Uni<Long> countUserNotifications(String username, Boolean read, String type) {
+        Pool client = readReplicaRouter.readerPool();
+        Timer timer = poolMetrics.reactiveQueryTimer();
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM sent_notifications n");
+        appendInboxFilter(sql, params, username, read, type);
+        return query(client, timer, sql.toString(), Tuple.from(params)).map(rows -> (Long) rows.get(0)[0]);
+    }
+
+    // Filtre de NotificationService : destinataire, non supprimée, puis lu / type si précisés
+    private static void appendInboxFilter(StringBuilder sql, List<Object> params, String username, Boolean read, String type) {
+        sql.append(" WHERE n.recipient = ").append(bind(params, SentNotification.normalizeRecipient(username)))
+                .append(" AND n.deleted = false");
+        if (read != null) {
+            sql.append(" AND n.read_status = ").append(bind(params, read));
+        }
+        if (type != null && !type.isEmpty()) {
+            sql.append(" AND n.notification_type = ").append(bind(params, type));
+        }
+    }
+
+    private Uni<List<Object[]>> query(Pool client, Timer timer, String sql, Tuple params) {
+        for (ReactiveStatementInspector inspector : inspectors) {
+            inspector.inspect(sql);
+        }
+        long[] startNanos = new long[1];
+        return client.preparedQuery(sql)
+                .execute(params)
+                .onSubscription().invoke(subscription -> startNanos[0] = System.nanoTime())
+                .onTermination().invoke(() -> timer.record(System.nanoTime() - startNanos[0], TimeUnit.NANOSECONDS))
+                .map(ReactiveReadService::toArrays);
+    }
+
+    // Ligne convertie dans la forme des projections JPQL (Long, Integer, String, LocalDateTime...) lue par les mappers
+    private static List<Object[]> toArrays(RowSet<Row> rows) {
+        List<Object[]> result = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Object[] values = new Object[row.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row.getValue(i);
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private static String bind(List<Object> params, Object value) {
+        params.add(value);
+        return "$" + params.size();
+    }
+
+    // Liaison d'un tableau pour = ANY($1)
+    private static Object ids(Collection<Long> ids) {
+        return ids.toArray(new Long[0]);
+    }
+}
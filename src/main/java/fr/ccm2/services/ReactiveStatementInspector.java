@@ -0,0 +1,10 @@
+package fr.ccm2.services;
+
+/**
+ * Observateur du SQL envoyé par ReactiveReadService, pendant du StatementInspector de Hibernate pour le client
+ * réactif. Tout bean qui l'implémente reçoit chaque requête avant son exécution (tests de plans et de comptage).
+ */
+public interface ReactiveStatementInspector {
+
+    void inspect(String sql);
+}
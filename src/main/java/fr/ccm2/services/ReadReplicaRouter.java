@@ -0,0 +1,98 @@
+package fr.ccm2.services;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnit;
+import io.quarkus.reactive.datasource.ReactiveDataSource;
+import io.vertx.mutiny.sqlclient.Pool;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+/**
+ * Aiguillage des lectures entre la base principale et la réplique en lecture.
+ *
+ * Les listes peuvent être servies par la réplique ; les écritures restent toujours sur la base principale.
+ * Un client qui vient d'écrire est épinglé sur la base principale pendant app.read-replica.primary-pin-ms,
+ * le temps que la réplique rattrape son retard : il relit ainsi immédiatement ses propres modifications.
+ * L'heure de sa dernière écriture voyage dans le cookie PIN_COOKIE et l'en-tête PIN_HEADER (PrimaryPinFilter) :
+ * l'épinglage suit le client quelle que soit l'instance qui sert sa requête suivante. L'en-tête couvre le front
+ * servi depuis une autre origine, dont les appels fetch ne renvoient pas les cookies de l'API.
+ * Le compteur de la boîte de réception relu juste après un marquage comme lu l'est ainsi sur la base principale.
+ * Sans réplique configurée (app.read-replica.enabled=false), tout est lu sur la base principale.
+ */
+@ApplicationScoped
+public class ReadReplicaRouter {
+
+    public static final String REPLICA = "replica";
+    public static final String PIN_COOKIE = "primary-pin";
+    public static final String PIN_HEADER = "X-Primary-Pin";
+
+    @ConfigProperty(name = "app.read-replica.enabled", defaultValue = "false")
+    boolean replicaEnabled;
+
+    @ConfigProperty(name = "app.read-replica.primary-pin-ms", defaultValue = "5000")
+    long primaryPinMs;
+
+    @Inject
+    EntityManager primary;
+
+    @Inject
+    @PersistenceUnit(REPLICA)
+    Instance<EntityManager> replica;
+
+    @Inject
+    Pool primaryPool;
+
+    @Inject
+    @ReactiveDataSource(REPLICA)
+    Instance<Pool> replicaPool;
+
+    @Inject
+    Instance<PrimaryPin> primaryPin;
+
+    /**
+     * Gestionnaire d'entités des lectures du client courant. Côté réplique, la session est en lecture seule.
+     */
+    public EntityManager reader() {
+        if (!readsFromReplica()) {
+            return primary;
+        }
+        EntityManager em = replica.get();
+        Session session = em.unwrap(Session.class);
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return em;
+    }
+
+    /**
+     * Client réactif des lectures du client courant
+     */
+    public Pool readerPool() {
+        return readsFromReplica() ? replicaPool.get() : primaryPool;
+    }
+
+    public boolean isReplicaEnabled() {
+        return replicaEnabled;
+    }
+
+    public long getPrimaryPinMs() {
+        return primaryPinMs;
+    }
+
+    // Hors requête HTTP (tâches planifiées), il n'y a pas de client à épingler
+    public boolean isPinnedToPrimary() {
+        if (!Arc.container().requestContext().isActive()) {
+            return false;
+        }
+        long lastWriteMs = primaryPin.get().getLastWriteMs();
+        return lastWriteMs > 0 && System.currentTimeMillis() - lastWriteMs < primaryPinMs;
+    }
+
+    private boolean readsFromReplica() {
+        return replicaEnabled && !isPinnedToPrimary();
+    }
+}
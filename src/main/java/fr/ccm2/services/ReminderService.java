@@ -1,24 +1,25 @@
 package fr.ccm2.services;
 
+import fr.ccm2.dto.reminder.ReminderEmailDTO;
 import fr.ccm2.dto.user.UserDTO;
 import fr.ccm2.entities.Booking;
 import fr.ccm2.entities.Room;
 import fr.ccm2.entities.SentNotification;
-import io.quarkus.mailer.Mail;
-import io.quarkus.mailer.Mailer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.TypedQuery;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ReminderService {
@@ -31,10 +32,13 @@ public class ReminderService {
     EntityManager em;
 
     @Inject
-    Mailer mailer;
+    EmailOutboxDispatcher emailOutboxDispatcher;
 
     @Inject
-    KeycloakAdminService keycloakAdminService;
+    OrganizerContactCache organizerContactCache;
+
+    @Inject
+    EmailTemplates emailTemplates;
 
     @Inject
     UserService userService;
@@ -45,19 +49,13 @@ public class ReminderService {
     @ConfigProperty(name = "app.mail.test.recipient")
     String testEmailRecipient;
 
-    // Instructions d'accès par bâtiment
-    private final Map<String, String> buildingAccessInstructions = Map.of(
-            "A", "Accès par l'entrée principale, badge nécessaire après 18h",
-            "B", "Accès côté cafétéria, code d'accès: 3456",
-            "C", "Accès par le parking enseignants, interphone disponible"
-    );
-
     /**
      * Envoie des rappels pour les réservations à venir selon le type spécifié
      * @param reminderType Type de rappel: "24h" ou "1h"
-     * @return Nombre de notifications envoyées
+     * Les lectures et les appels à Keycloak se font hors transaction : seuls l'enregistrement de chaque rappel
+     * et de son email occupent brièvement une connexion, l'envoi SMTP est fait par EmailOutboxDispatcher.
+     * @return Nombre de notifications mises en file
      */
-    @Transactional
     public int sendContextualReminders(String reminderType) {
         LOG.info("Envoi des rappels de type: " + reminderType);
 
@@ -78,79 +76,22 @@ public class ReminderService {
             return 0;
         }
 
-        // Trouver les réservations à venir dans la fenêtre temporelle
-        List<Booking> bookings = em.createQuery(
-                        "FROM Booking b WHERE b.startTime BETWEEN :start AND :end",
-                        Booking.class)
-                .setParameter("start", start)
-                .setParameter("end", end)
-                .getResultList();
-
-        LOG.info("Trouvé " + bookings.size() + " réservations pour rappel de type " + reminderType);
-
-        // Filtrer les réservations pour lesquelles une notification a déjà été envoyée
-        List<Booking> bookingsToNotify = filterAlreadyNotified(bookings, reminderType);
-        LOG.info("Après filtrage des notifications déjà envoyées: " + bookingsToNotify.size() + " réservations à notifier");
+        List<Booking> bookingsToNotify = findBookingsToNotify(start, end, reminderType);
 
         if (testModeEnabled) {
             LOG.info("Mode test activé: tous les emails seront envoyés à " + testEmailRecipient);
         }
 
+        List<String> organizers = new ArrayList<>();
+        for (Booking booking : bookingsToNotify) {
+            organizers.add(booking.getOrganizer());
+        }
+        organizerContactCache.prefetch(organizers);
+
         int sent = 0;
         for (Booking booking : bookingsToNotify) {
-            try {
-                String organizerUsername = booking.getOrganizer();
-                if (organizerUsername == null || organizerUsername.isEmpty()) {
-                    LOG.warn("Organisateur manquant pour la réservation " + booking.getId());
-                    continue;
-                }
-
-                // Trouver l'utilisateur via la recherche keycloak
-                List<UserDTO> users = keycloakAdminService.searchUsers(organizerUsername);
-                UserDTO organizer = null;
-                for (UserDTO user : users) {
-                    if (user.username.equals(organizerUsername)) {
-                        organizer = user;
-                        break;
-                    }
-                }
-
-                if (organizer == null || organizer.email == null || organizer.email.isEmpty()) {
-                    LOG.warn("Email manquant pour l'organisateur: " + organizerUsername);
-                    continue;
-                }
-
-                // En mode test, on garde l'email original pour les logs, mais on envoie à l'email de test
-                String originalEmail = organizer.email;
-                String emailToUse = testModeEnabled ? testEmailRecipient : originalEmail;
-                String fullName = organizer.displayName != null ? organizer.displayName : organizerUsername;
-
-                Room room = booking.getRoom();
-
-                // Préparer l'email selon le type de rappel
-                String subject, content;
-                if ("24h".equals(reminderType)) {
-                    subject = "Rappel: Votre réservation de salle demain";
-                    content = buildAdvanceReminderEmail(booking, room, fullName, organizerUsername, originalEmail);
-                } else {
-                    subject = "⚠️ Votre réservation commence bientôt";
-                    content = buildImminentReminderEmail(booking, room, fullName, organizerUsername, originalEmail);
-                }
-
-                // Envoyer l'email à l'adresse déterminée
-                mailer.send(Mail.withText(emailToUse, subject, content));
-
-                // Enregistrer la notification comme envoyée (avec l'email original)
-                SentNotification notification = new SentNotification(booking, reminderType, originalEmail);
-                em.persist(notification);
-
-                LOG.info("Email " + reminderType + " envoyé à " +
-                        (testModeEnabled ? testEmailRecipient + " (destinataire original: " + originalEmail + ")" : originalEmail) +
-                        " pour la réservation " + booking.getId());
+            if (sendReminder(booking, reminderType)) {
                 sent++;
-
-            } catch (Exception e) {
-                LOG.error("Erreur lors de l'envoi du rappel pour la réservation " + booking.getId(), e);
             }
         }
 
@@ -158,124 +99,166 @@ public class ReminderService {
         return sent;
     }
 
-    // Autres méthodes restent inchangées...
-
     /**
-     * Génère le contenu de l'email pour un rappel 24h avant
+     * Envoie le rappel d'une réservation à l'échéance fixée par ReminderTimerWheel.
+     * Le rappel est abandonné si la réservation a été supprimée, déplacée depuis la programmation du minuteur
+     * ou déjà notifiée : la réconciliation périodique reprogramme alors la bonne échéance.
+     * @return true si le rappel a été mis en file
      */
-    private String buildAdvanceReminderEmail(Booking booking, Room room, String organizerName, String username, String email) {
-        StringBuilder body = new StringBuilder();
-
-        body.append("Bonjour ").append(organizerName).append(",\n\n");
-        body.append("Nous vous rappelons votre réservation pour demain:\n\n");
-        body.append("Titre: ").append(booking.getTitle()).append("\n");
-        body.append("Salle: ").append(room.getName()).append("\n");
-        body.append("Bâtiment: ").append(room.getBuilding()).append("\n");
-        body.append("Étage: ").append(room.getFloor()).append("\n");
-        body.append("Date: ").append(booking.getStartTime().format(DATE_TIME_FORMATTER)).append("\n");
-        body.append("Durée: ").append(ChronoUnit.MINUTES.between(booking.getStartTime(), booking.getEndTime())).append(" minutes\n");
-
-        if (booking.getAttendees() != null) {
-            body.append("Participants: ").append(booking.getAttendees()).append("\n\n");
+    public boolean sendReminder(Long bookingId, String reminderType, LocalDateTime expectedStart) {
+        List<Booking> bookings = em.createQuery(
+                        "SELECT b FROM Booking b LEFT JOIN FETCH b.room " +
+                                "WHERE b.id = :id AND b.startTime = :start " +
+                                "AND NOT EXISTS (SELECT 1 FROM SentNotification n " +
+                                "WHERE n.booking = b AND n.notificationType = :type)",
+                        Booking.class)
+                .setParameter("id", bookingId)
+                .setParameter("start", expectedStart)
+                .setParameter("type", reminderType)
+                .getResultList();
+        if (bookings.isEmpty()) {
+            LOG.info("Rappel " + reminderType + " sans objet pour la réservation " + bookingId);
+            return false;
         }
+        return sendReminder(bookings.get(0), reminderType);
+    }
 
-        // Utiliser getRoomEquipments() au lieu de getEquipments()
-        if (room.getRoomEquipments() != null && !room.getRoomEquipments().isEmpty()) {
-            body.append("Équipements disponibles dans la salle:\n");
-            room.getRoomEquipments().forEach(roomEquipment ->
-                    body.append("- ").append(roomEquipment.getEquipment().getName()).append("\n")
-            );
-            body.append("\n");
-        }
+    private boolean sendReminder(Booking booking, String reminderType) {
+        try {
+            String organizerUsername = booking.getOrganizer();
+            if (organizerUsername == null || organizerUsername.isEmpty()) {
+                LOG.warn("Organisateur manquant pour la réservation " + booking.getId());
+                return false;
+            }
 
-        // Instructions spécifiques selon le type de salle
-        body.append("Informations importantes:\n");
-        String roomType = room.getType();
-        if (roomType != null) {
-            if (roomType.contains("LAB")) {
-                body.append("- Cette salle est un laboratoire, pensez à respecter les consignes de sécurité\n");
-                body.append("- L'utilisation des équipements nécessite une formation préalable\n");
-            } else if (roomType.contains("AMPHI")) {
-                body.append("- Pour utiliser le système audio, contactez l'accueil du bâtiment\n");
-                body.append("- Les lumières s'éteignent automatiquement après 10 minutes d'inactivité\n");
+            // Contact de l'organisateur, Keycloak n'est interrogé qu'en l'absence d'entrée en cache
+            UserDTO organizer = organizerContactCache.find(organizerUsername);
+
+            if (organizer == null || organizer.email == null || organizer.email.isEmpty()) {
+                LOG.warn("Email manquant pour l'organisateur: " + organizerUsername);
+                return false;
             }
-        }
 
-        body.append("\nPour annuler ou modifier votre réservation, connectez-vous à l'application.\n\n");
-        body.append("Cordialement,\nLe service de réservation");
+            // En mode test, on garde l'email original pour les logs, mais on envoie à l'email de test
+            String originalEmail = organizer.email;
+            String emailToUse = testModeEnabled ? testEmailRecipient : originalEmail;
+            String fullName = organizer.displayName != null ? organizer.displayName : organizerUsername;
+
+            Room room = booking.getRoom();
+            ReminderEmailDTO reminder = toReminderEmail(booking, fullName, organizerUsername, originalEmail);
+
+            // Préparer l'email selon le type de rappel
+            String subject;
+            EmailTemplates.RenderedEmail content;
+            if ("24h".equals(reminderType)) {
+                subject = "Rappel: Votre réservation de salle demain";
+                content = emailTemplates.advanceReminder(reminder, room);
+            } else {
+                subject = "⚠️ Votre réservation commence bientôt";
+                content = emailTemplates.imminentReminder(reminder, room);
+            }
 
-        // Information de déboggage en mode test
-        if (testModeEnabled) {
-            body.append("\n\n--------------------------------------\n");
-            body.append("INFORMATION MODE TEST: Ce message était destiné à:\n");
-            body.append("Utilisateur: ").append(username).append("\n");
-            body.append("Email: ").append(email).append("\n");
-            body.append("--------------------------------------");
-        }
+            // Enregistrer la notification (avec l'email original) et l'email à envoyer à l'adresse déterminée :
+            // un passage concurrent qui l'a déjà enregistrée s'en est chargé
+            if (!claimReminder(booking, reminderType, originalEmail, emailToUse, subject, content)) {
+                LOG.info("Rappel " + reminderType + " déjà pris en charge pour la réservation " + booking.getId());
+                return false;
+            }
 
-        return body.toString();
+            LOG.info("Email " + reminderType + " mis en file pour " +
+                    (testModeEnabled ? testEmailRecipient + " (destinataire original: " + originalEmail + ")" : originalEmail) +
+                    " pour la réservation " + booking.getId());
+            return true;
+
+        } catch (Exception e) {
+            LOG.error("Erreur lors de l'envoi du rappel pour la réservation " + booking.getId(), e);
+            return false;
+        }
     }
 
+    // Autres méthodes restent inchangées...
+
     /**
-     * Génère le contenu de l'email pour un rappel 1h avant
+     * Données de la réservation pour les templates de rappel ; le destinataire d'origine n'est renseigné qu'en mode test
      */
-    private String buildImminentReminderEmail(Booking booking, Room room, String organizerName, String username, String email) {
-        String buildingCode = room.getBuilding();
-        StringBuilder body = new StringBuilder();
-
-        body.append("Bonjour ").append(organizerName).append(",\n\n");
-        body.append("Votre réservation commence bientôt!\n\n");
-        body.append("Titre: ").append(booking.getTitle()).append("\n");
-        body.append("Salle: ").append(room.getName()).append("\n");
-        body.append("Heure de début: ").append(booking.getStartTime().format(TIME_FORMATTER)).append("\n\n");
-
-        // Instructions d'accès
-        body.append("Comment y accéder:\n");
-        body.append("Bâtiment: ").append(buildingCode).append("\n");
-        body.append("Étage: ").append(room.getFloor()).append("\n");
-
-        // Instructions spécifiques au bâtiment
-        if (buildingAccessInstructions.containsKey(buildingCode)) {
-            body.append("Instructions d'accès: ").append(buildingAccessInstructions.get(buildingCode)).append("\n");
+    private ReminderEmailDTO toReminderEmail(Booking booking, String organizerName, String username, String email) {
+        ReminderEmailDTO reminder = new ReminderEmailDTO();
+        reminder.organizerName = organizerName;
+        reminder.title = booking.getTitle();
+        reminder.date = booking.getStartTime().format(DATE_TIME_FORMATTER);
+        reminder.startTime = booking.getStartTime().format(TIME_FORMATTER);
+        reminder.durationMinutes = ChronoUnit.MINUTES.between(booking.getStartTime(), booking.getEndTime());
+        reminder.attendees = booking.getAttendees();
+        if (testModeEnabled) {
+            reminder.testUsername = username;
+            reminder.testEmail = email;
         }
+        return reminder;
+    }
 
-        // Lien vers le plan (adapté à votre application)
-        body.append("\nPlan d'accès: https://vite-oc-gregorydhmccm-dev.apps.rm1.0a51.p1.openshiftapps.com/rooms/").append(room.getId()).append("\n\n");
-
-        // Coordonnées en cas de problème
-        body.append("En cas de problème d'accès, contactez:\n");
-        body.append("- Service de réservation: 01 23 45 67 89\n\n");
-
-        body.append("Bonne séance!\n");
-        body.append("Le service de réservation");
+    /**
+     * Réservations commençant dans [start, end] pour lesquelles aucun rappel de ce type n'a encore été envoyé.
+     * Les réservations déjà notifiées sont écartées par la requête elle-même (anti-jointure), en un seul aller-retour.
+     */
+    public List<Booking> findBookingsToNotify(LocalDateTime start, LocalDateTime end, String reminderType) {
+        return findBookingsToNotify(start, end, reminderType, null, 0);
+    }
 
-        // Information de déboggage en mode test
-        if (testModeEnabled) {
-            body.append("\n\n--------------------------------------\n");
-            body.append("INFORMATION MODE TEST: Ce message était destiné à:\n");
-            body.append("Utilisateur: ").append(username).append("\n");
-            body.append("Email: ").append(email).append("\n");
-            body.append("--------------------------------------");
+    /**
+     * Même recherche restreinte aux réservations des shards donnés (MOD(id, shardCount)) ; shards null pour toutes
+     */
+    public List<Booking> findBookingsToNotify(LocalDateTime start, LocalDateTime end, String reminderType,
+                                              Collection<Integer> shards, int shardCount) {
+        TypedQuery<Booking> query = em.createQuery(
+                        "SELECT b FROM Booking b LEFT JOIN FETCH b.room " +
+                                "WHERE b.startTime BETWEEN :start AND :end " +
+                                (shards != null ? "AND MOD(b.id, :shardCount) IN :shards " : "") +
+                                "AND NOT EXISTS (SELECT 1 FROM SentNotification n " +
+                                "WHERE n.booking = b AND n.notificationType = :type)",
+                        Booking.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("type", reminderType);
+        if (shards != null) {
+            // MOD(b.id, ...) est un entier long : les shards sont liés dans le même type
+            List<Long> shardValues = new ArrayList<>();
+            for (Integer shard : shards) {
+                shardValues.add(shard.longValue());
+            }
+            query.setParameter("shardCount", (long) shardCount)
+                    .setParameter("shards", shardValues);
         }
+        List<Booking> bookingsToNotify = query.getResultList();
 
-        return body.toString();
+        LOG.info("Trouvé " + bookingsToNotify.size() + " réservations à notifier pour le rappel de type " + reminderType);
+        return bookingsToNotify;
     }
 
-    private List<Booking> filterAlreadyNotified(List<Booking> bookings, String reminderType) {
-        return bookings.stream()
-                .filter(booking -> {
-                    // Vérifier si une notification a déjà été envoyée pour cette réservation et ce type
-                    Long notificationCount = em.createQuery(
-                                    "SELECT COUNT(n) FROM SentNotification n " +
-                                            "WHERE n.booking.id = :bookingId AND n.notificationType = :type",
-                                    Long.class)
-                            .setParameter("bookingId", booking.getId())
-                            .setParameter("type", reminderType)
-                            .getSingleResult();
-
-                    // Garder uniquement les réservations sans notification
-                    return notificationCount == 0;
-                })
-                .collect(Collectors.toList());  // Compatible avec Java 8+
+    /**
+     * Enregistre le rappel et son email dans une même transaction courte ; l'envoi est laissé à EmailOutboxDispatcher.
+     * L'index unique uq_sent_notifications_reminder départage les passages concurrents :
+     * renvoie false si le rappel est déjà enregistré.
+     */
+    boolean claimReminder(Booking booking, String reminderType, String organizerEmail,
+                          String emailTo, String subject, EmailTemplates.RenderedEmail content) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            boolean claimed = em.createNativeQuery(
+                            "INSERT INTO sent_notifications " +
+                                    "(booking_id, notification_type, sent_at, organizer_email, recipient, read_status, deleted) " +
+                                    "VALUES (:bookingId, :type, :sentAt, :email, :recipient, false, false) " +
+                                    "ON CONFLICT (booking_id, notification_type) WHERE notification_type IN ('24h', '1h') DO NOTHING")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(SentNotification.class)
+                    .setParameter("bookingId", booking.getId())
+                    .setParameter("type", reminderType)
+                    .setParameter("sentAt", LocalDateTime.now())
+                    .setParameter("email", organizerEmail)
+                    .setParameter("recipient", SentNotification.normalizeRecipient(booking.getOrganizer()))
+                    .executeUpdate() == 1;
+            if (claimed) {
+                emailOutboxDispatcher.enqueue(emailTo, subject, content.text, content.html);
+            }
+            return claimed;
+        });
     }
 }
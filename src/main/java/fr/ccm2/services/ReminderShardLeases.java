@@ -0,0 +1,218 @@
+package fr.ccm2.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Partage des rappels entre les instances de l'application par des baux en base (migration V10).
+ *
+ * Les réservations sont réparties en app.reminder.shards.count shards (MOD(id, count)). À chaque battement,
+ * l'instance s'inscrit dans reminder_worker, renouvelle ses baux et vise une part égale des shards entre
+ * les instances vivantes : elle rend ses shards en trop et prend des shards libres ou expirés
+ * (FOR UPDATE SKIP LOCKED). Une instance arrêtée brutalement perd ses shards à l'expiration de ses baux.
+ * Pendant une passation, deux instances peuvent traiter le même rappel : l'index unique des rappels
+ * garantit qu'un seul part. Le battement dépend du scheduler : le partage activé sans lui est refusé au démarrage.
+ */
+@ApplicationScoped
+public class ReminderShardLeases {
+
+    private static final Logger LOG = Logger.getLogger(ReminderShardLeases.class);
+
+    private static final String LEASE_TABLE = "reminder_shard_lease";
+    private static final String WORKER_TABLE = "reminder_worker";
+
+    @Inject
+    EntityManager em;
+
+    // Désactivé : l'instance traite tous les shards (déploiement à une seule instance, tests)
+    @ConfigProperty(name = "app.reminder.shards.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.reminder.shards.count", defaultValue = "64")
+    int shardCount;
+
+    // Durée d'un bail ; le battement (app.reminder.shards.heartbeat) doit être nettement plus court
+    @ConfigProperty(name = "app.reminder.shards.lease", defaultValue = "PT30S")
+    Duration lease;
+
+    // Le battement n'est mené que par ReminderScheduler
+    @ConfigProperty(name = "app.reminder.shards.heartbeat", defaultValue = "10s")
+    String heartbeat;
+
+    @ConfigProperty(name = "quarkus.scheduler.enabled", defaultValue = "true")
+    boolean schedulerEnabled;
+
+    private final String owner = System.getenv().getOrDefault("HOSTNAME", "local") + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile Set<Integer> ownedShards = Collections.emptySet();
+    // Fin de validité locale des baux, à partir du début du dernier battement réussi
+    private volatile long ownedUntilMs;
+
+    // Sans battement, aucune instance ne tient de shard et aucun rappel ne part : refus au démarrage
+    void onStart(@Observes StartupEvent event) {
+        if (enabled && (!schedulerEnabled || "off".equalsIgnoreCase(heartbeat.trim()))) {
+            throw new IllegalStateException("app.reminder.shards.enabled=true exige le scheduler et "
+                    + "app.reminder.shards.heartbeat pour acquérir les baux de shards");
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (enabled) {
+            release();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public int shardOf(Long bookingId) {
+        return (int) Math.floorMod(bookingId, (long) shardCount);
+    }
+
+    /**
+     * Shards tenus par cette instance, vide si ses baux ne sont plus garantis
+     */
+    public Set<Integer> ownedShards() {
+        return System.currentTimeMillis() < ownedUntilMs ? ownedShards : Collections.emptySet();
+    }
+
+    /**
+     * Vrai si cette instance doit traiter les rappels de la réservation
+     */
+    public boolean owns(Long bookingId) {
+        return !enabled || ownedShards().contains(shardOf(bookingId));
+    }
+
+    /**
+     * Un battement : inscription, renouvellement et rééquilibrage des baux ; renvoie les shards nouvellement acquis
+     */
+    public synchronized Set<Integer> heartbeat() {
+        long startMs = System.currentTimeMillis();
+        Set<Integer> previous = ownedShards();
+        List<Integer> owned = QuarkusTransaction.requiringNew().call(this::rebalance);
+
+        Set<Integer> acquired = new HashSet<>(owned);
+        acquired.removeAll(previous);
+        ownedShards = Collections.unmodifiableSet(new HashSet<>(owned));
+        ownedUntilMs = startMs + lease.toMillis();
+        if (!acquired.isEmpty() || owned.size() != previous.size()) {
+            LOG.info("Shards de rappel tenus par " + owner + ": " + owned.size() + "/" + shardCount
+                    + " (" + acquired.size() + " acquis)");
+        }
+        return acquired;
+    }
+
+    private List<Integer> rebalance() {
+        update("INSERT INTO reminder_worker (owner, heartbeat_at) VALUES (:owner, LOCALTIMESTAMP) " +
+                "ON CONFLICT (owner) DO UPDATE SET heartbeat_at = LOCALTIMESTAMP", WORKER_TABLE)
+                .setParameter("owner", owner)
+                .executeUpdate();
+        update("INSERT INTO reminder_shard_lease (shard, owner, expires_at) " +
+                "SELECT s, NULL, LOCALTIMESTAMP FROM generate_series(0, :last) s ON CONFLICT (shard) DO NOTHING", LEASE_TABLE)
+                .setParameter("last", shardCount - 1)
+                .executeUpdate();
+
+        Number live = (Number) em.createNativeQuery(
+                        "SELECT COUNT(*) FROM reminder_worker WHERE heartbeat_at > LOCALTIMESTAMP - :lease * INTERVAL '1 second'")
+                .setParameter("lease", (double) lease.getSeconds())
+                .getSingleResult();
+        int target = (shardCount + Math.max(1, live.intValue()) - 1) / Math.max(1, live.intValue());
+
+        update("UPDATE reminder_shard_lease SET expires_at = LOCALTIMESTAMP + :lease * INTERVAL '1 second' " +
+                "WHERE owner = :owner", LEASE_TABLE)
+                .setParameter("lease", (double) lease.getSeconds())
+                .setParameter("owner", owner)
+                .executeUpdate();
+        @SuppressWarnings("unchecked")
+        List<Integer> owned = new ArrayList<>(em.createNativeQuery(
+                        "SELECT shard FROM reminder_shard_lease WHERE owner = :owner AND shard < :count ORDER BY shard", Integer.class)
+                .setParameter("owner", owner)
+                .setParameter("count", shardCount)
+                .getResultList());
+
+        if (owned.size() > target) {
+            // Part en trop rendue tout de suite : les autres instances la prennent à leur prochain battement
+            List<Integer> extra = new ArrayList<>(owned.subList(target, owned.size()));
+            update("UPDATE reminder_shard_lease SET owner = NULL, expires_at = LOCALTIMESTAMP " +
+                    "WHERE shard IN (:shards) AND owner = :owner", LEASE_TABLE)
+                    .setParameter("shards", extra)
+                    .setParameter("owner", owner)
+                    .executeUpdate();
+            owned.removeAll(extra);
+        } else if (owned.size() < target) {
+            @SuppressWarnings("unchecked")
+            List<Integer> free = em.createNativeQuery(
+                            "SELECT shard FROM reminder_shard_lease " +
+                                    "WHERE shard < :count AND (owner IS NULL OR expires_at < LOCALTIMESTAMP) " +
+                                    "ORDER BY shard LIMIT :limit FOR UPDATE SKIP LOCKED", Integer.class)
+                    .setParameter("count", shardCount)
+                    .setParameter("limit", target - owned.size())
+                    .getResultList();
+            if (!free.isEmpty()) {
+                update("UPDATE reminder_shard_lease SET owner = :owner, " +
+                        "expires_at = LOCALTIMESTAMP + :lease * INTERVAL '1 second' WHERE shard IN (:shards)", LEASE_TABLE)
+                        .setParameter("owner", owner)
+                        .setParameter("lease", (double) lease.getSeconds())
+                        .setParameter("shards", free)
+                        .executeUpdate();
+                owned.addAll(free);
+            }
+        }
+
+        // Inscriptions abandonnées depuis longtemps
+        update("DELETE FROM reminder_worker WHERE heartbeat_at < LOCALTIMESTAMP - :stale * INTERVAL '1 second'", WORKER_TABLE)
+                .setParameter("stale", (double) lease.getSeconds() * 10)
+                .executeUpdate();
+        return owned;
+    }
+
+    /**
+     * Rend tous les baux de l'instance, pour une passation immédiate à l'arrêt
+     */
+    public synchronized void release() {
+        ownedShards = Collections.emptySet();
+        ownedUntilMs = 0;
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                update("UPDATE reminder_shard_lease SET owner = NULL, expires_at = LOCALTIMESTAMP WHERE owner = :owner", LEASE_TABLE)
+                        .setParameter("owner", owner)
+                        .executeUpdate();
+                update("DELETE FROM reminder_worker WHERE owner = :owner", WORKER_TABLE)
+                        .setParameter("owner", owner)
+                        .executeUpdate();
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Libération des shards de rappel impossible, ils expireront d'eux-mêmes: " + e.getMessage());
+        }
+    }
+
+    private NativeQuery<?> update(String sql, String table) {
+        return em.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace(table);
+    }
+}
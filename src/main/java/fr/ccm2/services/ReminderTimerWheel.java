@@ -0,0 +1,353 @@
+package fr.ccm2.services;
+
+import fr.ccm2.entities.Booking;
+import fr.ccm2.events.BookingChangedEvent;
+import fr.ccm2.events.BookingSnapshot;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Minuteurs en mémoire des rappels 24h et 1h : chaque rappel part à son échéance exacte (début - délai),
+ * à la seconde près, au lieu d'être cherché par fenêtres fixes à chaque passage du scheduler.
+ *
+ * Les minuteurs sont tenus dans une roue hiérarchique (secondes, minutes, heures) : programmer ou annuler
+ * coûte O(1), chaque tick ne parcourt que le compartiment courant. La roue est alimentée au démarrage,
+ * suivie à chaque BookingChangedEvent validé, et réconciliée périodiquement avec la base pour les changements
+ * faits par une autre instance. La base reste l'autorité : l'envoi revérifie la réservation et
+ * l'index unique des rappels empêche tout doublon.
+ *
+ * Avec plusieurs instances (app.reminder.shards.enabled), chacune ne réconcilie et ne déclenche que les rappels
+ * des shards qu'elle tient (ReminderShardLeases). Un minuteur posé par un événement local part aussi depuis
+ * l'instance qui a validé le changement : le détenteur du shard ne l'apprendra qu'à sa prochaine réconciliation.
+ */
+@ApplicationScoped
+public class ReminderTimerWheel {
+
+    private static final Logger LOG = Logger.getLogger(ReminderTimerWheel.class);
+
+    // Délai entre le rappel et le début de la réservation
+    private static final Map<String, Duration> LEAD_TIMES = Map.of(
+            "24h", Duration.ofHours(24),
+            "1h", Duration.ofHours(1));
+
+    // Retard toléré sur l'échéance, comme les anciennes fenêtres (23-25h, 45-75min) :
+    // une réservation créée plus tard ne reçoit pas ce rappel
+    private static final Map<String, Duration> LATE_TOLERANCES = Map.of(
+            "24h", Duration.ofHours(1),
+            "1h", Duration.ofMinutes(15));
+
+    @Inject
+    ReminderService reminderService;
+
+    @Inject
+    OrganizerContactCache organizerContactCache;
+
+    @Inject
+    ReminderShardLeases shardLeases;
+
+    // Seules les réservations commençant dans cet horizon sont tenues en mémoire, la réconciliation ajoute les suivantes
+    @ConfigProperty(name = "app.reminder.wheel.horizon", defaultValue = "PT48H")
+    Duration horizon;
+
+    // Secondes, minutes, heures : 60 compartiments par niveau couvrent 60 heures
+    private final TimingWheel<Reminder> wheel = new TimingWheel<>(1000, 60, 3, System.currentTimeMillis());
+
+    void onStart(@Observes StartupEvent event) {
+        if (shardLeases.isEnabled()) {
+            shardLeases.heartbeat();
+        }
+        int scheduled = reconcile();
+        LOG.info("Minuteurs de rappel chargés: " + scheduled);
+    }
+
+    void onBookingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingChangedEvent event) {
+        BookingSnapshot after = event.getAfter();
+        if (after == null) {
+            cancel(event.getBefore().getId());
+        } else {
+            schedule(after.getId(), after.getOrganizer(), after.getStartTime(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Reprogramme les rappels non envoyés des réservations de l'horizon, limitées aux shards tenus,
+     * et précharge le contact de leurs organisateurs ; renvoie le nombre de minuteurs posés
+     */
+    public int reconcile() {
+        if (!shardLeases.isEnabled()) {
+            return reconcile(null);
+        }
+        Set<Integer> shards = shardLeases.ownedShards();
+        return shards.isEmpty() ? 0 : reconcile(shards);
+    }
+
+    /**
+     * Battement des baux de shards ; les shards nouvellement acquis sont réconciliés aussitôt, leurs rappels
+     * échus pendant la passation partent s'ils sont encore dans la tolérance de retard
+     */
+    public int rebalance() {
+        if (!shardLeases.isEnabled()) {
+            return 0;
+        }
+        Set<Integer> acquired = shardLeases.heartbeat();
+        return acquired.isEmpty() ? 0 : reconcile(acquired);
+    }
+
+    private int reconcile(Set<Integer> shards) {
+        LocalDateTime now = LocalDateTime.now();
+        // Lecture dans une transaction courte : le préchargement Keycloak se fait sans retenir de connexion
+        List<Reminder> pending = QuarkusTransaction.requiringNew().call(() -> {
+            List<Reminder> reminders = new ArrayList<>();
+            for (Map.Entry<String, Duration> lead : LEAD_TIMES.entrySet()) {
+                String type = lead.getKey();
+                LocalDateTime from = now.plus(lead.getValue()).minus(LATE_TOLERANCES.get(type));
+                for (Booking booking : reminderService.findBookingsToNotify(from, now.plus(horizon), type,
+                        shards, shardLeases.getShardCount())) {
+                    reminders.add(new Reminder(booking.getId(), type, booking.getOrganizer(), booking.getStartTime(), false));
+                }
+            }
+            return reminders;
+        });
+
+        int scheduled = 0;
+        Set<String> organizers = new HashSet<>();
+        for (Reminder reminder : pending) {
+            if (schedule(reminder, now)) {
+                organizers.add(reminder.organizer);
+                scheduled++;
+            }
+        }
+        organizerContactCache.prefetch(organizers);
+        return scheduled;
+    }
+
+    /**
+     * Envoie les rappels arrivés à échéance ; renvoie le nombre de rappels mis en file
+     */
+    public int fireDue() {
+        int sent = 0;
+        LocalDateTime now = LocalDateTime.now();
+        List<Reminder> due = new ArrayList<>();
+        for (Reminder reminder : wheel.advance(System.currentTimeMillis())) {
+            // Shard tenu par une autre instance : c'est elle qui l'envoie
+            if (reminder.local || shardLeases.owns(reminder.bookingId)) {
+                due.add(reminder);
+            }
+        }
+        if (due.size() > 1) {
+            Set<String> organizers = new HashSet<>();
+            for (Reminder reminder : due) {
+                organizers.add(reminder.organizer);
+            }
+            organizerContactCache.prefetch(organizers);
+        }
+        for (Reminder reminder : due) {
+            if (!reminder.startTime.isAfter(now)) {
+                continue;
+            }
+            if (reminderService.sendReminder(reminder.bookingId, reminder.type, reminder.startTime)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    private void schedule(Long bookingId, String organizer, LocalDateTime startTime, LocalDateTime now) {
+        for (String type : LEAD_TIMES.keySet()) {
+            Reminder reminder = new Reminder(bookingId, type, organizer, startTime, true);
+            if (!schedule(reminder, now)) {
+                wheel.cancel(reminder);
+            }
+        }
+    }
+
+    private boolean schedule(Reminder reminder, LocalDateTime now) {
+        if (reminder.bookingId == null || reminder.startTime == null || reminder.startTime.isAfter(now.plus(horizon))) {
+            return false;
+        }
+        LocalDateTime due = reminder.startTime.minus(LEAD_TIMES.get(reminder.type));
+        if (due.plus(LATE_TOLERANCES.get(reminder.type)).isBefore(now)) {
+            return false;
+        }
+        wheel.schedule(reminder, due.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return true;
+    }
+
+    private void cancel(Long bookingId) {
+        for (String type : LEAD_TIMES.keySet()) {
+            wheel.cancel(new Reminder(bookingId, type, null, null, false));
+        }
+    }
+
+    /**
+     * Rappel programmé, identifié par (réservation, type) ; le début attendu permet d'écarter un minuteur périmé.
+     * local : posé par un changement validé sur cette instance
+     */
+    static final class Reminder {
+        final Long bookingId;
+        final String type;
+        final String organizer;
+        final LocalDateTime startTime;
+        final boolean local;
+
+        Reminder(Long bookingId, String type, String organizer, LocalDateTime startTime, boolean local) {
+            this.bookingId = bookingId;
+            this.type = type;
+            this.organizer = organizer;
+            this.startTime = startTime;
+            this.local = local;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Reminder)) return false;
+            Reminder other = (Reminder) o;
+            return Objects.equals(bookingId, other.bookingId) && Objects.equals(type, other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookingId, type);
+        }
+    }
+
+    /**
+     * Roue temporelle hiérarchique (Varghese et Lauck) : le niveau i découpe le temps en compartiments de
+     * tick * slots^i. Un minuteur est rangé au niveau le plus fin qui atteint son échéance sans faire le tour ;
+     * quand le temps entre dans un compartiment de niveau supérieur, ses minuteurs redescendent d'un niveau.
+     * Une échéance au-delà de la portée du dernier niveau est rangée dans son dernier compartiment puis
+     * replacée à chaque passage. Programmer une clé déjà présente remplace son échéance.
+     */
+    public static final class TimingWheel<K> {
+
+        private final long tickMs;
+        private final int slots;
+        private final long[] units;
+        private final List<List<Set<K>>> levels = new ArrayList<>();
+        private final Map<K, Timer<K>> timers = new HashMap<>();
+        // Échéances déjà passées au moment de la programmation, rendues au prochain advance
+        private final Set<K> overdue = new HashSet<>();
+        private long currentTick;
+
+        public TimingWheel(long tickMs, int slots, int levelCount, long startMs) {
+            this.tickMs = tickMs;
+            this.slots = slots;
+            this.units = new long[levelCount];
+            long unit = 1;
+            for (int i = 0; i < levelCount; i++) {
+                units[i] = unit;
+                unit *= slots;
+                List<Set<K>> buckets = new ArrayList<>(slots);
+                for (int j = 0; j < slots; j++) {
+                    buckets.add(new HashSet<>());
+                }
+                levels.add(buckets);
+            }
+            this.currentTick = startMs / tickMs;
+        }
+
+        public synchronized void schedule(K key, long dueMs) {
+            cancel(key);
+            Timer<K> timer = new Timer<>(key, Math.floorDiv(dueMs, tickMs));
+            timers.put(key, timer);
+            place(timer);
+        }
+
+        public synchronized boolean cancel(K key) {
+            Timer<K> timer = timers.remove(key);
+            if (timer == null) {
+                return false;
+            }
+            timer.bucket.remove(key);
+            return true;
+        }
+
+        /**
+         * Avance la roue jusqu'à nowMs ; renvoie les clés échues, dans l'ordre de leurs échéances
+         */
+        public synchronized List<K> advance(long nowMs) {
+            Map<K, Timer<K>> expired = new LinkedHashMap<>();
+            drain(overdue, expired);
+            long targetTick = nowMs / tickMs;
+            while (currentTick < targetTick) {
+                currentTick++;
+                // Les niveaux supérieurs redescendent d'abord, leurs minuteurs peuvent échoir dans ce tick
+                for (int i = units.length - 1; i > 0; i--) {
+                    if (currentTick % units[i] == 0) {
+                        Set<K> bucket = levels.get(i).get((int) ((currentTick / units[i]) % slots));
+                        List<K> keys = new ArrayList<>(bucket);
+                        bucket.clear();
+                        for (K key : keys) {
+                            place(timers.get(key));
+                        }
+                    }
+                }
+                drain(levels.get(0).get((int) (currentTick % slots)), expired);
+                drain(overdue, expired);
+            }
+            return new ArrayList<>(expired.keySet());
+        }
+
+        public synchronized int size() {
+            return timers.size();
+        }
+
+        private void drain(Set<K> bucket, Map<K, Timer<K>> expired) {
+            for (K key : bucket) {
+                expired.put(key, timers.remove(key));
+            }
+            bucket.clear();
+        }
+
+        private void place(Timer<K> timer) {
+            Set<K> bucket;
+            if (timer.dueTick <= currentTick) {
+                bucket = overdue;
+            } else {
+                int level = 0;
+                while (level < units.length - 1
+                        && timer.dueTick / units[level] - currentTick / units[level] >= slots) {
+                    level++;
+                }
+                long slot = Math.min(timer.dueTick / units[level], currentTick / units[level] + slots - 1);
+                bucket = levels.get(level).get((int) (slot % slots));
+            }
+            timer.bucket = bucket;
+            bucket.add(timer.key);
+        }
+
+        private static final class Timer<K> {
+            final K key;
+            final long dueTick;
+            Set<K> bucket;
+
+            Timer(K key, long dueTick) {
+                this.key = key;
+                this.dueTick = dueTick;
+            }
+        }
+    }
+}
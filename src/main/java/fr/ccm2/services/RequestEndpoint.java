@@ -0,0 +1,23 @@
+package fr.ccm2.services;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Méthode de ressource traitant la requête courante, utilisée comme étiquette des métriques du pool.
+ * Hors requête HTTP (tâches planifiées), l'étiquette reste BACKGROUND.
+ */
+@RequestScoped
+public class RequestEndpoint {
+
+    public static final String BACKGROUND = "background";
+
+    private String name = BACKGROUND;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,69 @@
+package fr.ccm2.services;
+
+import fr.ccm2.entities.Room;
+import fr.ccm2.events.RoomChangedEvent;
+import fr.ccm2.events.RoomSnapshot;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalogue en mémoire des salles (capacité, bâtiment, équipements fixes), tenu à jour par les événements de RoomService.
+ */
+@ApplicationScoped
+public class RoomCatalog {
+
+    private static final Logger LOG = Logger.getLogger(RoomCatalog.class);
+
+    @Inject
+    EntityManager em;
+
+    private final Map<Long, RoomSnapshot> rooms = new ConcurrentHashMap<>();
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        reload();
+    }
+
+    /**
+     * Recharge entièrement le catalogue depuis les tables room et room_equipment
+     */
+    @Transactional
+    public void reload() {
+        List<Room> loaded = em.createQuery(
+                        "SELECT DISTINCT r FROM Room r LEFT JOIN FETCH r.roomEquipments re LEFT JOIN FETCH re.equipment", Room.class)
+                .getResultList();
+
+        rooms.clear();
+        for (Room room : loaded) {
+            rooms.put(room.getId(), RoomSnapshot.of(room, room.getRoomEquipments()));
+        }
+        LOG.info("Catalogue des salles chargé: " + rooms.size() + " salles");
+    }
+
+    void onRoomChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) RoomChangedEvent event) {
+        if (event.getAfter() != null) {
+            rooms.put(event.getRoomId(), event.getAfter());
+        } else {
+            rooms.remove(event.getRoomId());
+        }
+    }
+
+    public Collection<RoomSnapshot> getRooms() {
+        return rooms.values();
+    }
+
+    public RoomSnapshot getRoom(Long roomId) {
+        return rooms.get(roomId);
+    }
+}
@@ -0,0 +1,144 @@
+package fr.ccm2.services;
+
+import fr.ccm2.dto.room.FreeSlotDTO;
+import fr.ccm2.dto.room.RoomSearchResultDTO;
+import fr.ccm2.events.RoomSnapshot;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recherche de salles libres calculée entièrement en mémoire, à partir du catalogue des salles
+ * et de l'index d'occupation : aucune requête SQL par recherche.
+ */
+@ApplicationScoped
+public class RoomFinder {
+
+    @Inject
+    RoomCatalog roomCatalog;
+
+    @Inject
+    RoomOccupancyIndex occupancyIndex;
+
+    // Borne la fenêtre de recherche, donc le nombre de créneaux parcourus par salle
+    @ConfigProperty(name = "app.room.search.max-days", defaultValue = "31")
+    int maxDays;
+
+    @ConfigProperty(name = "app.room.search.max-slots-per-room", defaultValue = "5")
+    int maxSlotsPerRoom;
+
+    /**
+     * Salles satisfaisant les critères et disposant d'au moins une plage libre de la durée demandée dans [from, to).
+     * Classement : plage libre la plus tôt, puis places perdues les moins nombreuses, puis nom.
+     */
+    public List<RoomSearchResultDTO> search(int attendees, Collection<Long> equipmentIds, String building,
+                                            LocalDateTime from, LocalDateTime to, Duration duration, int limit) {
+        if (attendees < 1) {
+            throw new IllegalArgumentException("Le nombre de participants doit être positif.");
+        }
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("La période de recherche est invalide.");
+        }
+        if (Duration.between(from, to).toDays() > maxDays) {
+            throw new IllegalArgumentException("La période de recherche ne peut pas dépasser " + maxDays + " jours.");
+        }
+        if (duration.isZero() || duration.isNegative() || duration.compareTo(Duration.between(from, to)) > 0) {
+            throw new IllegalArgumentException("La durée doit être positive et tenir dans la période de recherche.");
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (RoomSnapshot room : roomCatalog.getRooms()) {
+            if (!matches(room, attendees, equipmentIds, building)) {
+                continue;
+            }
+            List<LocalDateTime[]> slots = freeSlots(room.getId(), from, to, duration);
+            if (!slots.isEmpty()) {
+                candidates.add(new Candidate(room, slots, room.getCapacity() - attendees));
+            }
+        }
+
+        candidates.sort(Comparator.comparing((Candidate c) -> c.slots.get(0)[0])
+                .thenComparingInt(c -> c.wastedSeats)
+                .thenComparing(c -> c.room.getName() != null ? c.room.getName() : ""));
+
+        List<RoomSearchResultDTO> results = new ArrayList<>();
+        for (Candidate candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            RoomSearchResultDTO dto = new RoomSearchResultDTO();
+            dto.roomId = candidate.room.getId();
+            dto.name = candidate.room.getName();
+            dto.building = candidate.room.getBuilding();
+            dto.floor = candidate.room.getFloor();
+            dto.capacity = candidate.room.getCapacity();
+            dto.freeSlots = new ArrayList<>();
+            for (LocalDateTime[] slot : candidate.slots) {
+                FreeSlotDTO freeSlot = new FreeSlotDTO();
+                freeSlot.startTime = slot[0].toString();
+                freeSlot.endTime = slot[1].toString();
+                dto.freeSlots.add(freeSlot);
+            }
+            results.add(dto);
+        }
+        return results;
+    }
+
+    private boolean matches(RoomSnapshot room, int attendees, Collection<Long> equipmentIds, String building) {
+        if (room.getCapacity() == null || room.getCapacity() < attendees) {
+            return false;
+        }
+        if (building != null && !building.equalsIgnoreCase(room.getBuilding())) {
+            return false;
+        }
+        for (Long equipmentId : equipmentIds) {
+            Integer quantity = room.getEquipmentQuantities().get(equipmentId);
+            if (quantity == null || quantity < 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parcourt les créneaux occupés (triés par début) et retient les intervalles libres d'au moins la durée demandée
+     */
+    private List<LocalDateTime[]> freeSlots(Long roomId, LocalDateTime from, LocalDateTime to, Duration duration) {
+        List<LocalDateTime[]> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (RoomOccupancyIndex.Slot busy : occupancyIndex.findOverlaps(roomId, from, to)) {
+            addIfLongEnough(slots, cursor, busy.getStartTime(), duration);
+            if (busy.getEndTime().isAfter(cursor)) {
+                cursor = busy.getEndTime();
+            }
+            if (slots.size() >= maxSlotsPerRoom) {
+                return slots;
+            }
+        }
+        addIfLongEnough(slots, cursor, to, duration);
+        return slots;
+    }
+
+    private void addIfLongEnough(List<LocalDateTime[]> slots, LocalDateTime start, LocalDateTime end, Duration duration) {
+        if (slots.size() < maxSlotsPerRoom && !start.plus(duration).isAfter(end)) {
+            slots.add(new LocalDateTime[]{start, end});
+        }
+    }
+
+    private static final class Candidate {
+        private final RoomSnapshot room;
+        // Plages libres [début, fin] triées
+        private final List<LocalDateTime[]> slots;
+        private final int wastedSeats;
+
+        private Candidate(RoomSnapshot room, List<LocalDateTime[]> slots, int wastedSeats) {
+            this.room = room;
+            this.slots = slots;
+            this.wastedSeats = wastedSeats;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package fr.ccm2.services;
+
+import fr.ccm2.entities.Booking;
+import fr.ccm2.events.BookingChangedEvent;
+import fr.ccm2.events.BookingSnapshot;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index en mémoire des créneaux occupés par salle.
+ *
+ * Chaque salle possède une liste triée par date de début ; la recherche de chevauchement se limite
+ * aux créneaux dont le début est compris entre (début - durée max de la salle) et la fin demandée,
+ * soit O(log n + k). La base reste l'autorité finale : l'index repère les conflits probables, que la base
+ * confirme avant tout rejet. Les créneaux terminés au-delà de l'historique sont purgés à chaque ajout dans la salle,
+ * pour ceux qui précèdent la fenêtre de recherche, et entièrement par la purge périodique (evictEnded).
+ */
+@ApplicationScoped
+public class RoomOccupancyIndex {
+
+    private static final Logger LOG = Logger.getLogger(RoomOccupancyIndex.class);
+
+    @Inject
+    EntityManager em;
+
+    // Historique chargé au démarrage : les réservations terminées depuis plus longtemps ne peuvent plus entrer en conflit
+    @ConfigProperty(name = "app.booking.index.history-days", defaultValue = "7")
+    int historyDays;
+
+    private final Map<Long, RoomTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        reload();
+    }
+
+    /**
+     * Recharge entièrement l'index depuis la table booking
+     */
+    @Transactional
+    public void reload() {
+        LocalDateTime since = LocalDateTime.now().minusDays(historyDays);
+        List<Booking> bookings = em.createQuery(
+                        "SELECT b FROM Booking b WHERE b.room IS NOT NULL AND b.endTime > :since", Booking.class)
+                .setParameter("since", since)
+                .getResultList();
+
+        timelines.clear();
+        for (Booking booking : bookings) {
+            add(BookingSnapshot.of(booking, false));
+        }
+        LOG.info("Index d'occupation chargé: " + bookings.size() + " réservations sur " + timelines.size() + " salles");
+    }
+
+    void onBookingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingChangedEvent event) {
+        if (event.getBefore() != null) {
+            remove(event.getBefore());
+        }
+        if (event.getAfter() != null) {
+            add(event.getAfter());
+        }
+    }
+
+    /**
+     * Retourne les créneaux de la salle qui chevauchent [start, end), triés par date de début
+     */
+    public List<Slot> findOverlaps(Long roomId, LocalDateTime start, LocalDateTime end) {
+        RoomTimeline timeline = timelines.get(roomId);
+        if (timeline == null) {
+            return Collections.emptyList();
+        }
+        return timeline.overlaps(start, end);
+    }
+
+    /**
+     * Vrai si l'index contient toutes les réservations qui se terminent après {@code from}
+     * (historique chargé et conservé par la purge)
+     */
+    public boolean covers(LocalDateTime from) {
+        return !from.isBefore(LocalDateTime.now().minusDays(historyDays));
+    }
+
+    public boolean isFree(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return findOverlaps(roomId, start, end).isEmpty();
+    }
+
+    /**
+     * Retire des créneaux que la base ne confirme pas (suppression faite par une autre instance, événement perdu)
+     */
+    public void discard(Long roomId, List<Slot> stale) {
+        RoomTimeline timeline = timelines.get(roomId);
+        if (timeline == null) {
+            return;
+        }
+        for (Slot slot : stale) {
+            timeline.remove(slot.getBookingId(), slot.getStartTime());
+        }
+        LOG.warn("Index d'occupation de la salle " + roomId + " désynchronisé: " + stale.size() + " créneaux retirés");
+    }
+
+    /**
+     * Retire les créneaux terminés avant l'historique conservé, comme au chargement ; renvoie le nombre de créneaux retirés
+     */
+    public int evictEnded() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(historyDays);
+        int evicted = 0;
+        for (RoomTimeline timeline : timelines.values()) {
+            evicted += timeline.evictEndedBefore(cutoff);
+        }
+        return evicted;
+    }
+
+    private void add(BookingSnapshot snapshot) {
+        if (snapshot.getRoomId() == null || snapshot.getStartTime() == null || snapshot.getEndTime() == null) {
+            return;
+        }
+        RoomTimeline timeline = timelines.computeIfAbsent(snapshot.getRoomId(), id -> new RoomTimeline());
+        timeline.add(new Slot(snapshot.getId(), snapshot.getStartTime(), snapshot.getEndTime()));
+        timeline.evictHeadBefore(LocalDateTime.now().minusDays(historyDays));
+    }
+
+    private void remove(BookingSnapshot snapshot) {
+        if (snapshot.getRoomId() == null || snapshot.getStartTime() == null) {
+            return;
+        }
+        RoomTimeline timeline = timelines.get(snapshot.getRoomId());
+        if (timeline != null) {
+            timeline.remove(snapshot.getId(), snapshot.getStartTime());
+        }
+    }
+
+    /**
+     * Créneau occupé par une réservation
+     */
+    public static final class Slot implements Comparable<Slot> {
+        private final Long bookingId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+
+        public Slot(Long bookingId, LocalDateTime startTime, LocalDateTime endTime) {
+            this.bookingId = bookingId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public static Slot of(Booking booking) {
+            return new Slot(booking.getId(), booking.getStartTime(), booking.getEndTime());
+        }
+
+        public Long getBookingId() { return bookingId; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public LocalDateTime getEndTime() { return endTime; }
+
+        @Override
+        public int compareTo(Slot other) {
+            int byStart = startTime.compareTo(other.startTime);
+            if (byStart != 0) {
+                return byStart;
+            }
+            return Long.compare(bookingId != null ? bookingId : Long.MIN_VALUE,
+                    other.bookingId != null ? other.bookingId : Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Créneaux d'une salle triés par (début, id) avec la plus longue durée observée,
+     * qui borne la fenêtre de recherche même si l'historique contient des chevauchements
+     */
+    private static final class RoomTimeline {
+        private final ConcurrentSkipListMap<Slot, Slot> slots = new ConcurrentSkipListMap<>();
+        private volatile Duration maxDuration = Duration.ZERO;
+        // Nombre d'ajouts, pour qu'une éviction ne réduise pas la durée maximale sous un ajout concurrent
+        private long additions;
+
+        void add(Slot slot) {
+            Duration duration = Duration.between(slot.getStartTime(), slot.getEndTime());
+            synchronized (this) {
+                additions++;
+                if (duration.compareTo(maxDuration) > 0) {
+                    maxDuration = duration;
+                }
+            }
+            slots.put(slot, slot);
+        }
+
+        void remove(Long bookingId, LocalDateTime startTime) {
+            slots.remove(new Slot(bookingId, startTime, startTime));
+        }
+
+        // Purge légère : les créneaux commencés plus d'une durée maximale avant la limite sont forcément terminés
+        void evictHeadBefore(LocalDateTime cutoff) {
+            slots.headMap(new Slot(null, cutoff.minus(maxDuration), null)).clear();
+        }
+
+        int evictEndedBefore(LocalDateTime cutoff) {
+            long additionsBefore;
+            synchronized (this) {
+                additionsBefore = additions;
+            }
+            int evicted = 0;
+            Duration longest = Duration.ZERO;
+            for (Slot slot : slots.keySet()) {
+                if (!slot.getEndTime().isAfter(cutoff)) {
+                    slots.remove(slot);
+                    evicted++;
+                } else {
+                    Duration duration = Duration.between(slot.getStartTime(), slot.getEndTime());
+                    if (duration.compareTo(longest) > 0) {
+                        longest = duration;
+                    }
+                }
+            }
+            synchronized (this) {
+                if (evicted > 0 && additions == additionsBefore) {
+                    maxDuration = longest;
+                }
+            }
+            return evicted;
+        }
+
+        List<Slot> overlaps(LocalDateTime start, LocalDateTime end) {
+            Slot from = new Slot(null, start.minus(maxDuration), null);
+            Slot to = new Slot(null, end, null);
+            ConcurrentNavigableMap<Slot, Slot> candidates = slots.subMap(from, true, to, false);
+
+            List<Slot> result = new ArrayList<>();
+            for (Slot slot : candidates.keySet()) {
+                if (slot.getEndTime().isAfter(start) && slot.getStartTime().isBefore(end)) {
+                    result.add(slot);
+                }
+            }
+            return result;
+        }
+    }
+}
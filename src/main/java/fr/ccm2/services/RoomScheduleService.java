@@ -0,0 +1,96 @@
+package fr.ccm2.services;
+
+import fr.ccm2.dto.booking.BookingResponseDTO;
+import fr.ccm2.dto.room.RoomDayScheduleDTO;
+import fr.ccm2.entities.Booking;
+import fr.ccm2.mapper.BookingMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planning d'une salle jour par jour.
+ *
+ * Il ne garde pas de copie des réservations : dans l'historique de RoomOccupancyIndex, l'index donne les
+ * réservations de la fenêtre (aucune requête si elle est libre) et elles sont relues par clé primaire ;
+ * avant cet historique, elles sont lues par fenêtre sur (room_id, start_time).
+ */
+@ApplicationScoped
+public class RoomScheduleService {
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    RoomOccupancyIndex occupancyIndex;
+
+    @ConfigProperty(name = "app.room.schedule.max-days", defaultValue = "31")
+    int maxDays;
+
+    /**
+     * Planning d'une salle jour par jour à partir de {@code from}, sur {@code days} jours
+     */
+    @Transactional
+    public List<RoomDayScheduleDTO> getSchedule(Long roomId, LocalDate from, int days) {
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("Le nombre de jours doit être compris entre 1 et " + maxDays + ".");
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = from.plusDays(days).atStartOfDay();
+
+        Map<LocalDate, RoomDayScheduleDTO> schedule = new LinkedHashMap<>();
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            RoomDayScheduleDTO dto = new RoomDayScheduleDTO();
+            dto.roomId = roomId;
+            dto.date = day.toString();
+            dto.entries = new ArrayList<>();
+            schedule.put(day, dto);
+        }
+
+        // Triées par début : chaque jour reçoit ses réservations dans l'ordre
+        for (Booking booking : loadBookings(roomId, start, end)) {
+            BookingResponseDTO entry = BookingMapper.toResponse(booking, false, false);
+            for (LocalDate day = booking.getStartTime().toLocalDate(); day.atStartOfDay().isBefore(booking.getEndTime());
+                 day = day.plusDays(1)) {
+                RoomDayScheduleDTO dto = schedule.get(day);
+                if (dto != null) {
+                    dto.entries.add(entry);
+                }
+            }
+        }
+        return new ArrayList<>(schedule.values());
+    }
+
+    private List<Booking> loadBookings(Long roomId, LocalDateTime start, LocalDateTime end) {
+        if (occupancyIndex.covers(start)) {
+            List<Long> ids = new ArrayList<>();
+            for (RoomOccupancyIndex.Slot slot : occupancyIndex.findOverlaps(roomId, start, end)) {
+                ids.add(slot.getBookingId());
+            }
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return em.createQuery("SELECT b FROM Booking b WHERE b.id IN :ids ORDER BY b.startTime, b.id", Booking.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        }
+        return em.createQuery(
+                        "SELECT b FROM Booking b WHERE b.room.id = :roomId AND b.endTime > :start AND b.startTime < :end " +
+                                "ORDER BY b.startTime, b.id", Booking.class)
+                .setParameter("roomId", roomId)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+}
@@ -1,9 +1,15 @@
 package fr.ccm2.services;
 
 import fr.ccm2.dto.room.RoomCreateDTO;
+import fr.ccm2.dto.room.RoomResponseDTO;
 import fr.ccm2.dto.room.RoomUpdateDTO;
+import fr.ccm2.dto.room_equipment.RoomEquipmentResponseDTO;
 import fr.ccm2.entities.*;
+import fr.ccm2.events.RoomChangedEvent;
+import fr.ccm2.events.RoomSnapshot;
+import fr.ccm2.mapper.RoomMapper;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
@@ -18,11 +24,22 @@ public class RoomService {
     @Inject
     EntityManager em;
 
+    // Observé par le catalogue en mémoire et par CatalogCache, qui évince le cache de second niveau après le commit
+    @Inject
+    Event<RoomChangedEvent> roomEvents;
+
+    @Inject
+    CatalogCache catalogCache;
+
     public List<Room> getAllRooms() {
-        return em.createQuery("FROM Room", Room.class).getResultList();
+        catalogCache.expireIfDue();
+        return em.createQuery("FROM Room", Room.class)
+                .setHint(CatalogCache.QUERY_CACHEABLE_HINT, true)
+                .getResultList();
     }
 
     public Room getRoomById(Long id) {
+        catalogCache.expireIfDue();
         return em.find(Room.class, id);
     }
 
@@ -38,23 +55,31 @@ public class RoomService {
 
         room.setImageUrl(dto.imageUrl);
 
+        // Identifiant attribué par la séquence dès persist : les insertions partent en un seul lot au flush
         em.persist(room);
-        em.flush();
 
+        List<RoomEquipment> created = new ArrayList<>();
         if (dto.equipmentWithQuantities != null) {
+            Map<Long, Integer> requested = new LinkedHashMap<>();
             for (var eq : dto.equipmentWithQuantities) {
-                Equipment equipment = em.find(Equipment.class, eq.equipmentId);
-                if (equipment == null || equipment.isMobile()) continue;
+                requested.put(eq.equipmentId, eq.quantity);
+            }
+            Map<Long, Equipment> equipments = findFixedEquipments(requested.keySet());
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                Equipment equipment = equipments.get(entry.getKey());
+                if (equipment == null) continue;
 
                 RoomEquipment re = new RoomEquipment();
                 re.setRoom(room);
                 re.setEquipment(equipment);
-                re.setQuantity(eq.quantity);
+                re.setQuantity(entry.getValue());
                 em.persist(re);
+                created.add(re);
             }
         }
 
         em.flush();
+        roomEvents.fire(RoomChangedEvent.saved(RoomSnapshot.of(room, created)));
         return room;
     }
 
@@ -74,34 +99,82 @@ public class RoomService {
             room.setImageUrl(dto.imageUrl);
         }
 
+        if (dto.equipmentWithQuantities != null) {
+            Map<Long, Integer> requested = new LinkedHashMap<>();
+            for (var eq : dto.equipmentWithQuantities) {
+                requested.put(eq.equipmentId, eq.quantity);
+            }
+            applyEquipmentDiff(room, findFixedEquipments(requested.keySet()), requested);
+        } else {
+            applyEquipmentDiff(room, Collections.emptyMap(), Collections.emptyMap());
+        }
+        room = em.createQuery(
+                        "SELECT r FROM Room r LEFT JOIN FETCH r.roomEquipments WHERE r.id = :id", Room.class)
+                .setParameter("id", room.getId())
+                .getSingleResult();
+
+        roomEvents.fire(RoomChangedEvent.saved(RoomSnapshot.of(room, room.getRoomEquipments())));
+        return room;
+    }
+
+    /**
+     * Équipements fixes existants parmi les identifiants demandés, en une requête
+     */
+    private Map<Long, Equipment> findFixedEquipments(Collection<Long> equipmentIds) {
+        Map<Long, Equipment> equipments = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (Long equipmentId : equipmentIds) {
+            if (equipmentId != null) {
+                ids.add(equipmentId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return equipments;
+        }
+        for (Equipment equipment : em.createQuery(
+                        "SELECT e FROM Equipment e WHERE e.id IN :ids AND e.mobile = false", Equipment.class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            equipments.put(equipment.getId(), equipment);
+        }
+        return equipments;
+    }
+
+    /**
+     * Aligne les équipements fixes de la salle sur la demande : seules les lignes ajoutées, modifiées
+     * ou retirées sont écrites, regroupées en lots JDBC au flush.
+     */
+    private void applyEquipmentDiff(Room room, Map<Long, Equipment> equipments, Map<Long, Integer> requested) {
         List<RoomEquipment> currentEquipments = em.createQuery(
-                        "SELECT re FROM RoomEquipment re WHERE re.room.id = :roomId", RoomEquipment.class)
+                        "SELECT re FROM RoomEquipment re LEFT JOIN FETCH re.equipment WHERE re.room.id = :roomId",
+                        RoomEquipment.class)
                 .setParameter("roomId", room.getId())
                 .getResultList();
 
+        Map<Long, RoomEquipment> current = new HashMap<>();
         for (RoomEquipment re : currentEquipments) {
-            em.remove(re);
+            Long equipmentId = re.getEquipment() != null ? re.getEquipment().getId() : null;
+            // Doublons ou lignes orphelines : supprimés
+            if (equipmentId == null || !equipments.containsKey(equipmentId) || current.containsKey(equipmentId)) {
+                em.remove(re);
+            } else {
+                current.put(equipmentId, re);
+            }
         }
 
-        if (dto.equipmentWithQuantities != null) {
-            for (var eq : dto.equipmentWithQuantities) {
-                Equipment equipment = em.find(Equipment.class, eq.equipmentId);
-                if (equipment == null || equipment.isMobile()) continue;
-
+        for (Map.Entry<Long, Equipment> entry : equipments.entrySet()) {
+            int quantity = requested.get(entry.getKey());
+            RoomEquipment existing = current.get(entry.getKey());
+            if (existing == null) {
                 RoomEquipment re = new RoomEquipment();
                 re.setRoom(room);
-                re.setEquipment(equipment);
-                re.setQuantity(eq.quantity);
+                re.setEquipment(entry.getValue());
+                re.setQuantity(quantity);
                 em.persist(re);
+            } else if (existing.getQuantity() == null || existing.getQuantity() != quantity) {
+                existing.setQuantity(quantity);
             }
         }
-
-        room = em.createQuery(
-                        "SELECT r FROM Room r LEFT JOIN FETCH r.roomEquipments WHERE r.id = :id", Room.class)
-                .setParameter("id", room.getId())
-                .getSingleResult();
-
-        return room;
     }
 
     @Transactional
@@ -136,10 +209,12 @@ public class RoomService {
             }
 
             em.remove(room);
+            roomEvents.fire(RoomChangedEvent.deleted(id));
         }
     }
 
     public Room getRoomByIdWithRelations(Long id) {
+        catalogCache.expireIfDue();
         return em.createQuery(
                         "SELECT r FROM Room r " +
                                 "WHERE r.id = :id", Room.class)
@@ -152,4 +227,34 @@ public class RoomService {
                         "SELECT r FROM Room r LEFT JOIN FETCH r.roomEquipments", Room.class)
                 .getResultList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Liste des salles projetée directement dans les DTO, en deux requêtes quel que soit le nombre de salles
+     */
+    public List<RoomResponseDTO> getRoomViews() {
+        catalogCache.expireIfDue();
+        List<RoomResponseDTO> rooms = new ArrayList<>();
+        Map<Long, RoomResponseDTO> byId = new HashMap<>();
+        for (Object[] row : em.createQuery(
+                        "SELECT r.id, r.name, r.capacity, r.imageUrl, r.building, r.floor, r.type FROM Room r ORDER BY r.id",
+                        Object[].class)
+                .setHint(CatalogCache.QUERY_CACHEABLE_HINT, true)
+                .getResultList()) {
+            RoomResponseDTO dto = RoomMapper.fromRow(row, 0);
+            rooms.add(dto);
+            byId.put(dto.id, dto);
+        }
+
+        for (Object[] row : em.createQuery(
+                        "SELECT re.id, re.room.id, re.equipment.id, re.quantity FROM RoomEquipment re", Object[].class)
+                .setHint(CatalogCache.QUERY_CACHEABLE_HINT, true)
+                .getResultList()) {
+            RoomEquipmentResponseDTO re = RoomMapper.roomEquipmentFromRow(row);
+            RoomResponseDTO room = byId.get(re.roomId);
+            if (room != null) {
+                room.roomEquipments.add(re);
+            }
+        }
+        return rooms;
+    }
+}
@@ -0,0 +1,55 @@
+package fr.ccm2.utils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class RecurrenceUtils {
+
+    private RecurrenceUtils() {
+        // Constructeur privé pour empêcher l'instanciation
+    }
+
+    /**
+     * Calcule les débuts d'occurrences d'une série hebdomadaire qui chevauchent [from, to).
+     * L'expansion démarre directement à la première occurrence utile : seules les occurrences de la fenêtre sont produites.
+     *
+     * @param from borne basse, null pour partir de la première occurrence
+     * @param to   borne haute, null pour aller jusqu'à la date de fin de la série
+     */
+    public static List<LocalDateTime> occurrenceStarts(LocalDateTime firstStart, LocalDateTime firstEnd, int intervalWeeks,
+                                                       LocalDate until, Set<LocalDate> exceptions,
+                                                       LocalDateTime from, LocalDateTime to) {
+        if (firstStart == null || firstEnd == null || until == null || intervalWeeks <= 0) {
+            return Collections.emptyList();
+        }
+
+        Duration duration = Duration.between(firstStart, firstEnd);
+        long periodMinutes = ChronoUnit.WEEKS.getDuration().toMinutes() * intervalWeeks;
+        long index = 0;
+        if (from != null && from.isAfter(firstEnd)) {
+            // Première occurrence i telle que firstEnd + i * période > from
+            index = ChronoUnit.MINUTES.between(firstEnd, from) / periodMinutes;
+        }
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (LocalDateTime start = firstStart.plusWeeks(index * intervalWeeks);
+             !start.toLocalDate().isAfter(until) && (to == null || start.isBefore(to));
+             start = start.plusWeeks(intervalWeeks)) {
+            LocalDateTime end = start.plus(duration);
+            if (from != null && !end.isAfter(from)) {
+                continue;
+            }
+            if (exceptions != null && exceptions.contains(start.toLocalDate())) {
+                continue;
+            }
+            starts.add(start);
+        }
+        return starts;
+    }
+}
@@ -1,3 +1,5 @@
+-- Jeu de données de développement, rejoué par Flyway après les migrations du schéma (profil dev uniquement)
+
 -- Équipements
 INSERT INTO equipment (id, name, description, quantity, mobile, image_url)
 SELECT *
@@ -60,64 +62,64 @@ FROM (VALUES (3, 6, 1),
 WHERE NOT EXISTS (SELECT 1 FROM room_equipment);
 
 -- Réservations
-INSERT INTO booking (title, start_time, end_time, attendees, organizer, room_id)
+INSERT INTO booking (id, title, start_time, end_time, attendees, organizer, room_id)
 SELECT *
-FROM (VALUES ('Cours de remédiation informatique', CURRENT_DATE - INTERVAL '10 days' + TIME '09:00',
+FROM (VALUES (1, 'Cours de remédiation informatique', CURRENT_DATE - INTERVAL '10 days' + TIME '09:00',
               CURRENT_DATE - INTERVAL '10 days' + TIME '11:00', 12, 'Alice Dupuis', 6),
-             ('Réunion de coordination pédagogique', CURRENT_DATE - INTERVAL '3 days' + TIME '14:00',
+             (2, 'Réunion de coordination pédagogique', CURRENT_DATE - INTERVAL '3 days' + TIME '14:00',
               CURRENT_DATE - INTERVAL '3 days' + TIME '16:00', 10, 'Jean Roy', 3),
-             ('Présentation de projet étudiant', CURRENT_DATE - INTERVAL '3 days' + TIME '09:00',
+             (3, 'Présentation de projet étudiant', CURRENT_DATE - INTERVAL '3 days' + TIME '09:00',
               CURRENT_DATE - INTERVAL '3 days' + TIME '10:30', 6, 'Carla Meunier', 1),
-             ('Réunion budgétaire départementale', CURRENT_DATE - INTERVAL '3 days' + TIME '11:00',
+             (4, 'Réunion budgétaire départementale', CURRENT_DATE - INTERVAL '3 days' + TIME '11:00',
               CURRENT_DATE - INTERVAL '3 days' + TIME '12:00', 14, 'Marc Petit', 4),
-             ('Brief du personnel enseignant', CURRENT_DATE - INTERVAL '7 days' + TIME '08:00',
+             (5, 'Brief du personnel enseignant', CURRENT_DATE - INTERVAL '7 days' + TIME '08:00',
               CURRENT_DATE - INTERVAL '7 days' + TIME '09:30', 9, 'Valérie Giraud', 7),
-             ('Séance photo pour l annuaire', CURRENT_DATE - INTERVAL '10 days' + TIME '11:30',
+             (6, 'Séance photo pour l annuaire', CURRENT_DATE - INTERVAL '10 days' + TIME '11:30',
               CURRENT_DATE - INTERVAL '10 days' + TIME '13:00', 5, 'Julien Besson', 9),
-             ('Enregistrement de capsule pédagogique', CURRENT_DATE - INTERVAL '10 days' + TIME '14:00',
+             (7, 'Enregistrement de capsule pédagogique', CURRENT_DATE - INTERVAL '10 days' + TIME '14:00',
               CURRENT_DATE - INTERVAL '10 days' + TIME '16:00', 4, 'Nina Dufour', 5),
-             ('Cours intensif Python – Licence 2', CURRENT_DATE + TIME '08:30', CURRENT_DATE + TIME '11:30', 18,
+             (8, 'Cours intensif Python – Licence 2', CURRENT_DATE + TIME '08:30', CURRENT_DATE + TIME '11:30', 18,
               'Lucie Morel', 2),
-             ('Réunion de l équipe enseignante', CURRENT_DATE + TIME '15:00', CURRENT_DATE + TIME '16:30', 8,
+             (9, 'Réunion de l équipe enseignante', CURRENT_DATE + TIME '15:00', CURRENT_DATE + TIME '16:30', 8,
               'David Colin', 7),
-             ('Essai de matériel audiovisuel', CURRENT_DATE + TIME '09:00', CURRENT_DATE + TIME '10:00', 6,
+             (10, 'Essai de matériel audiovisuel', CURRENT_DATE + TIME '09:00', CURRENT_DATE + TIME '10:00', 6,
               'Sandra Muller', 3),
-             ('Soutenance de projet de groupe', CURRENT_DATE + TIME '11:00', CURRENT_DATE + TIME '12:00', 20,
+             (11, 'Soutenance de projet de groupe', CURRENT_DATE + TIME '11:00', CURRENT_DATE + TIME '12:00', 20,
               'Olivier Henry', 8),
-             ('Révision du planning de cours', CURRENT_DATE + TIME '13:00', CURRENT_DATE + TIME '13:45', 2,
+             (12, 'Révision du planning de cours', CURRENT_DATE + TIME '13:00', CURRENT_DATE + TIME '13:45', 2,
               'Bruno Klein', 6),
-             ('Atelier de design graphique', CURRENT_DATE + TIME '14:00', CURRENT_DATE + TIME '15:30', 12,
+             (13, 'Atelier de design graphique', CURRENT_DATE + TIME '14:00', CURRENT_DATE + TIME '15:30', 12,
               'Anna Blanchard', 4),
-             ('Réunion administrative rapide', CURRENT_DATE + TIME '17:00', CURRENT_DATE + TIME '17:30', 5,
+             (14, 'Réunion administrative rapide', CURRENT_DATE + TIME '17:00', CURRENT_DATE + TIME '17:30', 5,
               'Camille Faure', 10),
-             ('Séminaire cybersécurité – Master 1', CURRENT_DATE + INTERVAL '5 days' + TIME '10:00',
+             (15, 'Séminaire cybersécurité – Master 1', CURRENT_DATE + INTERVAL '5 days' + TIME '10:00',
               CURRENT_DATE + INTERVAL '5 days' + TIME '12:30', 15, 'Nathalie Vasseur', 9),
-             ('Hackathon Intelligence Artificielle', CURRENT_DATE + INTERVAL '15 days' + TIME '09:00',
+             (16, 'Hackathon Intelligence Artificielle', CURRENT_DATE + INTERVAL '15 days' + TIME '09:00',
               CURRENT_DATE + INTERVAL '15 days' + TIME '18:00', 45, 'Eric Besson', 8),
-             ('Journée portes ouvertes - anciens élèves', CURRENT_DATE + INTERVAL '1 month' + TIME '10:00',
+             (17, 'Journée portes ouvertes - anciens élèves', CURRENT_DATE + INTERVAL '1 month' + TIME '10:00',
               CURRENT_DATE + INTERVAL '1 month' + TIME '16:00', 40, 'Claire Thibault', 10),
-             ('Conférence sur l expérience utilisateur', CURRENT_DATE + INTERVAL '1 month' + TIME '09:00',
+             (18, 'Conférence sur l expérience utilisateur', CURRENT_DATE + INTERVAL '1 month' + TIME '09:00',
               CURRENT_DATE + INTERVAL '1 month' + TIME '11:00', 20, 'Mélanie Robert', 5),
-             ('Coaching étudiant – développement personnel', CURRENT_DATE + INTERVAL '5 days' + TIME '14:00',
+             (19, 'Coaching étudiant – développement personnel', CURRENT_DATE + INTERVAL '5 days' + TIME '14:00',
               CURRENT_DATE + INTERVAL '5 days' + TIME '16:00', 10, 'Paul Lambert', 2),
-             ('Démo technique – club innovation', CURRENT_DATE + INTERVAL '5 days' + TIME '09:00',
+             (20, 'Démo technique – club innovation', CURRENT_DATE + INTERVAL '5 days' + TIME '09:00',
               CURRENT_DATE + INTERVAL '5 days' + TIME '09:45', 4, 'Sophie Aubry', 6),
-             ('Rencontre inter-filières', CURRENT_DATE + INTERVAL '15 days' + TIME '14:00',
+             (21, 'Rencontre inter-filières', CURRENT_DATE + INTERVAL '15 days' + TIME '14:00',
               CURRENT_DATE + INTERVAL '15 days' + TIME '16:00', 35, 'Jean-Marc Noël', 4),
-             ('Atelier développement Web', CURRENT_DATE + INTERVAL '2 days' + TIME '13:00',
+             (22, 'Atelier développement Web', CURRENT_DATE + INTERVAL '2 days' + TIME '13:00',
               CURRENT_DATE + INTERVAL '2 days' + TIME '17:00', 15, 'devadmin1', 10),
-             ('Démonstration outils cybersécurité', CURRENT_DATE + INTERVAL '7 days' + TIME '09:00',
+             (23, 'Démonstration outils cybersécurité', CURRENT_DATE + INTERVAL '7 days' + TIME '09:00',
               CURRENT_DATE + INTERVAL '7 days' + TIME '12:00', 12, 'devadmin1', 5),
-             ('Réunion projet frontend', CURRENT_DATE + INTERVAL '3 days' + TIME '10:00',
+             (24, 'Réunion projet frontend', CURRENT_DATE + INTERVAL '3 days' + TIME '10:00',
               CURRENT_DATE + INTERVAL '3 days' + TIME '11:30', 8, 'devadmin1', 7),
-             ('Formation React avancé', CURRENT_DATE + INTERVAL '10 days' + TIME '09:00',
+             (25, 'Formation React avancé', CURRENT_DATE + INTERVAL '10 days' + TIME '09:00',
               CURRENT_DATE + INTERVAL '10 days' + TIME '17:00', 20, 'devadmin1', 2),
-             ('Test rappel 1h', CURRENT_TIMESTAMP + INTERVAL '1 hour', CURRENT_TIMESTAMP + INTERVAL '2 hours', 5,
+             (26, 'Test rappel 1h', CURRENT_TIMESTAMP + INTERVAL '1 hour', CURRENT_TIMESTAMP + INTERVAL '2 hours', 5,
               'devadmin1', 3),
-             ('Test rappel 24h', CURRENT_TIMESTAMP + INTERVAL '24 hours', CURRENT_TIMESTAMP + INTERVAL '25 hours', 10,
+             (27, 'Test rappel 24h', CURRENT_TIMESTAMP + INTERVAL '24 hours', CURRENT_TIMESTAMP + INTERVAL '25 hours', 10,
               'admin.univ', 5),
-             ('Réunion importante', CURRENT_TIMESTAMP + INTERVAL '24 hours', CURRENT_TIMESTAMP + INTERVAL '26 hours', 8,
-              'devadmin1', 8)) AS vals(title, start_time, end_time, attendees, organizer, room_id)
+             (28, 'Réunion importante', CURRENT_TIMESTAMP + INTERVAL '24 hours', CURRENT_TIMESTAMP + INTERVAL '26 hours', 8,
+              'devadmin1', 8)) AS vals(id, title, start_time, end_time, attendees, organizer, room_id)
 WHERE NOT EXISTS (SELECT 1 FROM booking);
 
 -- Réservations d'équipements
@@ -186,20 +188,17 @@ VALUES
     (24, '24h', '2025-06-14 10:00:00', 'admin@example.com', 'Rappel: Votre réservation demain', 'Votre réservation "Réunion projet frontend" dans la salle D101 est prévue demain.', false, false),
     (25, '1h', CURRENT_TIMESTAMP - INTERVAL '5 minutes', 'admin@example.com', 'Votre réservation commence bientôt', 'Votre réservation "Test rappel 1h" dans la salle B201 commence dans moins d''une heure.', false, false);
 
--- Mise à jour de la séquence pour les IDs
-SELECT setval('sent_notifications_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM sent_notifications), 1));
-
--- Met à jour la séquence de la table room
-SELECT setval('room_id_seq', (SELECT COALESCE(MAX(id), 0) FROM room));
-
--- Met à jour la séquence de la table equipment
-SELECT setval('equipment_id_seq', (SELECT COALESCE(MAX(id), 0) FROM equipment));
-
--- Met à jour la séquence de la table room_equipment
-SELECT setval('room_equipment_id_seq', (SELECT COALESCE(MAX(id), 0) FROM room_equipment));
-
--- Met à jour la séquence de la table booking
-SELECT setval('booking_id_seq', (SELECT COALESCE(MAX(id), 0) FROM booking));
+-- Destinataire des notifications : organisateur de la réservation
+UPDATE sent_notifications n
+SET recipient = LOWER(b.organizer)
+FROM booking b
+WHERE b.id = n.booking_id
+  AND n.recipient IS NULL;
 
--- Met à jour la séquence de la table booking_equipment
-SELECT setval('booking_equipment_id_seq', (SELECT COALESCE(MAX(id), 0) FROM booking_equipment));
\ No newline at end of file
+-- Séquences (pas de 50, migration V5) positionnées après les identifiants insérés
+SELECT setval('equipment_seq', GREATEST((SELECT MAX(id) FROM equipment), 1));
+SELECT setval('room_seq', GREATEST((SELECT MAX(id) FROM room), 1));
+SELECT setval('room_equipment_seq', GREATEST((SELECT MAX(id) FROM room_equipment), 1));
+SELECT setval('booking_seq', GREATEST((SELECT MAX(id) FROM booking), 1));
+SELECT setval('booking_equipment_seq', GREATEST((SELECT MAX(id) FROM booking_equipment), 1));
+SELECT setval('sent_notifications_seq', GREATEST((SELECT MAX(id) FROM sent_notifications), 1));
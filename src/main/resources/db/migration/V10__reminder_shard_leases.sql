@@ -0,0 +1,21 @@
+-- Répartition des rappels entre les instances : chaque réservation appartient au shard MOD(id, nombre de shards),
+-- chaque shard est confié par bail à une seule instance vivante. Les dates sont celles du serveur PostgreSQL,
+-- pour ne pas dépendre de l'horloge des pods.
+
+-- Instances vivantes, d'après leur dernier battement
+CREATE TABLE IF NOT EXISTS reminder_worker
+(
+    owner        VARCHAR(128) NOT NULL PRIMARY KEY,
+    heartbeat_at TIMESTAMP(6) NOT NULL
+);
+
+-- Baux des shards ; une ligne par shard, créée par la première instance qui démarre
+CREATE TABLE IF NOT EXISTS reminder_shard_lease
+(
+    shard      INTEGER      NOT NULL PRIMARY KEY,
+    owner      VARCHAR(128),
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reminder_shard_lease_owner
+    ON reminder_shard_lease (owner);
@@ -0,0 +1,20 @@
+-- Objets ajoutés après le schéma de référence V1 par les séries récurrentes et la pagination par curseur.
+-- Une base de production marquée à V1 ne les a jamais reçus ; IF NOT EXISTS laisse intactes les bases
+-- de développement et de test qui les tenaient déjà de l'ancienne version de V1.
+
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS recurrence_interval_weeks INTEGER;
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS recurrence_until DATE;
+
+CREATE TABLE IF NOT EXISTS booking_exception_date
+(
+    booking_id     BIGINT NOT NULL,
+    exception_date DATE   NOT NULL,
+    PRIMARY KEY (booking_id, exception_date),
+    CONSTRAINT fk_booking_exception_date_booking FOREIGN KEY (booking_id) REFERENCES booking (id)
+);
+
+-- Pagination par curseur (startTime, id), toutes salles puis par salle
+CREATE INDEX IF NOT EXISTS idx_booking_start_id ON booking (start_time, id);
+CREATE INDEX IF NOT EXISTS idx_booking_room_start_id ON booking (room_id, start_time, id);
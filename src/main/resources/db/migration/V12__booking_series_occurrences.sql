@@ -0,0 +1,54 @@
+-- Matérialisation des séries récurrentes : chaque occurrence devient une ligne de booking, couverte par la
+-- contrainte d'exclusion (V2), les rappels, les listes et les exports sans expansion à la lecture.
+-- series_id vaut l'id de la première occurrence, qui garde la règle (intervalle, fin, dates d'exception).
+
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS series_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_booking_series ON booking (series_id);
+
+ALTER TABLE booking_archive
+    ADD COLUMN IF NOT EXISTS series_id BIGINT;
+
+UPDATE booking
+SET series_id = id
+WHERE recurrence_interval_weeks IS NOT NULL
+  AND series_id IS NULL;
+
+-- Occurrences suivantes des séries existantes, avec leurs équipements décalés d'autant.
+-- Une occurrence qui chevauche une autre réservation de la salle fait échouer la migration sur la
+-- contrainte d'exclusion : le conflit doit être résolu à la main avant de relancer.
+WITH occurrence AS (SELECT m.id                                   AS series_id,
+                           m.title,
+                           s                                      AS start_time,
+                           s + (m.end_time - m.start_time)        AS end_time,
+                           m.attendees,
+                           m.organizer,
+                           m.room_id
+                    FROM booking m
+                             CROSS JOIN LATERAL generate_series(
+                            m.start_time + make_interval(weeks => m.recurrence_interval_weeks),
+                            CAST(m.recurrence_until + 1 AS TIMESTAMP) - INTERVAL '1 microsecond',
+                            make_interval(weeks => m.recurrence_interval_weeks)) s
+                    WHERE m.series_id = m.id
+                      AND m.recurrence_interval_weeks > 0
+                      AND m.recurrence_until IS NOT NULL
+                      AND NOT EXISTS (SELECT 1 FROM booking o WHERE o.series_id = m.id AND o.id <> m.id)
+                      AND NOT EXISTS (SELECT 1
+                                      FROM booking_exception_date e
+                                      WHERE e.booking_id = m.id
+                                        AND e.exception_date = CAST(s AS DATE))),
+     inserted AS (
+         INSERT INTO booking (title, start_time, end_time, attendees, organizer, room_id, series_id)
+             SELECT title, start_time, end_time, attendees, organizer, room_id, series_id
+             FROM occurrence
+             RETURNING id, series_id, start_time)
+INSERT
+INTO booking_equipment (booking_id, equipment_id, quantity, start_time, end_time)
+SELECT i.id,
+       be.equipment_id,
+       be.quantity,
+       be.start_time + (i.start_time - m.start_time),
+       be.end_time + (i.start_time - m.start_time)
+FROM inserted i
+         JOIN booking m ON m.id = i.series_id
+         JOIN booking_equipment be ON be.booking_id = m.id;
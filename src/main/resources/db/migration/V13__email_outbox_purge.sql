@@ -0,0 +1,5 @@
+-- Purge des e-mails envoyés (EmailOutboxDispatcher.purgeSent) : lignes envoyées, des plus anciennes aux plus récentes.
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sent
+    ON email_outbox (sent_at)
+    WHERE status = 'SENT';
@@ -0,0 +1,72 @@
+-- Schéma de référence : tables telles que la production les a reçues d'Hibernate (database.generation=update).
+-- Une base de production existante est marquée à cette version (baseline-on-migrate) sans rejouer ce script :
+-- tout objet ajouté depuis doit venir d'une migration ultérieure, jamais de ce fichier.
+
+CREATE TABLE equipment
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    quantity    INTEGER NOT NULL,
+    mobile      BOOLEAN NOT NULL,
+    image_url   VARCHAR(255)
+);
+
+CREATE TABLE room
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      VARCHAR(255),
+    capacity  INTEGER,
+    building  VARCHAR(255),
+    floor     VARCHAR(255),
+    type      VARCHAR(255),
+    image_url VARCHAR(255)
+);
+
+CREATE TABLE room_equipment
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id      BIGINT,
+    equipment_id BIGINT,
+    quantity     INTEGER,
+    CONSTRAINT fk_room_equipment_room FOREIGN KEY (room_id) REFERENCES room (id),
+    CONSTRAINT fk_room_equipment_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id)
+);
+
+CREATE TABLE booking
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(255),
+    start_time  TIMESTAMP(6),
+    end_time    TIMESTAMP(6),
+    attendees   INTEGER,
+    organizer   VARCHAR(255),
+    room_id     BIGINT,
+    CONSTRAINT fk_booking_room FOREIGN KEY (room_id) REFERENCES room (id)
+);
+
+CREATE TABLE booking_equipment
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id   BIGINT,
+    equipment_id BIGINT,
+    quantity     INTEGER,
+    start_time   TIMESTAMP(6),
+    end_time     TIMESTAMP(6),
+    CONSTRAINT fk_booking_equipment_booking FOREIGN KEY (booking_id) REFERENCES booking (id),
+    CONSTRAINT fk_booking_equipment_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id)
+);
+
+CREATE TABLE sent_notifications
+(
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id        BIGINT,
+    notification_type VARCHAR(255) NOT NULL,
+    sent_at           TIMESTAMP(6) NOT NULL,
+    organizer_email   VARCHAR(255),
+    title             VARCHAR(255),
+    message           VARCHAR(1000),
+    read_status       BOOLEAN      NOT NULL,
+    deleted           BOOLEAN      NOT NULL,
+    CONSTRAINT fk_sent_notifications_booking FOREIGN KEY (booking_id) REFERENCES booking (id)
+);
@@ -0,0 +1,31 @@
+-- Interdit deux réservations d'une même salle sur des périodes qui se chevauchent.
+-- Reprend les instructions exécutées auparavant au démarrage ; elles restent idempotentes pour une base déjà initialisée.
+-- La contrainte est obligatoire : BookingService s'appuie sur elle pour accepter une réservation sans relire la base.
+
+-- Nécessaire pour combiner l'égalité sur room_id et le chevauchement de périodes dans un index GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS period tsrange
+        GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+DO
+$$
+    DECLARE
+        overlapping BIGINT;
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'booking_room_period_excl') THEN
+            -- Des chevauchements déjà présents en base font échouer la migration : ils sont à résoudre à la main
+            SELECT COUNT(*)
+            INTO overlapping
+            FROM booking a
+                     JOIN booking b ON b.room_id = a.room_id AND b.id > a.id AND b.period && a.period;
+            IF overlapping > 0 THEN
+                RAISE EXCEPTION 'Contrainte booking_room_period_excl impossible : % paires de réservations se chevauchent', overlapping
+                    USING HINT = 'SELECT a.id, b.id FROM booking a JOIN booking b ON b.room_id = a.room_id AND b.id > a.id AND b.period && a.period';
+            END IF;
+            ALTER TABLE booking
+                ADD CONSTRAINT booking_room_period_excl EXCLUDE USING gist (room_id WITH =, period WITH &&);
+        END IF;
+    END
+$$;
@@ -0,0 +1,19 @@
+-- Index des requêtes fréquentes (vérifiés par QueryPlanTest)
+
+-- Conflits de salle : room_id = ? AND end_time > ? AND start_time < ?
+CREATE INDEX IF NOT EXISTS idx_booking_room_period ON booking (room_id, start_time, end_time);
+
+-- Réservations et notifications d'un organisateur (comparaison insensible à la casse)
+CREATE INDEX IF NOT EXISTS idx_booking_organizer_lower ON booking (LOWER(organizer));
+
+-- Disponibilité d'un équipement sur une période
+CREATE INDEX IF NOT EXISTS idx_booking_equipment_equipment_period ON booking_equipment (equipment_id, start_time, end_time);
+
+-- Équipements réservés d'une page de réservations, suppression en cascade d'une réservation
+CREATE INDEX IF NOT EXISTS idx_booking_equipment_booking ON booking_equipment (booking_id);
+
+-- Équipements fixes des salles d'une page
+CREATE INDEX IF NOT EXISTS idx_room_equipment_room ON room_equipment (room_id);
+
+-- Rappel déjà envoyé pour une réservation et un type ; sert aussi la jointure depuis booking
+CREATE INDEX IF NOT EXISTS idx_sent_notifications_booking_type ON sent_notifications (booking_id, notification_type);
@@ -0,0 +1,15 @@
+-- Destinataire stocké sur la notification : la boîte de réception ne joint plus booking et n'applique plus LOWER()
+
+ALTER TABLE sent_notifications
+    ADD COLUMN IF NOT EXISTS recipient VARCHAR(255);
+
+-- Reprise des notifications existantes depuis l'organisateur de leur réservation
+UPDATE sent_notifications n
+SET recipient = LOWER(b.organizer)
+FROM booking b
+WHERE b.id = n.booking_id
+  AND n.recipient IS NULL;
+
+-- Boîte de réception, compteurs de non lues et marquage en lot
+CREATE INDEX IF NOT EXISTS idx_sent_notifications_inbox
+    ON sent_notifications (recipient, deleted, read_status, sent_at);
@@ -0,0 +1,34 @@
+-- Identifiants attribués par séquences à pas de 50 (optimiseur pooled d'Hibernate) à la place des colonnes IDENTITY,
+-- qui empêchaient le regroupement des insertions en lots JDBC.
+-- setval positionne chaque séquence sur le plus grand identifiant existant : le premier bloc réservé commence juste après.
+-- La valeur par défaut de la colonne permet encore les insertions SQL sans identifiant (données de développement, tests).
+
+CREATE SEQUENCE IF NOT EXISTS equipment_seq INCREMENT BY 50;
+SELECT setval('equipment_seq', GREATEST((SELECT MAX(id) FROM equipment), 1));
+ALTER TABLE equipment ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE equipment ALTER COLUMN id SET DEFAULT nextval('equipment_seq');
+
+CREATE SEQUENCE IF NOT EXISTS room_seq INCREMENT BY 50;
+SELECT setval('room_seq', GREATEST((SELECT MAX(id) FROM room), 1));
+ALTER TABLE room ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE room ALTER COLUMN id SET DEFAULT nextval('room_seq');
+
+CREATE SEQUENCE IF NOT EXISTS room_equipment_seq INCREMENT BY 50;
+SELECT setval('room_equipment_seq', GREATEST((SELECT MAX(id) FROM room_equipment), 1));
+ALTER TABLE room_equipment ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE room_equipment ALTER COLUMN id SET DEFAULT nextval('room_equipment_seq');
+
+CREATE SEQUENCE IF NOT EXISTS booking_seq INCREMENT BY 50;
+SELECT setval('booking_seq', GREATEST((SELECT MAX(id) FROM booking), 1));
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking ALTER COLUMN id SET DEFAULT nextval('booking_seq');
+
+CREATE SEQUENCE IF NOT EXISTS booking_equipment_seq INCREMENT BY 50;
+SELECT setval('booking_equipment_seq', GREATEST((SELECT MAX(id) FROM booking_equipment), 1));
+ALTER TABLE booking_equipment ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking_equipment ALTER COLUMN id SET DEFAULT nextval('booking_equipment_seq');
+
+CREATE SEQUENCE IF NOT EXISTS sent_notifications_seq INCREMENT BY 50;
+SELECT setval('sent_notifications_seq', GREATEST((SELECT MAX(id) FROM sent_notifications), 1));
+ALTER TABLE sent_notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sent_notifications ALTER COLUMN id SET DEFAULT nextval('sent_notifications_seq');
@@ -0,0 +1,75 @@
+-- Archives des réservations et notifications des périodes closes (ArchiveService).
+-- Les tables chaudes ne gardent que l'historique récent ; les archives sont partitionnées par mois
+-- sur start_time / sent_at pour que les lectures bornées dans le temps n'ouvrent que les mois concernés.
+-- Pas de clé étrangère depuis les archives : une salle ou un équipement supprimé n'y est pas bloqué.
+
+CREATE TABLE IF NOT EXISTS booking_archive
+(
+    id                        BIGINT       NOT NULL,
+    title                     VARCHAR(255),
+    start_time                TIMESTAMP(6) NOT NULL,
+    end_time                  TIMESTAMP(6),
+    attendees                 INTEGER,
+    organizer                 VARCHAR(255),
+    room_id                   BIGINT,
+    recurrence_interval_weeks INTEGER,
+    recurrence_until          DATE,
+    archived_at               TIMESTAMP(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+
+CREATE INDEX IF NOT EXISTS idx_booking_archive_room_start ON booking_archive (room_id, start_time);
+
+-- Partitionnée sur le début de la réservation (start_time de la ligne peut être vide)
+CREATE TABLE IF NOT EXISTS booking_equipment_archive
+(
+    id                 BIGINT       NOT NULL,
+    booking_id         BIGINT       NOT NULL,
+    equipment_id       BIGINT,
+    quantity           INTEGER,
+    start_time         TIMESTAMP(6),
+    end_time           TIMESTAMP(6),
+    booking_start_time TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, booking_start_time)
+) PARTITION BY RANGE (booking_start_time);
+
+CREATE INDEX IF NOT EXISTS idx_booking_equipment_archive_booking ON booking_equipment_archive (booking_id);
+
+CREATE TABLE IF NOT EXISTS booking_exception_date_archive
+(
+    booking_id     BIGINT NOT NULL,
+    exception_date DATE   NOT NULL,
+    PRIMARY KEY (booking_id, exception_date)
+);
+
+CREATE TABLE IF NOT EXISTS sent_notifications_archive
+(
+    id                BIGINT       NOT NULL,
+    booking_id        BIGINT,
+    notification_type VARCHAR(255) NOT NULL,
+    sent_at           TIMESTAMP(6) NOT NULL,
+    organizer_email   VARCHAR(255),
+    recipient         VARCHAR(255),
+    title             VARCHAR(255),
+    message           VARCHAR(1000),
+    read_status       BOOLEAN      NOT NULL,
+    deleted           BOOLEAN      NOT NULL,
+    archived_at       TIMESTAMP(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, sent_at)
+) PARTITION BY RANGE (sent_at);
+
+CREATE INDEX IF NOT EXISTS idx_sent_notifications_archive_recipient ON sent_notifications_archive (recipient, sent_at);
+
+-- Crée si besoin la partition mensuelle <parent>_AAAA_MM contenant le jour donné et renvoie son nom
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, day DATE) RETURNS TEXT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    first_day      DATE := date_trunc('month', day)::date;
+    partition_name TEXT := parent || '_' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent, first_day, (first_day + INTERVAL '1 month')::date);
+    RETURN partition_name;
+END
+$$;
@@ -0,0 +1,16 @@
+-- Un seul rappel automatique par réservation et par type : la ligne insérée avant l'envoi sert de réservation
+-- du rappel (ReminderService), deux passages concurrents ne peuvent pas envoyer le même e-mail.
+-- Les notifications manuelles (type "manual"...) restent multiples pour une même réservation.
+
+-- Doublons laissés par d'anciens passages concurrents : seul le premier envoi est conservé
+DELETE
+FROM sent_notifications n
+    USING sent_notifications first
+WHERE n.notification_type IN ('24h', '1h')
+  AND first.booking_id = n.booking_id
+  AND first.notification_type = n.notification_type
+  AND first.id < n.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_sent_notifications_reminder
+    ON sent_notifications (booking_id, notification_type)
+    WHERE notification_type IN ('24h', '1h');
@@ -0,0 +1,23 @@
+-- Boîte d'envoi des e-mails : écrite dans la transaction qui crée la notification, vidée par EmailOutboxDispatcher.
+-- next_attempt_at sert aussi de bail : une ligne prise par un envoi n'est reprise qu'après son expiration.
+
+CREATE SEQUENCE IF NOT EXISTS email_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGINT       NOT NULL DEFAULT nextval('email_outbox_seq') PRIMARY KEY,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255),
+    body            TEXT,
+    status          VARCHAR(16)  NOT NULL,
+    attempts        INTEGER      NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6),
+    last_error      VARCHAR(1000)
+);
+
+-- Lignes à envoyer, dans l'ordre de leur prochaine tentative
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending
+    ON email_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
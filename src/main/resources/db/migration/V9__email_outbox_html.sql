@@ -0,0 +1,4 @@
+-- Partie HTML des e-mails en attente : envoyés en multipart (texte + HTML) quand elle est renseignée.
+
+ALTER TABLE email_outbox
+    ADD COLUMN IF NOT EXISTS html_body TEXT;
@@ -0,0 +1,114 @@
+package fr.ccm2;
+
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.BookingEquipment;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.SentNotification;
+import fr.ccm2.services.ArchiveService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class ArchiveTest {
+
+    @Inject
+    ArchiveService archiveService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void testClosedPeriodsMoveToMonthlyPartitions() {
+        LocalDateTime start = archiveService.bookingCutoff().minusYears(1).withDayOfMonth(10).withHour(9);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            Room room = new Room();
+            room.setName("Salle archive");
+            room.setCapacity(10);
+            room.setImageUrl("");
+            entityManager.persist(room);
+
+            Equipment camera = new Equipment();
+            camera.setName("Caméra archive");
+            camera.setDescription("Mobile");
+            camera.setQuantity(1);
+            camera.setMobile(true);
+            entityManager.persist(camera);
+
+            Booking closed = booking(room, start);
+            closed.setRecurrenceIntervalWeeks(1);
+            closed.setRecurrenceUntil(start.toLocalDate().plusWeeks(3));
+            closed.getExceptionDates().add(start.toLocalDate().plusWeeks(1));
+            entityManager.persist(closed);
+
+            BookingEquipment be = new BookingEquipment();
+            be.setBooking(closed);
+            be.setEquipment(camera);
+            be.setQuantity(1);
+            be.setStartTime(closed.getStartTime());
+            be.setEndTime(closed.getEndTime());
+            entityManager.persist(be);
+
+            SentNotification reminder = new SentNotification(closed, "24h", "archive@example.com");
+            reminder.setSentAt(start.minusDays(1));
+            entityManager.persist(reminder);
+
+            // Réservation close mais encore citée par une notification récente : elle reste dans la table chaude
+            Booking referenced = booking(room, start.plusDays(1));
+            entityManager.persist(referenced);
+            entityManager.persist(new SentNotification(referenced, "manual", "archive@example.com"));
+
+            return new Long[]{closed.getId(), reminder.getId(), referenced.getId()};
+        });
+
+        archiveService.archiveClosedPeriods();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertNull(entityManager.find(Booking.class, ids[0]), "La réservation close doit quitter la table chaude");
+            assertNull(entityManager.find(SentNotification.class, ids[1]));
+            assertNotNull(entityManager.find(Booking.class, ids[2]), "Une réservation citée par une notification chaude reste");
+
+            assertEquals(1, count("SELECT COUNT(*) FROM booking_archive WHERE id = " + ids[0]));
+            assertEquals(1, count("SELECT COUNT(*) FROM booking_equipment_archive WHERE booking_id = " + ids[0]));
+            assertEquals(1, count("SELECT COUNT(*) FROM booking_exception_date_archive WHERE booking_id = " + ids[0]));
+            assertEquals(1, count("SELECT COUNT(*) FROM sent_notifications_archive WHERE id = " + ids[1]));
+
+            // Ligne rangée dans la partition de son mois
+            String month = start.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+            assertEquals(1, count("SELECT COUNT(*) FROM booking_archive_" + month + " WHERE id = " + ids[0]));
+            assertEquals(1, count("SELECT COUNT(*) FROM sent_notifications_archive_"
+                    + start.minusDays(1).format(DateTimeFormatter.ofPattern("yyyy_MM")) + " WHERE id = " + ids[1]));
+
+            // Une lecture bornée dans le temps n'ouvre que les partitions concernées
+            @SuppressWarnings("unchecked")
+            List<String> plan = entityManager.createNativeQuery(
+                            "EXPLAIN SELECT * FROM booking_archive WHERE start_time < '" + start.toLocalDate().withDayOfMonth(1) + "'")
+                    .getResultList();
+            assertTrue(plan.stream().noneMatch(line -> line.contains("booking_archive_" + month)), String.join("\n", plan));
+        });
+    }
+
+    private Booking booking(Room room, LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setTitle("Archive");
+        booking.setRoom(room);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusHours(1));
+        booking.setAttendees(2);
+        booking.setOrganizer("archive.test");
+        return booking;
+    }
+
+    private long count(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,192 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.booking.BookingCreateDTO;
+import fr.ccm2.dto.booking_equipment.BookingEquipmentCreateDTO;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.services.BookingService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class BookingAdmissionTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void testConcurrentBookingsOnSameRoomAdmitOnlyOne() throws Exception {
+        Long roomId = createRoom("Salle stress");
+        LocalDateTime start = LocalDateTime.now().plusYears(1).withNano(0);
+        LocalDateTime end = start.plusHours(2);
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        // Créneaux décalés d'une minute : tous se chevauchent deux à deux
+                        bookingService.createBooking(booking(roomId, start.plusMinutes(i), end.plusMinutes(i)));
+                        created.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Long persisted = QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery(
+                        "SELECT COUNT(b) FROM Booking b WHERE b.room.id = :roomId", Long.class)
+                .setParameter("roomId", roomId)
+                .getSingleResult());
+
+        assertEquals(1, created.get(), "Une seule réservation doit être acceptée");
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - 1, conflicts.get(), "Toutes les autres doivent être en conflit");
+        assertEquals(1L, persisted, "Une seule réservation doit être persistée pour la salle");
+    }
+
+    @Test
+    void testConcurrentBookingsOnDistinctRoomsAllSucceed() throws Exception {
+        List<Long> roomIds = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            roomIds.add(createRoom("Salle parallèle " + t));
+        }
+        LocalDateTime start = LocalDateTime.now().plusYears(1).plusDays(1).withNano(0);
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                return bookingService.createBooking(booking(roomId, start, start.plusHours(1)));
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            assertNotNull(future.get(60, TimeUnit.SECONDS), "Chaque salle distincte doit être réservée");
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void testAdmissionJoiningCallerTransactionHoldsLockUntilCommit() throws Exception {
+        Long firstRoomId = createRoom("Salle transaction appelante 1");
+        Long secondRoomId = createRoom("Salle transaction appelante 2");
+        Long projectorId = createMobileEquipment("Projecteur unique");
+        LocalDateTime start = LocalDateTime.now().plusYears(1).plusDays(2).withNano(0);
+
+        CountDownLatch firstAdmitted = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // La première réservation rejoint une transaction qui reste ouverte après la fin de l'admission
+        Future<?> first = executor.submit(() -> {
+            QuarkusTransaction.requiringNew().run(() -> {
+                bookingService.createBooking(withEquipment(booking(firstRoomId, start, start.plusHours(1)), projectorId));
+                firstAdmitted.countDown();
+                try {
+                    commitFirst.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return null;
+        });
+        assertTrue(firstAdmitted.await(30, TimeUnit.SECONDS));
+
+        // Autre salle, même équipement mobile : aucune contrainte en base ne sépare les deux demandes
+        Future<?> second = executor.submit(() ->
+                bookingService.createBooking(withEquipment(booking(secondRoomId, start, start.plusHours(1)), projectorId)));
+        Thread.sleep(500);
+        assertFalse(second.isDone(), "La seconde demande attend le commit de la première");
+
+        commitFirst.countDown();
+        first.get(30, TimeUnit.SECONDS);
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> second.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, rejected.getCause());
+        executor.shutdown();
+    }
+
+    private Long createRoom(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Room room = new Room();
+            room.setName(name);
+            room.setCapacity(10);
+            room.setImageUrl("");
+            entityManager.persist(room);
+            entityManager.flush();
+            return room.getId();
+        });
+    }
+
+    private Long createMobileEquipment(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Equipment equipment = new Equipment();
+            equipment.setName(name);
+            equipment.setDescription("Mobile");
+            equipment.setQuantity(1);
+            equipment.setMobile(true);
+            entityManager.persist(equipment);
+            entityManager.flush();
+            return equipment.getId();
+        });
+    }
+
+    private BookingCreateDTO withEquipment(BookingCreateDTO dto, Long equipmentId) {
+        BookingEquipmentCreateDTO equipment = new BookingEquipmentCreateDTO();
+        equipment.equipmentId = equipmentId;
+        equipment.quantity = 1;
+        equipment.startTime = dto.startTime;
+        equipment.endTime = dto.endTime;
+        dto.bookingEquipments = List.of(equipment);
+        return dto;
+    }
+
+    private BookingCreateDTO booking(Long roomId, LocalDateTime start, LocalDateTime end) {
+        BookingCreateDTO dto = new BookingCreateDTO();
+        dto.title = "Test concurrence";
+        dto.roomId = roomId;
+        dto.startTime = start;
+        dto.endTime = end;
+        dto.attendees = 5;
+        dto.organizer = "stress.test";
+        return dto;
+    }
+}
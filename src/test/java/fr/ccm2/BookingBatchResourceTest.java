@@ -0,0 +1,106 @@
+package fr.ccm2;
+
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+class BookingBatchResourceTest {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    @TestSecurity(user = "batch.test", roles = "user")
+    void testBatchReturnsOneResultPerItem() {
+        Long equipmentId = createMobileEquipment("Caméra lot", 1);
+        LocalDateTime start = LocalDateTime.now().plusYears(4).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        // La caméra n'est prise que de 10h15 à 10h45 par le premier élément
+        Map<String, Object> accepted = booking(createRoom("Salle lot A"), start, start.plusHours(1),
+                equipment(equipmentId, start.plusMinutes(15), start.plusMinutes(45)));
+        // Commence à la fin de cette fenêtre, et non à celle de la réservation : accepté
+        Map<String, Object> afterWindow = booking(createRoom("Salle lot B"), start.plusMinutes(45), start.plusMinutes(90),
+                equipment(equipmentId, null, null));
+        Map<String, Object> conflict = booking(createRoom("Salle lot C"), start.plusMinutes(30), start.plusHours(1),
+                equipment(equipmentId, null, null));
+        Map<String, Object> unknown = booking(createRoom("Salle lot D"), start, start.plusHours(1),
+                equipment(Long.MAX_VALUE, null, null));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(accepted, afterWindow, conflict, unknown))
+                .when().post("/bookings/batch")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(2))
+                .body("rejected", equalTo(2))
+                .body("results.index", contains(0, 1, 2, 3))
+                .body("results.status", contains("CREATED", "CREATED", "CONFLICT", "INVALID"))
+                .body("results[0].bookingId", notNullValue())
+                .body("results[2].message", containsString("Caméra lot"))
+                .body("results[3].message", containsString(String.valueOf(Long.MAX_VALUE)));
+    }
+
+    // Corps JSON tel que l'envoie le front : dates ISO locales
+    private Map<String, Object> booking(Long roomId, LocalDateTime start, LocalDateTime end, Map<String, Object> equipment) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("title", "Lot");
+        dto.put("roomId", roomId);
+        dto.put("startTime", start.toString());
+        dto.put("endTime", end.toString());
+        dto.put("attendees", 2);
+        dto.put("bookingEquipments", List.of(equipment));
+        return dto;
+    }
+
+    private Map<String, Object> equipment(Long equipmentId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("equipmentId", equipmentId);
+        dto.put("quantity", 1);
+        if (start != null) {
+            dto.put("startTime", start.toString());
+            dto.put("endTime", end.toString());
+        }
+        return dto;
+    }
+
+    private Long createMobileEquipment(String name, int quantity) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Equipment equipment = new Equipment();
+            equipment.setName(name);
+            equipment.setDescription("Mobile");
+            equipment.setQuantity(quantity);
+            equipment.setMobile(true);
+            entityManager.persist(equipment);
+            entityManager.flush();
+            return equipment.getId();
+        });
+    }
+
+    private Long createRoom(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Room room = new Room();
+            room.setName(name);
+            room.setCapacity(10);
+            room.setImageUrl("");
+            entityManager.persist(room);
+            entityManager.flush();
+            return room.getId();
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.booking.BookingCreateDTO;
+import fr.ccm2.dto.booking.RecurrenceDTO;
+import fr.ccm2.dto.booking_equipment.BookingEquipmentCreateDTO;
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.services.BookingService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class BookingSeriesTest {
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void testSeriesOccurrencesAreRowsCoveredByTheRoomConstraint() {
+        Long roomId = createRoom("Salle série");
+        LocalDateTime start = LocalDateTime.now().plusYears(3).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        Booking master = bookingService.createBooking(series(roomId, start, 4));
+
+        List<Booking> occurrences = bookingService.getOccurrences(master.getId(), null, null);
+        assertEquals(4, occurrences.size(), "Une ligne par occurrence, date d'exception exclue");
+        for (Booking occurrence : occurrences) {
+            assertEquals(master.getId(), occurrence.getSeriesId());
+        }
+        assertEquals(start.plusWeeks(2), occurrences.get(1).getStartTime());
+
+        // Une réservation simple sur une occurrence future est refusée comme sur la première
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(single(roomId, start.plusWeeks(3), start.plusWeeks(3).plusHours(1))));
+        // La date d'exception reste libre
+        assertNotNull(bookingService.createBooking(single(roomId, start.plusWeeks(1), start.plusWeeks(1).plusHours(1))));
+    }
+
+    @Test
+    void testCancelOccurrenceRejectsDatesOutsideTheSeries() {
+        Long roomId = createRoom("Salle annulation");
+        LocalDateTime start = LocalDateTime.now().plusYears(3).plusDays(1).withHour(14).withMinute(0).withSecond(0).withNano(0);
+        Booking master = bookingService.createBooking(series(roomId, start, 4));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.cancelOccurrence(master.getId(), start.toLocalDate().plusDays(3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.cancelOccurrence(master.getId(), start.toLocalDate().plusWeeks(1)),
+                "Une date d'exception n'est plus une occurrence");
+
+        bookingService.cancelOccurrence(master.getId(), start.toLocalDate().plusWeeks(2));
+        assertEquals(3, bookingService.getOccurrences(master.getId(), null, null).size());
+        assertNotNull(bookingService.createBooking(single(roomId, start.plusWeeks(2), start.plusWeeks(2).plusHours(1))),
+                "Le créneau annulé est libéré");
+    }
+
+    @Test
+    void testSeriesReservesShiftedEquipmentForEachOccurrence() {
+        Long roomId = createRoom("Salle série équipée");
+        Long otherRoomId = createRoom("Salle voisine");
+        Long equipmentId = createMobileEquipment("Caméra série", 1);
+        LocalDateTime start = LocalDateTime.now().plusYears(3).plusDays(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        BookingCreateDTO dto = series(roomId, start, 3);
+        BookingEquipmentCreateDTO camera = new BookingEquipmentCreateDTO();
+        camera.equipmentId = equipmentId;
+        camera.quantity = 1;
+        camera.startTime = start.plusMinutes(15);
+        camera.endTime = start.plusMinutes(45);
+        dto.bookingEquipments = List.of(camera);
+        Booking master = bookingService.createBooking(dto);
+
+        List<Object[]> reserved = QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery(
+                        "SELECT be.booking.startTime, be.startTime, be.endTime FROM BookingEquipment be " +
+                                "WHERE be.booking.seriesId = :seriesId ORDER BY be.startTime", Object[].class)
+                .setParameter("seriesId", master.getId())
+                .getResultList());
+        assertEquals(3, reserved.size(), "Une réservation d'équipement par occurrence");
+        for (Object[] row : reserved) {
+            LocalDateTime occurrenceStart = (LocalDateTime) row[0];
+            assertEquals(occurrenceStart.plusMinutes(15), row[1], "Fenêtre décalée comme l'occurrence");
+            assertEquals(occurrenceStart.plusMinutes(45), row[2]);
+        }
+
+        // La seule caméra est prise à chaque occurrence, mais libre à la date d'exception
+        BookingCreateDTO clash = single(otherRoomId, start.plusWeeks(2), start.plusWeeks(2).plusHours(1));
+        clash.bookingEquipments = List.of(equipmentRequest(equipmentId));
+        assertThrows(IllegalStateException.class, () -> bookingService.createBooking(clash));
+        BookingCreateDTO free = single(otherRoomId, start.plusWeeks(1), start.plusWeeks(1).plusHours(1));
+        free.bookingEquipments = List.of(equipmentRequest(equipmentId));
+        assertNotNull(bookingService.createBooking(free));
+    }
+
+    private BookingEquipmentCreateDTO equipmentRequest(Long equipmentId) {
+        BookingEquipmentCreateDTO dto = new BookingEquipmentCreateDTO();
+        dto.equipmentId = equipmentId;
+        dto.quantity = 1;
+        return dto;
+    }
+
+    private Long createMobileEquipment(String name, int quantity) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Equipment equipment = new Equipment();
+            equipment.setName(name);
+            equipment.setDescription("Mobile");
+            equipment.setQuantity(quantity);
+            equipment.setMobile(true);
+            entityManager.persist(equipment);
+            entityManager.flush();
+            return equipment.getId();
+        });
+    }
+
+    // Série hebdomadaire de weeks + 1 semaines, sans la deuxième
+    private BookingCreateDTO series(Long roomId, LocalDateTime start, int weeks) {
+        BookingCreateDTO dto = single(roomId, start, start.plusHours(1));
+        dto.recurrence = new RecurrenceDTO();
+        dto.recurrence.intervalWeeks = 1;
+        dto.recurrence.until = start.toLocalDate().plusWeeks(weeks);
+        dto.recurrence.exceptionDates = List.of(start.toLocalDate().plusWeeks(1));
+        return dto;
+    }
+
+    private BookingCreateDTO single(Long roomId, LocalDateTime start, LocalDateTime end) {
+        BookingCreateDTO dto = new BookingCreateDTO();
+        dto.title = "Série";
+        dto.roomId = roomId;
+        dto.startTime = start;
+        dto.endTime = end;
+        dto.attendees = 2;
+        dto.organizer = "series.test";
+        return dto;
+    }
+
+    private Long createRoom(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Room room = new Room();
+            room.setName(name);
+            room.setCapacity(10);
+            room.setImageUrl("");
+            entityManager.persist(room);
+            entityManager.flush();
+            return room.getId();
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package fr.ccm2;
+
+import fr.ccm2.entities.EmailOutbox;
+import fr.ccm2.services.EmailOutboxDispatcher;
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class EmailOutboxTest {
+
+    @Inject
+    EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    MockMailbox mailbox;
+
+    @Test
+    void testEmailIsSentOnlyAfterCommit() {
+        String recipient = "outbox.commit@example.com";
+        Long id = QuarkusTransaction.requiringNew().call(
+                () -> emailOutboxDispatcher.enqueue(recipient, "Sujet", "Corps").getId());
+        assertTrue(mailbox.getMailsSentTo(recipient) == null || mailbox.getMailsSentTo(recipient).isEmpty(),
+                "Rien n'est envoyé dans la transaction de l'appelant");
+
+        emailOutboxDispatcher.dispatchDue();
+
+        assertEquals(1, mailbox.getMailsSentTo(recipient).size());
+        EmailOutbox sent = QuarkusTransaction.requiringNew().call(() -> entityManager.find(EmailOutbox.class, id));
+        assertEquals(EmailOutbox.SENT, sent.getStatus());
+        assertEquals(1, sent.getAttempts());
+        assertNotNull(sent.getSentAt());
+
+        // Une ligne envoyée n'est pas reprise
+        emailOutboxDispatcher.dispatchDue();
+        assertEquals(1, mailbox.getMailsSentTo(recipient).size());
+    }
+
+    @Test
+    void testRolledBackEmailIsNeverSent() {
+        String recipient = "outbox.rollback@example.com";
+        assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            emailOutboxDispatcher.enqueue(recipient, "Sujet", "Corps");
+            throw new IllegalStateException("Annulation");
+        }));
+
+        emailOutboxDispatcher.dispatchDue();
+
+        assertTrue(mailbox.getMailsSentTo(recipient) == null || mailbox.getMailsSentTo(recipient).isEmpty());
+    }
+
+    @Test
+    void testSentEmailsArePurgedAfterRetention() {
+        Long old = enqueueAndSend("outbox.purge.old@example.com");
+        Long recent = enqueueAndSend("outbox.purge.recent@example.com");
+        QuarkusTransaction.requiringNew().run(() ->
+                entityManager.find(EmailOutbox.class, old).setSentAt(LocalDateTime.now().minusDays(30)));
+
+        assertTrue(emailOutboxDispatcher.purgeSent() >= 1);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertNull(entityManager.find(EmailOutbox.class, old), "Ligne envoyée au-delà de la rétention");
+            assertNotNull(entityManager.find(EmailOutbox.class, recent), "Ligne récente conservée");
+        });
+    }
+
+    private Long enqueueAndSend(String recipient) {
+        Long id = QuarkusTransaction.requiringNew().call(
+                () -> emailOutboxDispatcher.enqueue(recipient, "Sujet", "Corps").getId());
+        emailOutboxDispatcher.dispatchDue();
+        return id;
+    }
+}
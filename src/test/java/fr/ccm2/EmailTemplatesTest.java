@@ -0,0 +1,121 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.reminder.ReminderEmailDTO;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.RoomEquipment;
+import fr.ccm2.services.EmailOutboxDispatcher;
+import fr.ccm2.services.EmailTemplates;
+import fr.ccm2.services.RoomCatalog;
+import io.quarkus.mailer.Mail;
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class EmailTemplatesTest {
+
+    @Inject
+    EmailTemplates emailTemplates;
+
+    @Inject
+    EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Inject
+    RoomCatalog roomCatalog;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    MockMailbox mailbox;
+
+    @Test
+    void testRemindersAreRenderedWithoutDatabaseAccess() {
+        Room room = seedRoom();
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        EmailTemplates.RenderedEmail advance = null;
+        for (int i = 0; i < 100; i++) {
+            advance = emailTemplates.advanceReminder(reminder("Revue <sprint> " + i), room);
+        }
+        EmailTemplates.RenderedEmail imminent = emailTemplates.imminentReminder(reminder("Revue"), room);
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "La partie salle vient du catalogue en mémoire");
+        assertTrue(advance.text.contains("Titre: Revue <sprint> 99"));
+        assertTrue(advance.text.contains("Salle: Salle gabarit"));
+        assertTrue(advance.text.contains("- Vidéoprojecteur gabarit"));
+        assertTrue(advance.text.contains("Durée: 90 minutes"));
+        assertTrue(advance.html.contains("Revue &lt;sprint&gt; 99"), "Le HTML échappe les saisies");
+        assertTrue(advance.html.contains("<li>Vidéoprojecteur gabarit</li>"));
+        assertTrue(imminent.text.contains("Instructions d'accès: Accès par l'entrée principale"));
+        assertTrue(imminent.html.contains("/rooms/" + room.getId()));
+    }
+
+    @Test
+    void testEmailIsSentAsTextAndHtml() {
+        String recipient = "templates.multipart@example.com";
+        EmailTemplates.RenderedEmail body = emailTemplates.notification("Fermeture", "Bâtiment A fermé");
+        QuarkusTransaction.requiringNew().run(() ->
+                emailOutboxDispatcher.enqueue(recipient, "Fermeture", body.text, body.html));
+
+        emailOutboxDispatcher.dispatchDue();
+
+        List<Mail> mails = mailbox.getMailsSentTo(recipient);
+        assertEquals(1, mails.size());
+        assertTrue(mails.get(0).getText().contains("Bâtiment A fermé"));
+        assertTrue(mails.get(0).getHtml().contains("<h2>Fermeture</h2>"));
+    }
+
+    private ReminderEmailDTO reminder(String title) {
+        ReminderEmailDTO reminder = new ReminderEmailDTO();
+        reminder.organizerName = "Camille Martin";
+        reminder.title = title;
+        reminder.date = "02/03/2095 10:00";
+        reminder.startTime = "10:00";
+        reminder.durationMinutes = 90;
+        reminder.attendees = 4;
+        return reminder;
+    }
+
+    private Room seedRoom() {
+        Room room = QuarkusTransaction.requiringNew().call(() -> {
+            Equipment equipment = new Equipment();
+            equipment.setName("Vidéoprojecteur gabarit");
+            equipment.setDescription("Fixe");
+            equipment.setQuantity(1);
+            entityManager.persist(equipment);
+
+            Room created = new Room();
+            created.setName("Salle gabarit");
+            created.setCapacity(12);
+            created.setBuilding("A");
+            created.setFloor("2");
+            created.setImageUrl("");
+            entityManager.persist(created);
+
+            RoomEquipment roomEquipment = new RoomEquipment();
+            roomEquipment.setRoom(created);
+            roomEquipment.setEquipment(equipment);
+            roomEquipment.setQuantity(1);
+            entityManager.persist(roomEquipment);
+            return created;
+        });
+        roomCatalog.reload();
+        return room;
+    }
+}
@@ -0,0 +1,61 @@
+package fr.ccm2;
+
+import fr.ccm2.services.EquipmentReservationLedger;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquipmentReservationLedgerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    @Test
+    void testPeakIgnoresReservationsThatDoNotOverlapEachOther() {
+        EquipmentReservationLedger.Timeline timeline = new EquipmentReservationLedger.Timeline();
+        timeline.add(DAY.withHour(8), DAY.withHour(10), 3);
+        timeline.add(DAY.withHour(10), DAY.withHour(12), 2);
+
+        // Une somme des réservations chevauchant 8h-12h donnerait 5
+        assertEquals(3, timeline.peak(DAY.withHour(8), DAY.withHour(12)));
+        assertEquals(2, timeline.peak(DAY.withHour(10), DAY.withHour(11)));
+        assertEquals(0, timeline.peak(DAY.withHour(12), DAY.withHour(13)));
+    }
+
+    @Test
+    void testPeakCountsConcurrentReservations() {
+        EquipmentReservationLedger.Timeline timeline = new EquipmentReservationLedger.Timeline();
+        timeline.add(DAY.withHour(8), DAY.withHour(12), 1);
+        timeline.add(DAY.withHour(9), DAY.withHour(10), 2);
+        timeline.add(DAY.withHour(11), DAY.withHour(14), 4);
+
+        assertEquals(5, timeline.peak(DAY.withHour(8), DAY.withHour(14)));
+        assertEquals(3, timeline.peak(DAY.withHour(9), DAY.withHour(11)));
+    }
+
+    @Test
+    void testRemovingReservationRestoresLevels() {
+        EquipmentReservationLedger.Timeline timeline = new EquipmentReservationLedger.Timeline();
+        timeline.add(DAY.withHour(8), DAY.withHour(12), 1);
+        timeline.add(DAY.withHour(9), DAY.withHour(10), 2);
+        timeline.add(DAY.withHour(9), DAY.withHour(10), -2);
+
+        assertEquals(1, timeline.peak(DAY.withHour(8), DAY.withHour(12)));
+    }
+
+    @Test
+    void testEvictionDropsEndedLevelsAndIgnoresLateRemovals() {
+        EquipmentReservationLedger.Timeline timeline = new EquipmentReservationLedger.Timeline();
+        timeline.add(DAY.withHour(8), DAY.withHour(9), 2);
+        timeline.add(DAY.withHour(8), DAY.withHour(12), 1);
+
+        assertEquals(2, timeline.evictBefore(DAY.withHour(10)));
+        assertEquals(1, timeline.peak(DAY.withHour(10), DAY.withHour(12)));
+
+        // Annulation tardive d'une réservation qui commençait avant la purge : seule la partie conservée compte
+        timeline.add(DAY.withHour(8), DAY.withHour(12), -1);
+        assertEquals(0, timeline.peak(DAY.withHour(10), DAY.withHour(12)));
+        assertTrue(timeline.isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package fr.ccm2;
+
+import fr.ccm2.services.OrganizerContactCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganizerContactCacheTest {
+
+    @Test
+    void testEntriesExpireAfterTheirTtl() {
+        AtomicLong clock = new AtomicLong();
+        OrganizerContactCache.TtlLruCache<String, String> cache = new OrganizerContactCache.TtlLruCache<>(10, clock::get);
+        cache.put("alice", "alice@example.com", Duration.ofMinutes(30));
+
+        clock.set(Duration.ofMinutes(29).toMillis());
+        assertEquals("alice@example.com", cache.get("alice").getValue());
+        clock.set(Duration.ofMinutes(30).toMillis());
+        assertNull(cache.get("alice"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testUnknownUserIsCachedDistinctlyFromMissingEntry() {
+        AtomicLong clock = new AtomicLong();
+        OrganizerContactCache.TtlLruCache<String, String> cache = new OrganizerContactCache.TtlLruCache<>(10, clock::get);
+        cache.put("inconnu", null, Duration.ofMinutes(5));
+
+        // Absence connue : entrée présente, valeur nulle
+        assertNotNull(cache.get("inconnu"));
+        assertNull(cache.get("inconnu").getValue());
+        assertNull(cache.get("jamais-vu"));
+
+        clock.set(Duration.ofMinutes(5).toMillis());
+        assertNull(cache.get("inconnu"));
+    }
+
+    @Test
+    void testLeastRecentlyReadEntryIsEvicted() {
+        OrganizerContactCache.TtlLruCache<String, String> cache = new OrganizerContactCache.TtlLruCache<>(2, () -> 0L);
+        cache.put("alice", "a", Duration.ofMinutes(30));
+        cache.put("bob", "b", Duration.ofMinutes(30));
+        cache.get("alice");
+        cache.put("carol", "c", Duration.ofMinutes(30));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("alice"));
+        assertNull(cache.get("bob"));
+        assertNotNull(cache.get("carol"));
+    }
+}
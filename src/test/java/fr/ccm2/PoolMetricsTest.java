@@ -0,0 +1,67 @@
+package fr.ccm2;
+
+import fr.ccm2.entities.Room;
+import fr.ccm2.services.PoolMetrics;
+import fr.ccm2.services.ReactiveReadService;
+import fr.ccm2.services.RequestEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class PoolMetricsTest {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    ReactiveReadService reactiveReadService;
+
+    @Test
+    void testConnectionWaitIsRecordedForEachSession() {
+        long before = waitCount();
+
+        QuarkusTransaction.requiringNew().run(() ->
+                entityManager.createQuery("SELECT COUNT(r) FROM Room r", Long.class).getSingleResult());
+        QuarkusTransaction.requiringNew().run(() -> entityManager.find(Room.class, -1L));
+
+        assertTrue(waitCount() >= before + 2, "Une mesure par connexion obtenue");
+    }
+
+    @Test
+    void testReactiveReadsAreTimed() {
+        long before = reactiveQueryCount();
+
+        reactiveReadService.countUserNotifications("metrics.user", null, null).await().indefinitely();
+        reactiveReadService.getUserNotifications("metrics.user", null, null, 10, 0).await().indefinitely();
+
+        assertEquals(before + 2, reactiveQueryCount(), "Une mesure par requête réactive");
+    }
+
+    @Test
+    void testPoolGaugesArePublished() {
+        for (String gauge : new String[]{"db.pool.active", "db.pool.idle", "db.pool.pending", "db.pool.leaks", "db.pool.max-size"}) {
+            assertNotNull(registry.find(gauge).gauge(), gauge);
+        }
+        assertTrue(registry.get("db.pool.max-size").gauge().value() > 0);
+    }
+
+    private long reactiveQueryCount() {
+        Timer timer = registry.find(PoolMetrics.REACTIVE_QUERY_TIMER).tag("endpoint", RequestEndpoint.BACKGROUND).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private long waitCount() {
+        Timer timer = registry.find(PoolMetrics.WAIT_TIMER).tag("endpoint", RequestEndpoint.BACKGROUND).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,229 @@
+package fr.ccm2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.ccm2.services.BookingService;
+import fr.ccm2.services.NotificationService;
+import fr.ccm2.services.ReactiveReadService;
+import fr.ccm2.services.ReminderService;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exécute les chemins de lecture fréquents, capture le SQL généré par Hibernate ou envoyé par le client réactif
+ * et vérifie par EXPLAIN (enable_seqscan = off) que chaque table volumineuse est atteinte par une condition d'index.
+ */
+@QuarkusTest
+class QueryPlanTest {
+
+    // Salles et équipements (petit catalogue en cache) peuvent être parcourus entièrement
+    private static final Set<String> INDEXED_TABLES = Set.of(
+            "booking", "booking_equipment", "booking_exception_date", "room_equipment", "sent_notifications");
+
+    private static final LocalDateTime SEED_START = LocalDateTime.of(2090, 1, 2, 8, 0);
+    private static final int SEED_ROOMS = 20;
+    private static final int SEED_BOOKINGS_PER_ROOM = 100;
+    private static final int SEED_ORGANIZERS = 50;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    ReactiveReadService reactiveReadService;
+
+    @Inject
+    NotificationService notificationService;
+
+    @Inject
+    ReminderService reminderService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM room WHERE name LIKE 'Plan %'")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    return;
+                }
+            }
+
+            statement.execute("INSERT INTO room (name, capacity, building, floor, type, image_url) " +
+                    "SELECT 'Plan ' || i, 20, 'P', '1er', 'STANDARD', '' FROM generate_series(1, " + SEED_ROOMS + ") i");
+            statement.execute("INSERT INTO equipment (name, description, quantity, mobile, image_url) " +
+                    "VALUES ('Plan projecteur', 'Plan', 1000, true, '')");
+            statement.execute("INSERT INTO room_equipment (room_id, equipment_id, quantity) " +
+                    "SELECT r.id, e.id, 1 FROM room r, equipment e WHERE r.name LIKE 'Plan %' AND e.name = 'Plan projecteur'");
+            try (PreparedStatement bookings = connection.prepareStatement(
+                    "INSERT INTO booking (title, start_time, end_time, attendees, organizer, room_id) " +
+                            "SELECT 'Plan ' || h, CAST(? AS timestamp) + h * INTERVAL '1 hour', " +
+                            "CAST(? AS timestamp) + (h + 1) * INTERVAL '1 hour', 5, 'Plan.User' || (h % " + SEED_ORGANIZERS + "), r.id " +
+                            "FROM room r CROSS JOIN generate_series(0, " + (SEED_BOOKINGS_PER_ROOM - 1) + ") h " +
+                            "WHERE r.name LIKE 'Plan %'")) {
+                bookings.setObject(1, SEED_START);
+                bookings.setObject(2, SEED_START);
+                bookings.executeUpdate();
+            }
+            statement.execute("INSERT INTO booking_equipment (booking_id, equipment_id, quantity, start_time, end_time) " +
+                    "SELECT b.id, e.id, 1, b.start_time, b.end_time FROM booking b, equipment e " +
+                    "WHERE b.title LIKE 'Plan %' AND e.name = 'Plan projecteur'");
+            statement.execute("INSERT INTO sent_notifications " +
+                    "(booking_id, notification_type, sent_at, organizer_email, recipient, title, message, read_status, deleted) " +
+                    "SELECT b.id, '24h', b.start_time - INTERVAL '1 day', 'plan@example.com', LOWER(b.organizer), " +
+                    "'Rappel', 'Rappel', false, false " +
+                    "FROM booking b WHERE b.title LIKE 'Plan %'");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void testRoomConflictQueryUsesIndex() throws Exception {
+        Long roomId = seededRoomId();
+        assertIndexed(() -> bookingService.getAvailableRoom(roomId, SEED_START.plusHours(10), SEED_START.plusHours(12)));
+    }
+
+    @Test
+    void testBookingPageQueriesUseIndexes() throws Exception {
+        Long roomId = seededRoomId();
+        assertIndexed(ReactiveSqlCapture.capture(() -> reactiveReadService
+                .findBookingViewsPage(SEED_START, SEED_START.plusDays(2), null, null, 50).await().indefinitely()));
+        assertIndexed(ReactiveSqlCapture.capture(() -> reactiveReadService
+                .findBookingViewsPage(SEED_START, SEED_START.plusDays(2), roomId, null, 50).await().indefinitely()));
+    }
+
+    @Test
+    void testNotificationQueriesUseIndexes() throws Exception {
+        assertIndexed(ReactiveSqlCapture.capture(() -> {
+            reactiveReadService.getUserNotifications("plan.user1", null, null, 20, 0).await().indefinitely();
+            return reactiveReadService.countUserNotifications("plan.user1", false, "24h").await().indefinitely();
+        }));
+        assertIndexed(() -> notificationService.markAllAsRead("plan.user2"));
+    }
+
+    @Test
+    void testReminderQueriesUseIndexes() throws Exception {
+        assertIndexed(() -> reminderService.findBookingsToNotify(SEED_START, SEED_START.plusHours(2), "24h"));
+    }
+
+    private Long seededRoomId() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM room WHERE name = 'Plan 1'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void assertIndexed(Runnable action) throws Exception {
+        assertIndexed(SqlCapture.capture(() -> QuarkusTransaction.requiringNew().run(action)));
+    }
+
+    private void assertIndexed(List<String> statements) throws Exception {
+        assertFalse(statements.isEmpty(), "Aucune requête capturée");
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try {
+                for (String sql : statements) {
+                    String verb = sql.trim().toLowerCase();
+                    if (!verb.startsWith("select") && !verb.startsWith("update")) {
+                        continue;
+                    }
+                    List<String> violations = new ArrayList<>();
+                    collectViolations(explain(statement, sql), violations);
+                    assertTrue(violations.isEmpty(), "Parcours séquentiel dans le plan de :\n" + sql + "\n" + violations);
+                }
+            } finally {
+                statement.execute("RESET enable_seqscan");
+            }
+        }
+    }
+
+    // Plan générique : les paramètres JDBC sont remplacés par $1, $2... sans valeur (le SQL réactif les porte déjà)
+    private JsonNode explain(Statement statement, String sql) throws Exception {
+        StringBuilder positional = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                positional.append('$').append(++parameter);
+            } else {
+                positional.append(c);
+            }
+        }
+        try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + positional)) {
+            rs.next();
+            return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+        }
+    }
+
+    private void collectViolations(JsonNode node, List<String> violations) {
+        String relation = node.path("Relation Name").asText("");
+        String type = node.path("Node Type").asText("");
+        if (INDEXED_TABLES.contains(relation)) {
+            if ("Seq Scan".equals(type)) {
+                violations.add(type + " sur " + relation);
+            } else if (("Index Scan".equals(type) || "Index Only Scan".equals(type)) && !node.has("Index Cond")) {
+                // Index parcouru en entier : équivalent d'un parcours séquentiel
+                violations.add(type + " sans condition sur " + relation + " (" + node.path("Index Name").asText() + ")");
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectViolations(child, violations);
+        }
+    }
+
+    /**
+     * Capture le SQL préparé par Hibernate sur le thread courant
+     */
+    @ApplicationScoped
+    @PersistenceUnitExtension
+    public static class SqlCapture implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null && !captured.contains(sql)) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+
+        static List<String> capture(Runnable action) {
+            List<String> captured = new ArrayList<>();
+            CAPTURED.set(captured);
+            try {
+                action.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return captured;
+        }
+    }
+}
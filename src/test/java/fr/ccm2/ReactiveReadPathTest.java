@@ -0,0 +1,117 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.booking.BookingResponseDTO;
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.BookingEquipment;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.RoomEquipment;
+import fr.ccm2.services.ReactiveReadService;
+import fr.ccm2.utils.KeysetCursor;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La page de réservations du chemin réactif doit porter toutes les parties de la vue
+ */
+@QuarkusTest
+class ReactiveReadPathTest {
+
+    @Inject
+    ReactiveReadService reactiveReadService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void testBookingPageCarriesFullViews() {
+        LocalDateTime start = LocalDateTime.now().plusYears(4).withNano(0);
+        seedBookings(start, 5);
+
+        List<BookingResponseDTO> page = reactiveReadService
+                .findBookingViewsPage(start, start.plusDays(7), null, null, 3)
+                .await().indefinitely();
+
+        assertEquals(3, page.size());
+        for (int i = 0; i < page.size(); i++) {
+            BookingResponseDTO booking = page.get(i);
+            assertEquals("Réactive " + i, booking.title, "Tri par heure de début");
+            assertEquals(booking.id, booking.seriesId);
+            assertNotNull(booking.recurrence, "La récurrence doit être lue");
+            assertEquals(List.of(start.toLocalDate().plusWeeks(2)), booking.recurrence.exceptionDates);
+            assertEquals("Salle réactive " + i, booking.room.name);
+            assertEquals(1, booking.room.roomEquipments.size(), "Équipements de la salle");
+            assertEquals(1, booking.bookingEquipments.size(), "Équipements réservés");
+            assertEquals("Caméra", booking.bookingEquipments.get(0).equipment.name);
+        }
+
+        BookingResponseDTO last = page.get(2);
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.parse(last.startTime), last.id);
+        List<BookingResponseDTO> next = reactiveReadService
+                .findBookingViewsPage(start, start.plusDays(7), null, cursor, 3)
+                .await().indefinitely();
+        assertEquals(2, next.size(), "Reprise après le curseur");
+        assertEquals("Réactive 3", next.get(0).title);
+    }
+
+    // Réservations hebdomadaires avec une date d'exception, chacune dans sa salle équipée et avec un équipement mobile
+    private void seedBookings(LocalDateTime start, int count) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Equipment screen = new Equipment();
+            screen.setName("Écran");
+            screen.setDescription("Fixe");
+            screen.setQuantity(count);
+            entityManager.persist(screen);
+
+            Equipment camera = new Equipment();
+            camera.setName("Caméra");
+            camera.setDescription("Mobile");
+            camera.setQuantity(count);
+            camera.setMobile(true);
+            entityManager.persist(camera);
+
+            for (int i = 0; i < count; i++) {
+                Room room = new Room();
+                room.setName("Salle réactive " + i);
+                room.setCapacity(10);
+                room.setImageUrl("");
+                entityManager.persist(room);
+
+                RoomEquipment re = new RoomEquipment();
+                re.setRoom(room);
+                re.setEquipment(screen);
+                re.setQuantity(1);
+                entityManager.persist(re);
+
+                Booking booking = new Booking();
+                booking.setTitle("Réactive " + i);
+                booking.setRoom(room);
+                booking.setStartTime(start.plusHours(i));
+                booking.setEndTime(start.plusHours(i + 1));
+                booking.setAttendees(4);
+                booking.setOrganizer("reactive.test");
+                booking.setRecurrenceIntervalWeeks(1);
+                booking.setRecurrenceUntil(start.toLocalDate().plusWeeks(4));
+                booking.getExceptionDates().add(start.toLocalDate().plusWeeks(2));
+                entityManager.persist(booking);
+                booking.setSeriesId(booking.getId());
+
+                BookingEquipment be = new BookingEquipment();
+                be.setBooking(booking);
+                be.setEquipment(camera);
+                be.setQuantity(1);
+                be.setStartTime(booking.getStartTime());
+                be.setEndTime(booking.getEndTime());
+                entityManager.persist(be);
+            }
+        });
+    }
+}
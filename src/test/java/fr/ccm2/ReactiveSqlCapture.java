@@ -0,0 +1,46 @@
+package fr.ccm2;
+
+import fr.ccm2.services.ReactiveStatementInspector;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Capture le SQL envoyé par le client réactif pendant une action. Les requêtes complémentaires partent depuis
+ * la boucle d'événements : la capture est globale et non liée au thread, les tests s'exécutant l'un après l'autre.
+ */
+@ApplicationScoped
+public class ReactiveSqlCapture implements ReactiveStatementInspector {
+
+    private static List<String> captured;
+
+    @Override
+    public void inspect(String sql) {
+        synchronized (ReactiveSqlCapture.class) {
+            if (captured != null) {
+                captured.add(sql);
+            }
+        }
+    }
+
+    /**
+     * Exécute l'action (qui attend elle-même son résultat) et renvoie les requêtes envoyées, dans l'ordre
+     */
+    static <T> List<String> capture(Supplier<T> action) {
+        synchronized (ReactiveSqlCapture.class) {
+            captured = new ArrayList<>();
+        }
+        List<String> result;
+        try {
+            action.get();
+        } finally {
+            synchronized (ReactiveSqlCapture.class) {
+                result = captured;
+                captured = null;
+            }
+        }
+        return result;
+    }
+}
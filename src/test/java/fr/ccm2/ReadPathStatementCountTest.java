@@ -0,0 +1,139 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.booking.BookingResponseDTO;
+import fr.ccm2.dto.room.RoomResponseDTO;
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.BookingEquipment;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.RoomEquipment;
+import fr.ccm2.services.ReactiveReadService;
+import fr.ccm2.services.RoomService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class ReadPathStatementCountTest {
+
+    // Réservations + salles, équipements réservés, équipements des salles (aucune série : pas de dates d'exception)
+    private static final long BOOKING_PAGE_STATEMENTS = 3;
+    // Salles, équipements des salles
+    private static final long ROOM_LIST_STATEMENTS = 2;
+
+    @Inject
+    ReactiveReadService reactiveReadService;
+
+    @Inject
+    RoomService roomService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testBookingPageStatementCountDoesNotDependOnPageSize() {
+        LocalDateTime smallStart = LocalDateTime.now().plusYears(2).withNano(0);
+        LocalDateTime largeStart = smallStart.plusMonths(1);
+        seedBookings(smallStart, 3);
+        seedBookings(largeStart, 40);
+
+        long small = ReactiveSqlCapture.capture(() -> {
+            List<BookingResponseDTO> page = reactiveReadService
+                    .findBookingViewsPage(smallStart, smallStart.plusDays(7), null, null, 100).await().indefinitely();
+            assertEquals(3, page.size());
+            assertFalse(page.get(0).room.roomEquipments.isEmpty(), "Les équipements de la salle doivent être chargés");
+            assertFalse(page.get(0).bookingEquipments.isEmpty(), "Les équipements réservés doivent être chargés");
+            return page;
+        }).size();
+        long large = ReactiveSqlCapture.capture(() -> {
+            List<BookingResponseDTO> page = reactiveReadService
+                    .findBookingViewsPage(largeStart, largeStart.plusDays(7), null, null, 100).await().indefinitely();
+            assertEquals(40, page.size());
+            return page;
+        }).size();
+
+        assertEquals(BOOKING_PAGE_STATEMENTS, small, "Nombre de requêtes pour une petite page");
+        assertEquals(BOOKING_PAGE_STATEMENTS, large, "Nombre de requêtes pour une grande page");
+    }
+
+    @Test
+    void testRoomListStatementCountIsFixed() {
+        seedBookings(LocalDateTime.now().plusYears(3).withNano(0), 1);
+
+        long statements = countStatements(() -> {
+            List<RoomResponseDTO> rooms = roomService.getRoomViews();
+            assertFalse(rooms.isEmpty());
+        });
+
+        assertEquals(ROOM_LIST_STATEMENTS, statements);
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        QuarkusTransaction.requiringNew().run(action);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Une salle par réservation, chacune avec un équipement fixe et un équipement mobile réservé
+    private void seedBookings(LocalDateTime start, int count) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Equipment projector = new Equipment();
+            projector.setName("Vidéoprojecteur");
+            projector.setDescription("Fixe");
+            projector.setQuantity(count);
+            entityManager.persist(projector);
+
+            Equipment laptop = new Equipment();
+            laptop.setName("Ordinateur portable");
+            laptop.setDescription("Mobile");
+            laptop.setQuantity(count);
+            laptop.setMobile(true);
+            entityManager.persist(laptop);
+
+            for (int i = 0; i < count; i++) {
+                Room room = new Room();
+                room.setName("Salle lecture " + i);
+                room.setCapacity(20);
+                room.setImageUrl("");
+                entityManager.persist(room);
+
+                RoomEquipment re = new RoomEquipment();
+                re.setRoom(room);
+                re.setEquipment(projector);
+                re.setQuantity(1);
+                entityManager.persist(re);
+
+                Booking booking = new Booking();
+                booking.setTitle("Lecture " + i);
+                booking.setRoom(room);
+                booking.setStartTime(start.plusHours(i));
+                booking.setEndTime(start.plusHours(i + 1));
+                booking.setAttendees(5);
+                booking.setOrganizer("read.test");
+                entityManager.persist(booking);
+
+                BookingEquipment be = new BookingEquipment();
+                be.setBooking(booking);
+                be.setEquipment(laptop);
+                be.setQuantity(1);
+                be.setStartTime(booking.getStartTime());
+                be.setEndTime(booking.getEndTime());
+                entityManager.persist(be);
+            }
+        });
+    }
+}
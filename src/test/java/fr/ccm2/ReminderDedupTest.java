@@ -0,0 +1,118 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.reminder.NotificationCreateDTO;
+import fr.ccm2.dto.reminder.NotificationUpdateDTO;
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.SentNotification;
+import fr.ccm2.services.NotificationService;
+import fr.ccm2.services.ReminderService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class ReminderDedupTest {
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2095, 3, 1, 8, 0);
+    private static final int BOOKINGS = 20;
+
+    @Inject
+    ReminderService reminderService;
+
+    @Inject
+    NotificationService notificationService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testAlreadyNotifiedBookingsAreExcludedInOneQuery() {
+        List<Long> ids = seedBookings(WINDOW_START);
+        // La moitié des réservations a déjà reçu son rappel 24h, une autre un rappel manuel seulement
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < BOOKINGS / 2; i++) {
+                entityManager.persist(new SentNotification(entityManager.find(Booking.class, ids.get(i)), "24h", "dedup@example.com"));
+            }
+            entityManager.persist(new SentNotification(entityManager.find(Booking.class, ids.get(BOOKINGS - 1)), "manual", "dedup@example.com"));
+        });
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        List<Long> toNotify = QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> result = new ArrayList<>();
+            for (Booking booking : reminderService.findBookingsToNotify(WINDOW_START, WINDOW_START.plusHours(BOOKINGS), "24h")) {
+                result.add(booking.getId());
+            }
+            return result;
+        });
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Une seule requête quel que soit le nombre de candidats");
+        assertEquals(ids.subList(BOOKINGS / 2, BOOKINGS), toNotify.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSecondReminderOfSameTypeIsRejected() {
+        Long bookingId = seedBookings(WINDOW_START.plusYears(1)).get(0);
+        QuarkusTransaction.requiringNew().run(() ->
+                entityManager.persist(new SentNotification(entityManager.find(Booking.class, bookingId), "1h", "dedup@example.com")));
+
+        assertThrows(RuntimeException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.persist(new SentNotification(entityManager.find(Booking.class, bookingId), "1h", "dedup@example.com"));
+            entityManager.flush();
+        }));
+    }
+
+    @Test
+    void testManualNotificationCannotTakeAReminderType() {
+        // Refusé avant toute écriture : l'index unique de V7 ne remonte plus en 500
+        NotificationCreateDTO data = new NotificationCreateDTO();
+        data.title = "Rappel manuel";
+        data.message = "Ne doit pas occuper le rappel automatique";
+        data.notificationType = "24h";
+        assertThrows(IllegalArgumentException.class, () -> notificationService.createNotificationForUser("dedup.test", data));
+
+        NotificationUpdateDTO updates = new NotificationUpdateDTO();
+        updates.notificationType = "1h";
+        assertThrows(IllegalArgumentException.class, () -> notificationService.updateNotification(new SentNotification(), updates));
+    }
+
+    private List<Long> seedBookings(LocalDateTime start) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Room room = new Room();
+            room.setName("Salle rappel");
+            room.setCapacity(10);
+            room.setImageUrl("");
+            entityManager.persist(room);
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS; i++) {
+                Booking booking = new Booking();
+                booking.setTitle("Rappel " + i);
+                booking.setRoom(room);
+                booking.setStartTime(start.plusMinutes(30L * i));
+                booking.setEndTime(start.plusMinutes(30L * i + 30));
+                booking.setAttendees(3);
+                booking.setOrganizer("dedup.test");
+                entityManager.persist(booking);
+                ids.add(booking.getId());
+            }
+            return ids;
+        });
+    }
+}
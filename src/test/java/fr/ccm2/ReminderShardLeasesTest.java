@@ -0,0 +1,110 @@
+package fr.ccm2;
+
+import fr.ccm2.entities.Booking;
+import fr.ccm2.entities.Room;
+import fr.ccm2.services.ReminderService;
+import fr.ccm2.services.ReminderShardLeases;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class ReminderShardLeasesTest {
+
+    private static final String OTHER_POD = "autre-pod-test";
+
+    @Inject
+    ReminderShardLeases shardLeases;
+
+    @Inject
+    ReminderService reminderService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @AfterEach
+    void cleanUp() {
+        shardLeases.release();
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createNativeQuery("DELETE FROM reminder_worker WHERE owner = :owner")
+                .setParameter("owner", OTHER_POD)
+                .executeUpdate());
+    }
+
+    @Test
+    void testShardsAreSharedEquallyBetweenLiveInstances() {
+        int count = shardLeases.getShardCount();
+        shardLeases.heartbeat();
+        assertEquals(count, shardLeases.ownedShards().size(), "Seule instance vivante : tous les shards");
+
+        // Une deuxième instance s'inscrit : la moitié des shards est rendue au battement suivant
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createNativeQuery("INSERT INTO reminder_worker (owner, heartbeat_at) VALUES (:owner, LOCALTIMESTAMP)")
+                .setParameter("owner", OTHER_POD)
+                .executeUpdate());
+        Set<Integer> acquired = shardLeases.heartbeat();
+
+        assertTrue(acquired.isEmpty());
+        assertEquals(count / 2, shardLeases.ownedShards().size());
+        Number free = QuarkusTransaction.requiringNew().call(() -> (Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM reminder_shard_lease WHERE owner IS NULL AND shard < :count")
+                .setParameter("count", count)
+                .getSingleResult());
+        assertEquals(count / 2, free.intValue(), "Part rendue, libre pour l'autre instance");
+    }
+
+    @Test
+    void testReminderQueryKeepsOnlyRequestedShards() {
+        LocalDateTime start = LocalDateTime.of(2097, 6, 1, 8, 0);
+        List<Long> ids = seedBookings(start, 12);
+        int shard = shardLeases.shardOf(ids.get(0));
+
+        List<Long> found = QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> result = new ArrayList<>();
+            for (Booking booking : reminderService.findBookingsToNotify(start, start.plusHours(12), "24h",
+                    Set.of(shard), shardLeases.getShardCount())) {
+                result.add(booking.getId());
+            }
+            return result;
+        });
+
+        assertTrue(found.contains(ids.get(0)));
+        for (Long id : ids) {
+            assertEquals(shardLeases.shardOf(id) == shard, found.contains(id), "Réservation " + id);
+        }
+    }
+
+    private List<Long> seedBookings(LocalDateTime start, int count) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Room room = new Room();
+            room.setName("Salle shards");
+            room.setCapacity(10);
+            room.setImageUrl("");
+            entityManager.persist(room);
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Booking booking = new Booking();
+                booking.setTitle("Shard " + i);
+                booking.setRoom(room);
+                booking.setStartTime(start.plusMinutes(30L * i));
+                booking.setEndTime(start.plusMinutes(30L * i + 30));
+                booking.setAttendees(2);
+                booking.setOrganizer("shard.test");
+                entityManager.persist(booking);
+                ids.add(booking.getId());
+            }
+            return ids;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package fr.ccm2;
+
+import fr.ccm2.services.ReminderTimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderTimerWheelTest {
+
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long START = 1_900_000_000_000L;
+
+    private ReminderTimerWheel.TimingWheel<String> newWheel() {
+        return new ReminderTimerWheel.TimingWheel<>(SECOND, 60, 3, START);
+    }
+
+    @Test
+    void testTimersFireAtTheirExactSecondAcrossLevels() {
+        ReminderTimerWheel.TimingWheel<String> wheel = newWheel();
+        wheel.schedule("secondes", START + 42 * SECOND);
+        wheel.schedule("minutes", START + 25 * MINUTE + 7 * SECOND);
+        wheel.schedule("heures", START + 23 * HOUR + 59 * MINUTE + 30 * SECOND);
+
+        assertEquals(List.of(), wheel.advance(START + 41 * SECOND));
+        assertEquals(List.of("secondes"), wheel.advance(START + 42 * SECOND));
+        assertEquals(List.of(), wheel.advance(START + 25 * MINUTE + 6 * SECOND));
+        assertEquals(List.of("minutes"), wheel.advance(START + 25 * MINUTE + 7 * SECOND));
+        assertEquals(List.of(), wheel.advance(START + 23 * HOUR + 59 * MINUTE + 29 * SECOND));
+        assertEquals(List.of("heures"), wheel.advance(START + 23 * HOUR + 59 * MINUTE + 30 * SECOND));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTimerBeyondTheWheelRangeStillFires() {
+        ReminderTimerWheel.TimingWheel<String> wheel = newWheel();
+        // Au-delà des 60 heures couvertes par les trois niveaux
+        wheel.schedule("lointain", START + 100 * HOUR + 5 * SECOND);
+
+        assertEquals(List.of(), wheel.advance(START + 100 * HOUR + 4 * SECOND));
+        assertEquals(List.of("lointain"), wheel.advance(START + 100 * HOUR + 5 * SECOND));
+    }
+
+    @Test
+    void testRescheduleAndCancelReplaceThePreviousTimer() {
+        ReminderTimerWheel.TimingWheel<String> wheel = newWheel();
+        wheel.schedule("déplacé", START + 2 * HOUR);
+        wheel.schedule("annulé", START + 30 * MINUTE);
+        wheel.schedule("déplacé", START + 10 * MINUTE);
+        assertTrue(wheel.cancel("annulé"));
+        assertFalse(wheel.cancel("inconnu"));
+
+        assertEquals(List.of("déplacé"), wheel.advance(START + 10 * MINUTE));
+        assertEquals(List.of(), wheel.advance(START + 3 * HOUR));
+    }
+
+    @Test
+    void testOverdueTimerFiresOnNextAdvance() {
+        ReminderTimerWheel.TimingWheel<String> wheel = newWheel();
+        wheel.advance(START + MINUTE);
+        wheel.schedule("en retard", START);
+
+        assertEquals(List.of("en retard"), wheel.advance(START + MINUTE));
+    }
+}
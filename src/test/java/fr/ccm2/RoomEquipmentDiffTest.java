@@ -0,0 +1,108 @@
+package fr.ccm2;
+
+import fr.ccm2.dto.room.RoomCreateDTO;
+import fr.ccm2.dto.room.RoomUpdateDTO;
+import fr.ccm2.dto.room_equipment.RoomEquipmentCreateDTO;
+import fr.ccm2.dto.room_equipment.RoomEquipmentUpdateDTO;
+import fr.ccm2.entities.Equipment;
+import fr.ccm2.entities.Room;
+import fr.ccm2.entities.RoomEquipment;
+import fr.ccm2.services.RoomService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class RoomEquipmentDiffTest {
+
+    private static final int EQUIPMENTS = 30;
+
+    @Inject
+    RoomService roomService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testRoomUpdateWritesOnlyChangedEquipmentRows() {
+        List<Long> equipmentIds = createFixedEquipments(EQUIPMENTS + 1);
+
+        RoomCreateDTO create = new RoomCreateDTO();
+        create.name = "Salle diff";
+        create.capacity = 30;
+        create.imageUrl = "";
+        create.equipmentWithQuantities = new ArrayList<>();
+        for (Long equipmentId : equipmentIds.subList(0, EQUIPMENTS)) {
+            RoomEquipmentCreateDTO eq = new RoomEquipmentCreateDTO();
+            eq.equipmentId = equipmentId;
+            eq.quantity = 1;
+            create.equipmentWithQuantities.add(eq);
+        }
+        Long roomId = roomService.createRoom(create).getId();
+
+        // Même salle : le premier équipement change de quantité, le deuxième est retiré, un nouveau est ajouté
+        RoomUpdateDTO update = new RoomUpdateDTO();
+        update.name = create.name;
+        update.capacity = create.capacity;
+        update.equipmentWithQuantities = new ArrayList<>();
+        for (int i = 0; i <= EQUIPMENTS; i++) {
+            if (i == 1) {
+                continue;
+            }
+            RoomEquipmentUpdateDTO eq = new RoomEquipmentUpdateDTO();
+            eq.equipmentId = equipmentIds.get(i);
+            eq.quantity = i == 0 ? 5 : 1;
+            update.equipmentWithQuantities.add(eq);
+        }
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        roomService.updateRoom(roomId, update);
+
+        assertEquals(1, statistics.getEntityInsertCount(), "Une seule ligne ajoutée");
+        assertEquals(1, statistics.getEntityUpdateCount(), "Une seule ligne modifiée");
+        assertEquals(1, statistics.getEntityDeleteCount(), "Une seule ligne supprimée");
+
+        Map<Long, Integer> quantities = QuarkusTransaction.requiringNew().call(() -> {
+            Map<Long, Integer> result = new HashMap<>();
+            for (RoomEquipment re : entityManager.find(Room.class, roomId).getRoomEquipments()) {
+                result.put(re.getEquipment().getId(), re.getQuantity());
+            }
+            return result;
+        });
+        assertEquals(EQUIPMENTS, quantities.size());
+        assertEquals(5, quantities.get(equipmentIds.get(0)));
+        assertFalse(quantities.containsKey(equipmentIds.get(1)));
+        assertEquals(1, quantities.get(equipmentIds.get(EQUIPMENTS)));
+    }
+
+    private List<Long> createFixedEquipments(int count) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Equipment equipment = new Equipment();
+                equipment.setName("Équipement fixe " + i);
+                equipment.setDescription("Diff");
+                equipment.setQuantity(10);
+                entityManager.persist(equipment);
+                ids.add(equipment.getId());
+            }
+            return ids;
+        });
+    }
+}
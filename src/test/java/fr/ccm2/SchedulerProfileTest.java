@@ -0,0 +1,38 @@
+package fr.ccm2;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Le profil de production doit faire tourner le scheduler et les tâches dont dépendent les e-mails et les rappels
+ */
+class SchedulerProfileTest {
+
+    private static final List<String> PROD_JOBS = List.of(
+            "app.mail.outbox.every", "app.mail.outbox.purge-every", "app.reminder.wheel.tick",
+            "app.reminder.reconcile-every", "app.reminder.shards.heartbeat", "app.archive.cron",
+            "app.archive.catch-up-every", "app.booking.index.evict-every");
+
+    @Test
+    void testProductionProfileRunsScheduledJobs() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        }
+
+        assertNotEquals("false", properties.getProperty("%prod.quarkus.scheduler.enabled"),
+                "Scheduler arrêté en production");
+        assertNotEquals("false", properties.getProperty("quarkus.scheduler.enabled"));
+        for (String job : PROD_JOBS) {
+            String value = properties.getProperty("%prod." + job, properties.getProperty(job));
+            assertNotNull(value, job);
+            assertNotEquals("off", value, job + " désactivée en production");
+        }
+    }
+}